@@ -30,12 +30,14 @@ import org.kitteh.irc.client.library.command.CapabilityRequestCommand;
 import org.kitteh.irc.client.library.command.ChannelModeCommand;
 import org.kitteh.irc.client.library.command.Command;
 import org.kitteh.irc.client.library.command.KickCommand;
+import org.kitteh.irc.client.library.command.ModerationCommand;
 import org.kitteh.irc.client.library.command.MonitorCommand;
 import org.kitteh.irc.client.library.command.OperCommand;
 import org.kitteh.irc.client.library.command.TopicCommand;
 import org.kitteh.irc.client.library.command.WallopsCommand;
 import org.kitteh.irc.client.library.command.WhoisCommand;
 import org.kitteh.irc.client.library.defaults.DefaultBuilder;
+import org.kitteh.irc.client.library.defaults.feature.ConcurrentActorTracker;
 import org.kitteh.irc.client.library.defaults.feature.DefaultActorTracker;
 import org.kitteh.irc.client.library.defaults.feature.DefaultAuthManager;
 import org.kitteh.irc.client.library.defaults.feature.DefaultCapabilityManager;
@@ -43,6 +45,7 @@ import org.kitteh.irc.client.library.defaults.feature.DefaultEventManager;
 import org.kitteh.irc.client.library.defaults.feature.DefaultISupportManager;
 import org.kitteh.irc.client.library.defaults.feature.DefaultMessageTagManager;
 import org.kitteh.irc.client.library.defaults.feature.DefaultServerInfo;
+import org.kitteh.irc.client.library.defaults.feature.IndexedEventManager;
 import org.kitteh.irc.client.library.defaults.feature.network.NettyNetworkHandler;
 import org.kitteh.irc.client.library.defaults.listener.DefaultListeners;
 import org.kitteh.irc.client.library.element.Channel;
@@ -67,6 +70,7 @@ import org.kitteh.irc.client.library.feature.defaultmessage.DefaultMessageMap;
 import org.kitteh.irc.client.library.feature.defaultmessage.DefaultMessageType;
 import org.kitteh.irc.client.library.feature.network.NetworkHandler;
 import org.kitteh.irc.client.library.feature.network.ProxyType;
+import org.kitteh.irc.client.library.feature.sending.EventLoopDelaySender;
 import org.kitteh.irc.client.library.feature.sending.MessageSendingQueue;
 import org.kitteh.irc.client.library.feature.sending.SingleDelaySender;
 import org.kitteh.irc.client.library.feature.sts.StsMachine;
@@ -75,7 +79,10 @@ import org.kitteh.irc.client.library.util.Cutter;
 import org.kitteh.irc.client.library.util.HostWithPort;
 import org.kitteh.irc.client.library.util.Listener;
 import org.kitteh.irc.client.library.util.Pair;
+import org.kitteh.irc.client.library.util.QueueProcessingThread;
 import org.kitteh.irc.client.library.util.Sanity;
+import org.kitteh.irc.client.library.util.SerialExecutor;
+import org.kitteh.irc.client.library.util.ServerLine;
 
 import javax.net.ssl.TrustManagerFactory;
 import java.net.InetAddress;
@@ -85,6 +92,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -385,7 +393,9 @@ public interface Client extends ClientLinked {
             /**
              * Sets the supplier of the actor tracker.
              * <p>
-             * By default, the {@link DefaultActorTracker} is used.
+             * By default, the {@link DefaultActorTracker} is used. For
+             * channels and users read from many threads at once, consider
+             * the {@link ConcurrentActorTracker}.
              *
              * @param supplier supplier
              * @return this builder
@@ -404,6 +414,20 @@ public interface Client extends ClientLinked {
              */
             @NonNull Management authManager(@Nullable Function<Client.WithManagement, ? extends AuthManager> supplier);
 
+            /**
+             * Sets whether inbound lines are split directly from the bytes
+             * received from the network, rather than decoding each line to a
+             * String first. When enabled, the prefix, parameters, and full
+             * line are only decoded when something asks for them.
+             * <p>
+             * By default, this is disabled.
+             *
+             * @param enabled true to parse lines from the network buffer
+             * @return this builder
+             * @see ServerLine
+             */
+            @NonNull Management bufferLineParsing(boolean enabled);
+
             /**
              * Sets the supplier of the capability manager.
              * <p>
@@ -427,7 +451,9 @@ public interface Client extends ClientLinked {
             /**
              * Sets the supplier of the event manager.
              * <p>
-             * By default, the {@link DefaultEventManager} is used.
+             * By default, the {@link DefaultEventManager} is used. The {@link
+             * IndexedEventManager} is available as an alternative which does
+             * not rely on MBassador.
              *
              * @param supplier supplier
              * @return this builder
@@ -446,6 +472,21 @@ public interface Client extends ClientLinked {
              */
             @NonNull Management eventListeners(@Nullable List<EventListenerSupplier> listenerSuppliers);
 
+            /**
+             * Sets an executor on which to process lines received from the
+             * server, which may be shared between many clients. Lines from
+             * this client are still processed one at a time, in the order
+             * received.
+             * <p>
+             * By default, this is null and each client processes its input
+             * on a thread of its own.
+             *
+             * @param executor shared executor, or null for a dedicated thread
+             * @return this builder
+             * @see SerialExecutor
+             */
+            @NonNull Management inputExecutor(@Nullable Executor executor);
+
             /**
              * Sets the supplier of the ISUPPORT manager.
              * <p>
@@ -462,7 +503,9 @@ public interface Client extends ClientLinked {
              * rate at which messages are sent by the Client to the server.
              * <p>
              * By default, the {@link SingleDelaySender} is used with a delay set
-             * to {@link SingleDelaySender#DEFAULT_MESSAGE_DELAY}.
+             * to {@link SingleDelaySender#DEFAULT_MESSAGE_DELAY}. The {@link
+             * EventLoopDelaySender} paces sending the same way without a
+             * thread of its own.
              *
              * @param supplier supplier
              * @return this builder
@@ -515,6 +558,19 @@ public interface Client extends ClientLinked {
              */
             @NonNull Management stsStorageManager(@Nullable StsStorageManager storageManager);
 
+            /**
+             * Sets whether the client's own queue processing threads, which
+             * handle input, listeners, and message sending queues, run on
+             * virtual threads rather than platform threads.
+             * <p>
+             * By default, this is disabled.
+             *
+             * @param enabled true to use virtual threads
+             * @return this builder
+             * @see QueueProcessingThread
+             */
+            @NonNull Management virtualThreads(boolean enabled);
+
             /**
              * Returns to the root builder.
              *
@@ -657,6 +713,14 @@ public interface Client extends ClientLinked {
          */
         @NonNull KickCommand kick(@NonNull Channel channel);
 
+        /**
+         * Provides a new bulk moderation command.
+         *
+         * @param channel channel being moderated
+         * @return new moderation command
+         */
+        @NonNull ModerationCommand moderation(@NonNull Channel channel);
+
         /**
          * Provides a new MONITOR command.
          *
@@ -826,6 +890,26 @@ public interface Client extends ClientLinked {
          */
         void ping();
 
+        /**
+         * Gets if inbound lines are to be parsed directly from the network
+         * buffer.
+         *
+         * @return true if parsing from the network buffer
+         */
+        default boolean isBufferLineParsing() {
+            return false;
+        }
+
+        /**
+         * Gets if the client's queue processing threads are run on virtual
+         * threads.
+         *
+         * @return true if running on virtual threads
+         */
+        default boolean isVirtualThreads() {
+            return false;
+        }
+
         /**
          * Processes a line from the IRC server.
          *
@@ -833,6 +917,15 @@ public interface Client extends ClientLinked {
          */
         void processLine(@NonNull String line);
 
+        /**
+         * Processes a line from the IRC server.
+         *
+         * @param line line to process
+         */
+        default void processLine(@NonNull ServerLine line) {
+            this.processLine(line.getMessage());
+        }
+
         /**
          * Sends a nick change request.
          *
@@ -1144,6 +1237,34 @@ public interface Client extends ClientLinked {
      */
     void removeChannel(@NonNull String channel, @Nullable String reason);
 
+    /**
+     * Sends the same message to many target users or channels, joining
+     * targets with commas into as few lines as the server's TARGMAX (or
+     * MAXTARGETS) limit and the line length allow. Targets appearing more
+     * than once, ignoring case, receive the message once.
+     *
+     * @param targets the destinations of the message
+     * @param message the message to send
+     * @throws IllegalArgumentException for null parameters, a target
+     * containing a space or comma, or a message too long to fit on a line
+     * with a target, in which case nothing is sent
+     */
+    void sendBroadcastMessage(@NonNull Collection<String> targets, @NonNull String message);
+
+    /**
+     * Sends the same notice to many target users or channels, joining
+     * targets with commas into as few lines as the server's TARGMAX (or
+     * MAXTARGETS) limit and the line length allow. Targets appearing more
+     * than once, ignoring case, receive the notice once.
+     *
+     * @param targets the destinations of the notice
+     * @param message the notice to send
+     * @throws IllegalArgumentException for null parameters, a target
+     * containing a space or comma, or a notice too long to fit on a line
+     * with a target, in which case nothing is sent
+     */
+    void sendBroadcastNotice(@NonNull Collection<String> targets, @NonNull String message);
+
     /**
      * Sends a CTCP message to a target user or channel. Automagically adds
      * the CTCP delimiter around the message and escapes the characters that
@@ -0,0 +1,301 @@
+/*
+ * * Copyright (C) 2013-2025 Matt Baxter https://kitteh.org
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS
+ * BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN
+ * ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.kitteh.irc.client.library.command;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.kitteh.irc.client.library.Client;
+import org.kitteh.irc.client.library.defaults.element.mode.DefaultModeStatus;
+import org.kitteh.irc.client.library.element.Channel;
+import org.kitteh.irc.client.library.element.ISupportParameter;
+import org.kitteh.irc.client.library.element.User;
+import org.kitteh.irc.client.library.element.mode.ChannelMode;
+import org.kitteh.irc.client.library.element.mode.ChannelUserMode;
+import org.kitteh.irc.client.library.element.mode.ModeInfo;
+import org.kitteh.irc.client.library.element.mode.ModeStatus;
+import org.kitteh.irc.client.library.feature.CaseMapping;
+import org.kitteh.irc.client.library.feature.defaultmessage.DefaultMessageType;
+import org.kitteh.irc.client.library.util.Sanity;
+import org.kitteh.irc.client.library.util.StringUtil;
+import org.kitteh.irc.client.library.util.ToStringer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedSet;
+
+/**
+ * Bulk moderation of a channel, sending mode changes and kicks in as few
+ * lines as the server allows.
+ * <p>
+ * A later change to the same mode, for the same nickname or mask where the
+ * mode takes one, replaces an earlier one, so <code>+o Kitteh</code>
+ * followed by <code>-o Kitteh</code> sends only the latter. Changes and
+ * kicks known to do nothing given the tracked channel state are dropped,
+ * such as opping someone already opped or kicking someone not in the
+ * channel. Mode changes are packed by the MODES limit and the line length,
+ * then kicks are comma-joined by the TARGMAX limit for KICK and the line
+ * length, so bans are in place before their targets are kicked. If the
+ * kick reason leaves no room on the line for a nickname, nothing is sent
+ * and an {@link IllegalArgumentException} is thrown.
+ */
+public class ModerationCommand extends ChannelCommand<ModerationCommand> {
+    private static final int PARAMETER_MODES_PER_LINE = 3;
+    // 512, minus CR and LF
+    private static final int LINE_LENGTH = 510;
+
+    private final Map<String, ModeStatus<ChannelMode>> changes = new LinkedHashMap<>();
+    private final Map<String, String> kicks = new LinkedHashMap<>();
+    private @Nullable String reason;
+
+    /**
+     * Constructs a moderation command for a given channel.
+     *
+     * @param client the client on which this command is executing
+     * @param channel channel targeted
+     * @throws IllegalArgumentException if null parameters
+     */
+    public ModerationCommand(@NonNull Client client, @NonNull String channel) {
+        super(client, channel);
+        this.reason = client.getDefaultMessageMap().getDefault(DefaultMessageType.KICK).orElse(null);
+    }
+
+    /**
+     * Adds a mode change without a parameter.
+     *
+     * @param action adding or removing
+     * @param mode the mode to be changed
+     * @return this command
+     * @throws IllegalArgumentException if mode invalid
+     */
+    public @NonNull ModerationCommand add(ModeStatus.Action action, @NonNull ChannelMode mode) {
+        return this.addChange(action, mode, null);
+    }
+
+    /**
+     * Adds a mode change.
+     *
+     * @param action adding or removing
+     * @param mode the mode to be changed
+     * @param parameter mode parameter
+     * @return this command
+     * @throws IllegalArgumentException if mode invalid comes from a
+     * different client or parameter is null
+     */
+    public @NonNull ModerationCommand add(ModeStatus.Action action, @NonNull ChannelMode mode, @NonNull String parameter) {
+        return this.addChange(action, mode, Sanity.nullCheck(parameter, "Parameter"));
+    }
+
+    /**
+     * Adds a mode change.
+     *
+     * @param action adding or removing
+     * @param mode the mode to be changed
+     * @param parameter user whose nick will be sent
+     * @return this command
+     * @throws IllegalArgumentException if mode invalid or either mode or
+     * user comes from a different client or parameter is null
+     */
+    public @NonNull ModerationCommand add(ModeStatus.Action action, @NonNull ChannelUserMode mode, @NonNull User parameter) {
+        Sanity.nullCheck(parameter, "User");
+        Sanity.truthiness(parameter.getClient() == this.getClient(), "User comes from a different Client");
+        return this.addChange(action, mode, parameter.getNick());
+    }
+
+    /**
+     * Adds a kick.
+     *
+     * @param nick nickname to kick
+     * @return this command
+     * @throws IllegalArgumentException if nick is null or contains invalid
+     * characters
+     */
+    public synchronized @NonNull ModerationCommand kick(@NonNull String nick) {
+        Sanity.safeMessageCheck(nick, "Nick");
+        Sanity.noSpaces(nick, "Nick");
+        Sanity.truthiness(nick.indexOf(',') < 0, "Nick cannot contain a comma");
+        this.kicks.put(this.getCaseMapping().toLowerCase(nick), nick);
+        return this;
+    }
+
+    /**
+     * Adds a kick.
+     *
+     * @param user user to kick
+     * @return this command
+     * @throws IllegalArgumentException if user is null or from a different
+     * Client
+     */
+    public @NonNull ModerationCommand kick(@NonNull User user) {
+        Sanity.nullCheck(user, "User");
+        Sanity.truthiness(user.getClient() == this.getClient(), "User comes from a different Client");
+        return this.kick(user.getNick());
+    }
+
+    /**
+     * Sets the reason for the kicks.
+     *
+     * @param reason reason or null to provide no reason
+     * @return this command
+     * @throws IllegalArgumentException if reason contains invalid characters
+     */
+    public synchronized @NonNull ModerationCommand reason(@Nullable String reason) {
+        this.reason = (reason == null) ? null : Sanity.safeMessageCheck(reason, "Reason");
+        return this;
+    }
+
+    private synchronized @NonNull ModerationCommand addChange(ModeStatus.Action action, @NonNull ChannelMode mode, @Nullable String parameter) {
+        Sanity.nullCheck(action, "Action");
+        Sanity.nullCheck(mode, "Mode");
+        Sanity.truthiness(mode.getClient() == this.getClient(), "Mode comes from a different Client");
+        String key = String.valueOf(mode.getChar());
+        ModeStatus<ChannelMode> change;
+        if (parameter != null) {
+            Sanity.safeMessageCheck(parameter, "Parameter");
+            Sanity.noSpaces(parameter, "Parameter");
+            if ((mode instanceof ChannelUserMode) || (mode.getType() == ChannelMode.Type.A_MASK)) {
+                key += ' ' + this.getCaseMapping().toLowerCase(parameter);
+            }
+            change = new DefaultModeStatus<>(action, mode, parameter);
+        } else {
+            change = new DefaultModeStatus<>(action, mode);
+        }
+        this.changes.remove(key);
+        this.changes.put(key, change);
+        return this;
+    }
+
+    @Override
+    public synchronized void execute() {
+        Channel channel = this.getClient().getChannel(this.getChannel()).orElse(null);
+        int lineLimit = this.getLineLimit();
+        // Worked out first, so nothing is sent if a kick cannot fit
+        List<String> kickLines = this.getKickLines(channel, lineLimit);
+        this.sendModes(channel, lineLimit);
+        kickLines.forEach(this::sendCommandLine);
+    }
+
+    private void sendModes(@Nullable Channel channel, int lineLimit) {
+        int parameterModesPerLine = -1;
+        Optional<ISupportParameter.Modes> modesParameter = this.getClient().getServerInfo().getISupportParameter(ISupportParameter.Modes.NAME, ISupportParameter.Modes.class);
+        if (modesParameter.isPresent() && modesParameter.get().getInteger().isPresent()) {
+            parameterModesPerLine = modesParameter.get().getInteger().getAsInt();
+        }
+        if (parameterModesPerLine < 1) {
+            parameterModesPerLine = ModerationCommand.PARAMETER_MODES_PER_LINE;
+        }
+        String command = "MODE " + this.getChannel() + ' ';
+        int commandLength = StringUtil.getUtf8Length(command);
+        StringBuilder modes = new StringBuilder();
+        StringBuilder parameters = new StringBuilder();
+        ModeStatus.Action action = null;
+        int parameterCount = 0;
+        int length = commandLength;
+        for (ModeStatus<ChannelMode> change : this.changes.values()) {
+            if ((channel != null) && this.isNoOp(channel, change)) {
+                continue;
+            }
+            String parameter = change.getParameter().orElse(null);
+            int added = 1 + ((parameter == null) ? 0 : (1 + StringUtil.getUtf8Length(parameter)));
+            if ((modes.length() > 0) && (((parameter != null) && (parameterCount == parameterModesPerLine)) || ((length + added + ((action == change.getAction()) ? 0 : 1)) > lineLimit))) {
+                this.sendCommandLine(command + modes + parameters);
+                modes.setLength(0);
+                parameters.setLength(0);
+                action = null;
+                parameterCount = 0;
+                length = commandLength;
+            }
+            if (action != change.getAction()) {
+                action = change.getAction();
+                modes.append(action.getChar());
+                length++;
+            }
+            modes.append(change.getMode().getChar());
+            if (parameter != null) {
+                parameters.append(' ').append(parameter);
+                parameterCount++;
+            }
+            length += added;
+        }
+        if (modes.length() > 0) {
+            this.sendCommandLine(command + modes + parameters);
+        }
+    }
+
+    private @NonNull List<String> getKickLines(@Nullable Channel channel, int lineLimit) {
+        String command = "KICK " + this.getChannel() + ' ';
+        String suffix = (this.reason == null) ? "" : (" :" + this.reason);
+        List<String> nicks = new ArrayList<>(this.kicks.size());
+        for (String nick : this.kicks.values()) {
+            if ((channel == null) || !channel.hasCompleteUserData() || channel.getUserModes(nick).isPresent()) {
+                nicks.add(nick);
+            }
+        }
+        List<String> lines = new ArrayList<>();
+        int remaining = lineLimit - StringUtil.getUtf8Length(command) - StringUtil.getUtf8Length(suffix);
+        for (String targets : StringUtil.joinTargets(nicks, this.getClient().getServerInfo().getTargetLimit("KICK"), remaining)) {
+            lines.add(command + targets + suffix);
+        }
+        return lines;
+    }
+
+    private boolean isNoOp(@NonNull Channel channel, @NonNull ModeStatus<ChannelMode> change) {
+        ChannelMode mode = change.getMode();
+        Optional<String> parameter = change.getParameter();
+        if (parameter.isEmpty()) {
+            return false;
+        }
+        boolean add = change.getAction() == ModeStatus.Action.ADD;
+        if (mode instanceof ChannelUserMode) {
+            Optional<SortedSet<ChannelUserMode>> userModes = channel.getUserModes(parameter.get());
+            return userModes.isPresent() && (userModes.get().contains(mode) == add);
+        }
+        if (mode.getType() == ChannelMode.Type.A_MASK) {
+            Optional<List<ModeInfo>> modeInfoList = channel.getModeInfoList(mode);
+            if (modeInfoList.isPresent()) {
+                CaseMapping caseMapping = this.getCaseMapping();
+                boolean present = modeInfoList.get().stream().anyMatch(info -> caseMapping.areEqualIgnoringCase(info.getMask().asString(), parameter.get()));
+                return present == add;
+            }
+        }
+        return false;
+    }
+
+    private @NonNull CaseMapping getCaseMapping() {
+        return this.getClient().getServerInfo().getCaseMapping();
+    }
+
+    private int getLineLimit() {
+        // Servers relay the line to others prefixed with ":nick!user@host ", which has to fit too.
+        // If self name is unknown, let's just do 100 for now, as for messages.
+        return ModerationCommand.LINE_LENGTH - this.getClient().getUser().map(user -> StringUtil.getUtf8Length(user.getName()) + 2).orElse(100);
+    }
+
+    @Override
+    protected @NonNull ToStringer toStringer() {
+        return super.toStringer().add("changes", this.changes.values()).add("kicks", this.kicks.values()).add("reason", this.reason);
+    }
+}
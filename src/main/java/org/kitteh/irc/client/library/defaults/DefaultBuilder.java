@@ -61,6 +61,7 @@ import java.net.InetSocketAddress;
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -247,6 +248,12 @@ public class DefaultBuilder implements Client.Builder {
             return this;
         }
 
+        @Override
+        public @NonNull Management bufferLineParsing(boolean enabled) {
+            DefaultBuilder.this.bufferLineParsing = enabled;
+            return this;
+        }
+
         @Override
         public @NonNull Management capabilityManager(@Nullable Function<Client.WithManagement, ? extends CapabilityManager.WithManagement> supplier) {
             DefaultBuilder.this.capabilityManager = (supplier != null) ? supplier : DefaultBuilder.DEFAULT_CAPABILITY_MANAGER;
@@ -271,6 +278,12 @@ public class DefaultBuilder implements Client.Builder {
             return this;
         }
 
+        @Override
+        public @NonNull Management inputExecutor(@Nullable Executor executor) {
+            DefaultBuilder.this.inputExecutor = executor;
+            return this;
+        }
+
         @Override
         public @NonNull Management iSupportManager(@Nullable Function<Client.WithManagement, ? extends ISupportManager> supplier) {
             DefaultBuilder.this.iSupportManager = (supplier != null) ? supplier : DefaultBuilder.DEFAULT_ISUPPORT_MANAGER;
@@ -307,6 +320,12 @@ public class DefaultBuilder implements Client.Builder {
             return this;
         }
 
+        @Override
+        public @NonNull Management virtualThreads(boolean enabled) {
+            DefaultBuilder.this.virtualThreads = enabled;
+            return this;
+        }
+
         @Override
         public Client.@NonNull Builder then() {
             return DefaultBuilder.this;
@@ -362,16 +381,19 @@ public class DefaultBuilder implements Client.Builder {
     // Management
     Function<Client.WithManagement, ? extends ActorTracker> actorTracker = DefaultBuilder.DEFAULT_ACTOR_TRACKER;
     Function<Client.WithManagement, ? extends AuthManager> authManager = DefaultBuilder.DEFAULT_AUTH_MANAGER;
+    boolean bufferLineParsing = false;
     Function<Client.WithManagement, ? extends CapabilityManager.WithManagement> capabilityManager = DefaultBuilder.DEFAULT_CAPABILITY_MANAGER;
     @Nullable DefaultMessageMap defaultMessageMap = null;
     Function<Client.WithManagement, ? extends EventManager> eventManager = DefaultBuilder.DEFAULT_EVENT_MANAGER;
     List<EventListenerSupplier> eventListeners = DefaultBuilder.DEFAULT_EVENT_LISTENERS;
+    @Nullable Executor inputExecutor = null;
     Function<Client.WithManagement, ? extends ISupportManager> iSupportManager = DefaultBuilder.DEFAULT_ISUPPORT_MANAGER;
     Function<Client.WithManagement, ? extends MessageSendingQueue> messageSendingQueue = DefaultBuilder.DEFAULT_MESSAGE_SENDING_QUEUE;
     Function<Client.WithManagement, ? extends MessageTagManager> messageTagManager = DefaultBuilder.DEFAULT_MESSAGE_TAG_MANAGER;
     NetworkHandler networkHandler = NettyNetworkHandler.getInstance();
     Function<Client.WithManagement, ? extends ServerInfo.WithManagement> serverInfo = DefaultBuilder.DEFAULT_SERVER_INFO;
     @Nullable StsStorageManager stsStorageManager = null;
+    boolean virtualThreads = false;
 
     @Override
     public @NonNull DefaultBuilder name(@NonNull String name) {
@@ -30,6 +30,7 @@ import org.kitteh.irc.client.library.command.AwayCommand;
 import org.kitteh.irc.client.library.command.CapabilityRequestCommand;
 import org.kitteh.irc.client.library.command.ChannelModeCommand;
 import org.kitteh.irc.client.library.command.KickCommand;
+import org.kitteh.irc.client.library.command.ModerationCommand;
 import org.kitteh.irc.client.library.command.MonitorCommand;
 import org.kitteh.irc.client.library.command.OperCommand;
 import org.kitteh.irc.client.library.command.TopicCommand;
@@ -37,6 +38,7 @@ import org.kitteh.irc.client.library.command.WallopsCommand;
 import org.kitteh.irc.client.library.command.WhoisCommand;
 import org.kitteh.irc.client.library.defaults.element.DefaultServerMessage;
 import org.kitteh.irc.client.library.defaults.element.mode.DefaultModeStatusList;
+import org.kitteh.irc.client.library.defaults.feature.DefaultMessageTagManager;
 import org.kitteh.irc.client.library.defaults.feature.SimpleDefaultMessageMap;
 import org.kitteh.irc.client.library.element.Actor;
 import org.kitteh.irc.client.library.element.Channel;
@@ -82,12 +84,14 @@ import org.kitteh.irc.client.library.util.Listener;
 import org.kitteh.irc.client.library.util.Pair;
 import org.kitteh.irc.client.library.util.QueueProcessingThread;
 import org.kitteh.irc.client.library.util.Sanity;
+import org.kitteh.irc.client.library.util.SerialExecutor;
+import org.kitteh.irc.client.library.util.ServerLine;
+import org.kitteh.irc.client.library.util.StringUtil;
 import org.kitteh.irc.client.library.util.ToStringer;
 
 import javax.net.ssl.TrustManagerFactory;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -98,6 +102,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -131,6 +136,13 @@ public class DefaultClient implements Client.WithManagement {
             return new KickCommand(DefaultClient.this, channel.getMessagingName());
         }
 
+        @Override
+        public @NonNull ModerationCommand moderation(@NonNull Channel channel) {
+            Sanity.nullCheck(channel, "Channel");
+            Sanity.truthiness(DefaultClient.this == channel.getClient(), "Client mismatch");
+            return new ModerationCommand(DefaultClient.this, channel.getMessagingName());
+        }
+
         @Override
         public @NonNull MonitorCommand monitor() {
             return new MonitorCommand(DefaultClient.this);
@@ -159,18 +171,14 @@ public class DefaultClient implements Client.WithManagement {
         }
     }
 
-    private final class InputProcessor extends QueueProcessingThread<String> {
+    private final class InputProcessor extends QueueProcessingThread<ServerLine> {
         private InputProcessor() {
-            super("KICL Input Processor (" + DefaultClient.this.getName() + ')');
+            super("KICL Input Processor (" + DefaultClient.this.getName() + ')', DefaultClient.this.virtualThreads);
         }
 
         @Override
-        protected void processElement(@NonNull String element) {
-            try {
-                DefaultClient.this.handleLine(element);
-            } catch (final Exception thrown) {
-                DefaultClient.this.exceptionListener.queue(thrown);
-            }
+        protected void processElement(@NonNull ServerLine element) {
+            DefaultClient.this.processInput(element);
         }
     }
 
@@ -178,7 +186,8 @@ public class DefaultClient implements Client.WithManagement {
     private int pingPurrCount;
 
     private final HashMap<String, BatchReferenceTag> batchHold = new HashMap<>();
-    private final InputProcessor processor;
+    private final @Nullable InputProcessor processor;
+    private final @Nullable SerialExecutor inputExecutor;
     private ServerInfo.WithManagement serverInfo;
 
     private String goalNick;
@@ -234,6 +243,8 @@ public class DefaultClient implements Client.WithManagement {
     private final InetAddress webircIP;
     private final String webircPassword;
     private final String webircGateway;
+    private final boolean bufferLineParsing;
+    private final boolean virtualThreads;
     private Function<Client.WithManagement, ? extends MessageSendingQueue> messageSendingQueueSupplier;
     private final Function<Client.WithManagement, ? extends ServerInfo.WithManagement> serverInfoSupplier;
 
@@ -243,7 +254,7 @@ public class DefaultClient implements Client.WithManagement {
      * @param builder builder
      */
     DefaultClient(DefaultBuilder builder) {
-        this.processor = new InputProcessor();
+        this.virtualThreads = builder.virtualThreads;
         this.messageSendingImmediate = new QueueProcessingThreadSender(this, "Immediate");
 
         this.name = builder.name;
@@ -269,6 +280,15 @@ public class DefaultClient implements Client.WithManagement {
         this.inputListener = new Listener<>(this, builder.inputListener);
         this.outputListener = new Listener<>(this, builder.outputListener);
 
+        if (builder.inputExecutor == null) {
+            this.processor = new InputProcessor();
+            this.inputExecutor = null;
+        } else {
+            this.processor = null;
+            // Input can no longer be processed, so report it rather than throwing out of the network handler
+            this.inputExecutor = new SerialExecutor(builder.inputExecutor, this.exceptionListener::queue);
+        }
+
         this.secure = builder.secure;
         this.secureKeyCertChain = builder.secureKeyCertChain;
         this.secureKey = builder.secureKey;
@@ -280,6 +300,8 @@ public class DefaultClient implements Client.WithManagement {
         this.webircIP = builder.webircIP;
         this.webircPassword = builder.webircPassword;
         this.webircGateway = builder.webircGateway;
+
+        this.bufferLineParsing = builder.bufferLineParsing;
     }
 
     /**
@@ -486,6 +508,16 @@ public class DefaultClient implements Client.WithManagement {
         this.sendRawLine("PART " + channelName + (reason != null ? (" :" + reason) : ""));
     }
 
+    @Override
+    public void sendBroadcastMessage(@NonNull Collection<String> targets, @NonNull String message) {
+        this.sendBroadcast("PRIVMSG", targets, message);
+    }
+
+    @Override
+    public void sendBroadcastNotice(@NonNull Collection<String> targets, @NonNull String message) {
+        this.sendBroadcast("NOTICE", targets, message);
+    }
+
     @Override
     public void sendCtcpMessage(@NonNull String target, @NonNull String message) {
         Sanity.safeMessageCheck(target, "Target");
@@ -537,6 +569,26 @@ public class DefaultClient implements Client.WithManagement {
         return 505 - this.getUser().map(user -> user.getName().length()).orElse(100) - target.length() - type.length();
     }
 
+    private void sendBroadcast(@NonNull String type, @NonNull Collection<String> targets, @NonNull String message) {
+        Sanity.nullCheck(targets, "Targets");
+        Sanity.safeMessageCheck(message);
+        Set<String> uniqueTargets = new CISet(this);
+        List<String> orderedTargets = new ArrayList<>(targets.size());
+        for (String target : targets) {
+            Sanity.safeMessageCheck(target, "Target");
+            Sanity.noSpaces(target, "Target");
+            Sanity.truthiness(target.indexOf(',') < 0, "Target cannot contain a comma");
+            if (uniqueTargets.add(target)) {
+                orderedTargets.add(target);
+            }
+        }
+        // What's left of the line once the message is in
+        int remaining = this.getRemainingLength(type, "") - StringUtil.getUtf8Length(message);
+        for (String line : StringUtil.joinTargets(orderedTargets, this.serverInfo.getTargetLimit(type), remaining)) {
+            this.sendRawLine(type + ' ' + line + " :" + message);
+        }
+    }
+
     @Override
     public @Nullable Path getSecureKey() {
         return this.secureKey;
@@ -597,7 +649,7 @@ public class DefaultClient implements Client.WithManagement {
 
     private void sendRawLine(@NonNull String message, boolean priority, boolean avoidDuplicates) {
         Sanity.safeMessageCheck(message);
-        if (!message.isEmpty() && (message.getBytes(StandardCharsets.UTF_8).length > (((message.charAt(0) == '@') ? 4096 : 0) + 510))) {
+        if (!message.isEmpty() && (StringUtil.getUtf8Length(message) > (((message.charAt(0) == '@') ? 4096 : 0) + 510))) {
             throw new IllegalArgumentException("Message too long: " + message.length());
         }
         synchronized (this.messageSendingLock) {
@@ -647,7 +699,7 @@ public class DefaultClient implements Client.WithManagement {
             Optional<Consumer<String>> consumer = this.messageSendingScheduled.getConsumer();
             this.messageSendingScheduled = newQueue;
             if (this.isSending && consumer.isPresent()) {
-                this.messageSendingScheduled.beginSending(consumer.get());
+                this.beginScheduledSending(consumer.get());
             }
         }
     }
@@ -687,7 +739,11 @@ public class DefaultClient implements Client.WithManagement {
     }
 
     private void shutdownInternal(@Nullable String reason) {
-        this.processor.interrupt();
+        if (this.processor != null) {
+            this.processor.interrupt();
+        } else {
+            this.inputExecutor.shutdown();
+        }
 
         this.messageSendingImmediate.shutdown();
         this.messageSendingScheduled.shutdown();
@@ -714,10 +770,36 @@ public class DefaultClient implements Client.WithManagement {
      */
     @Override
     public void processLine(@NonNull String line) {
+        this.processLine(ServerLine.of(line));
+    }
+
+    /**
+     * Queue up a line for processing.
+     *
+     * @param line line to be processed
+     */
+    @Override
+    public void processLine(@NonNull ServerLine line) {
         if (line.startsWith("PING ")) {
-            this.sendRawLineImmediately("PONG " + line.substring(5));
+            this.sendRawLineImmediately("PONG " + line.getMessage().substring(5));
         } else if (!line.isEmpty()) {
+            this.queueInput(line);
+        }
+    }
+
+    private void queueInput(@NonNull ServerLine line) {
+        if (this.processor != null) {
             this.processor.queue(line);
+        } else {
+            this.inputExecutor.execute(() -> this.processInput(line));
+        }
+    }
+
+    private void processInput(@NonNull ServerLine line) {
+        try {
+            this.handleLine(line);
+        } catch (final Exception thrown) {
+            this.exceptionListener.queue(thrown);
         }
     }
 
@@ -761,7 +843,7 @@ public class DefaultClient implements Client.WithManagement {
         if (this.lastSentUser != null && this.messageSendingImmediate.contains(this.lastSentUser)) {
             return;
         }
-        this.processor.queue("");
+        this.queueInput(ServerLine.of(""));
 
         // If we have WebIRC information, send it before everything.
         // "The WEBIRC command MUST be the first command sent from the WebIRC gateway to the IRC server and MUST be sent before capability negotiation."
@@ -830,7 +912,16 @@ public class DefaultClient implements Client.WithManagement {
         this.isSending = true;
         this.connection.startPing();
         synchronized (this.messageSendingLock) {
-            this.messageSendingScheduled.beginSending(this.messageSendingImmediate::queue);
+            this.beginScheduledSending(this.messageSendingImmediate::queue);
+        }
+    }
+
+    private void beginScheduledSending(@NonNull Consumer<String> consumer) {
+        Optional<ScheduledExecutorService> scheduler = (this.connection == null) ? Optional.empty() : this.connection.getScheduler();
+        if (scheduler.isPresent()) {
+            this.messageSendingScheduled.beginSending(consumer, scheduler.get());
+        } else {
+            this.messageSendingScheduled.beginSending(consumer);
         }
     }
 
@@ -863,8 +954,17 @@ public class DefaultClient implements Client.WithManagement {
         return this.secure;
     }
 
-    @SuppressWarnings("UnnecessaryLabelOnBreakStatement")
-    private void handleLine(final @NonNull String line) {
+    @Override
+    public boolean isBufferLineParsing() {
+        return this.bufferLineParsing;
+    }
+
+    @Override
+    public boolean isVirtualThreads() {
+        return this.virtualThreads;
+    }
+
+    private void handleLine(final @NonNull ServerLine line) {
         if (line.isEmpty()) {
             this.actorTracker.reset();
             this.capabilityManager.reset();
@@ -872,71 +972,24 @@ public class DefaultClient implements Client.WithManagement {
             return;
         }
 
-        int position = 0;
-        int next;
-        // Skip starting spaces just in case
-        while ((next = line.indexOf(' ', position)) == position) {
-            position = next + 1;
-        }
-
         List<MessageTag> tags;
-        if (line.charAt(position) == '@') {
-            String tagSection = line.substring(position, next);
-            position = next + 1;
-            if (tagSection.length() < 2) {
-                throw new KittehServerMessageTagException(line, "Server sent an empty tag section");
-            }
-            tags = this.messageTagManager.getCapabilityTags(tagSection.substring(1));
-            // Skip more spaces just in case
-            while ((next = line.indexOf(' ', position)) == position) {
-                position = next + 1;
+        String tagSection = line.getTagSection();
+        if (tagSection != null) {
+            if (tagSection.isEmpty()) {
+                throw new KittehServerMessageTagException(line.getMessage(), "Server sent an empty tag section");
             }
+            tags = this.messageTagManager.getCapabilityTags(tagSection);
         } else {
-            tags = Collections.unmodifiableList(new ArrayList<>());
+            tags = Collections.emptyList();
         }
 
-        final String actorName;
-        if (line.charAt(position) == ':') {
-            actorName = line.substring(position + 1, next);
-            position = next + 1;
-        } else {
-            actorName = "";
-        }
-        final Actor actor = this.actorTracker.getActor(actorName);
-
-        String commandString = null;
-        List<String> parameters = new ArrayList<>();
-
-        boolean noParamsWithColon = true;
-        free:
-        while ((next = line.indexOf(' ', position)) != -1) {
-            if (line.charAt(position) == ':') {
-                position++;
-                noParamsWithColon = false;
-                /* I've got to */
-                break free;
-            } else if (position != next) {
-                String bit = line.substring(position, next);
-                if (commandString == null) {
-                    commandString = bit;
-                } else {
-                    parameters.add(bit);
-                }
-            }
-            position = next + 1;
-        }
-        if (position != line.length()) {
-            String bit = line.substring((noParamsWithColon && (line.charAt(position) == ':')) ? (position + 1) : position);
-            if (commandString == null) {
-                commandString = bit;
-            } else {
-                parameters.add(bit);
-            }
-        }
+        final Actor actor = this.actorTracker.getActor(line.getPrefix());
 
+        String commandString = line.getCommand();
         if (commandString == null) {
             throw new KittehServerMessageException(new DefaultServerMessage(line, tags), "Server sent a message without a command");
         }
+        List<String> parameters = line.getParameters();
 
         ClientReceiveServerMessageEvent event;
         try {
@@ -946,7 +999,12 @@ public class DefaultClient implements Client.WithManagement {
             event = new ClientReceiveCommandEvent(this, new DefaultServerMessage.StringCommand(commandString, line, tags), actor, commandString, parameters);
         }
 
-        Optional<MessageTag> batchTag = tags.stream().filter(tag -> CapabilityManager.Defaults.BATCH.equalsIgnoreCase(tag.getName())).findFirst();
+        Optional<MessageTag> batchTag;
+        if (tags instanceof DefaultMessageTagManager.TagList tagList) {
+            batchTag = tagList.getTag(CapabilityManager.Defaults.BATCH, true);
+        } else {
+            batchTag = tags.stream().filter(tag -> CapabilityManager.Defaults.BATCH.equalsIgnoreCase(tag.getName())).findFirst();
+        }
         if (batchTag.isPresent() && batchTag.get().getValue().isPresent()) {
             String batch = batchTag.get().getValue().get();
             BatchReferenceTag tag = this.batchHold.get(batch);
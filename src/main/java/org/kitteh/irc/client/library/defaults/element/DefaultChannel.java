@@ -27,7 +27,9 @@ import org.jspecify.annotations.NonNull;
 import org.kitteh.irc.client.library.Client;
 import org.kitteh.irc.client.library.command.ChannelModeCommand;
 import org.kitteh.irc.client.library.command.KickCommand;
+import org.kitteh.irc.client.library.command.ModerationCommand;
 import org.kitteh.irc.client.library.command.TopicCommand;
+import org.kitteh.irc.client.library.defaults.feature.ModeInfoList;
 import org.kitteh.irc.client.library.element.Channel;
 import org.kitteh.irc.client.library.element.User;
 import org.kitteh.irc.client.library.element.mode.ChannelMode;
@@ -75,6 +77,11 @@ public class DefaultChannel extends DefaultStaleable implements Channel {
             return new KickCommand(this.client, this.channel);
         }
 
+        @Override
+        public @NonNull ModerationCommand moderation() {
+            return new ModerationCommand(this.client, this.channel);
+        }
+
         @Override
         public @NonNull TopicCommand topic() {
             return new TopicCommand(this.client, this.channel);
@@ -142,6 +149,16 @@ public class DefaultChannel extends DefaultStaleable implements Channel {
         return Optional.ofNullable(this.modeInfoLists.get(mode.getChar()));
     }
 
+    @Override
+    public @NonNull Optional<List<ModeInfo>> getMatchingModeInfo(@NonNull User user, @NonNull ChannelMode mode) {
+        Sanity.nullCheck(user, "User");
+        Optional<List<ModeInfo>> list = this.getModeInfoList(mode);
+        if (list.isPresent() && (list.get() instanceof ModeInfoList)) {
+            return Optional.of(((ModeInfoList) list.get()).getMatching(this.getClient().getServerInfo().getCaseMapping(), user.getName()));
+        }
+        return Channel.super.getMatchingModeInfo(user, mode);
+    }
+
     @Override
     public @NonNull ModeStatusList<ChannelMode> getModes() {
         return this.channelModes;
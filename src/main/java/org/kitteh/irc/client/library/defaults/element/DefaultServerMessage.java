@@ -24,13 +24,16 @@
 package org.kitteh.irc.client.library.defaults.element;
 
 import org.jspecify.annotations.NonNull;
+import org.kitteh.irc.client.library.defaults.feature.DefaultMessageTagManager;
 import org.kitteh.irc.client.library.element.MessageTag;
 import org.kitteh.irc.client.library.element.ServerMessage;
 import org.kitteh.irc.client.library.exception.KittehServerMessageException;
 import org.kitteh.irc.client.library.util.Sanity;
+import org.kitteh.irc.client.library.util.ServerLine;
 import org.kitteh.irc.client.library.util.ToStringer;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Default implementation of {@link ServerMessage}.
@@ -54,6 +57,18 @@ public class DefaultServerMessage implements ServerMessage {
             this.command = command;
         }
 
+        /**
+         * Constructs a numeric command message.
+         *
+         * @param command numeric
+         * @param line full line
+         * @param tags message tags
+         */
+        public NumericCommand(int command, @NonNull ServerLine line, @NonNull List<MessageTag> tags) {
+            super(line, tags);
+            this.command = command;
+        }
+
         @Override
         public int getCommand() {
             return this.command;
@@ -78,13 +93,25 @@ public class DefaultServerMessage implements ServerMessage {
             this.command = command;
         }
 
+        /**
+         * Constructs a string command message.
+         *
+         * @param command command
+         * @param line full line
+         * @param tags message tags
+         */
+        public StringCommand(@NonNull String command, @NonNull ServerLine line, @NonNull List<MessageTag> tags) {
+            super(line, tags);
+            this.command = command;
+        }
+
         @Override
         public @NonNull String getCommand() {
             return this.command;
         }
     }
 
-    private final String message;
+    private final ServerLine line;
     private final List<MessageTag> tags;
 
     /**
@@ -95,15 +122,28 @@ public class DefaultServerMessage implements ServerMessage {
      * @param tags parsed tags
      */
     public DefaultServerMessage(@NonNull String message, @NonNull List<MessageTag> tags) {
-        Sanity.nullCheck(message, "Message");
+        this(ServerLine.of(Sanity.nullCheck(message, "Message")), tags);
+    }
+
+    /**
+     * Constructs a sad, non-command message, only used in KICL for bad
+     * messages going to a {@link KittehServerMessageException}. The full
+     * message is only decoded from the line when requested.
+     *
+     * @param line full line
+     * @param tags parsed tags
+     */
+    public DefaultServerMessage(@NonNull ServerLine line, @NonNull List<MessageTag> tags) {
+        Sanity.nullCheck(line, "Line");
         Sanity.nullCheck(tags, "Tags");
-        this.message = message;
-        this.tags = List.copyOf(tags);
+        this.line = line;
+        // Already read-only, and copying would create every tag up front
+        this.tags = (tags instanceof DefaultMessageTagManager.TagList) ? tags : List.copyOf(tags);
     }
 
     @Override
     public @NonNull String getMessage() {
-        return this.message;
+        return this.line.getMessage();
     }
 
     @Override
@@ -111,8 +151,26 @@ public class DefaultServerMessage implements ServerMessage {
         return this.tags;
     }
 
+    @Override
+    public Optional<MessageTag> getTag(@NonNull String name) {
+        if (this.tags instanceof DefaultMessageTagManager.TagList tagList) {
+            return tagList.getTag(Sanity.nullCheck(name, "Name"), false);
+        }
+        return ServerMessage.super.getTag(name);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <Tag extends MessageTag> @NonNull Optional<Tag> getTag(@NonNull String name, @NonNull Class<Tag> clazz) {
+        if (this.tags instanceof DefaultMessageTagManager.TagList tagList) {
+            Sanity.nullCheck(clazz, "Class");
+            return tagList.getTag(Sanity.nullCheck(name, "Name"), false).filter(clazz::isInstance).map(tag -> (Tag) tag);
+        }
+        return ServerMessage.super.getTag(name, clazz);
+    }
+
     @Override
     public @NonNull String toString() {
-        return new ToStringer(this).add("message", this.message).add("tags", this.tags).toString();
+        return new ToStringer(this).add("message", this.line.getMessage()).add("tags", this.tags).toString();
     }
 }
@@ -31,6 +31,7 @@ import org.kitteh.irc.client.library.element.mode.Mode;
 import org.kitteh.irc.client.library.element.mode.ModeStatus;
 import org.kitteh.irc.client.library.element.mode.ModeStatusList;
 import org.kitteh.irc.client.library.element.mode.UserMode;
+import org.kitteh.irc.client.library.feature.ServerInfo;
 import org.kitteh.irc.client.library.util.Sanity;
 import org.kitteh.irc.client.library.util.ToStringer;
 
@@ -38,12 +39,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.function.IntFunction;
 
 /**
  * A default list of mode statuses.
@@ -59,10 +57,26 @@ public class DefaultModeStatusList<ModeType extends Mode> implements ModeStatusL
      * @return list
      */
     public static @NonNull DefaultModeStatusList<ChannelMode> fromChannel(@NonNull Client client, @NonNull String string) {
-        Map<Character, ChannelMode> modes = new HashMap<>();
-        client.getServerInfo().getChannelModes().forEach(mode -> modes.put(mode.getChar(), mode));
-        client.getServerInfo().getChannelUserModes().forEach(mode -> modes.put(mode.getChar(), mode));
-        return DefaultModeStatusList.from(string, modes);
+        Sanity.safeMessageCheck(string, "String");
+        return DefaultModeStatusList.fromChannel(client, Arrays.asList(string.split(" ")), 0);
+    }
+
+    /**
+     * Creates a list from already split parameters such as those of a MODE
+     * message, starting at the given index with a string of changes such as
+     * "+o" and followed by their parameters.
+     *
+     * @param client client for which this list exists
+     * @param parameters parameters to parse
+     * @param start index of the first string of changes
+     * @return list
+     */
+    public static @NonNull DefaultModeStatusList<ChannelMode> fromChannel(@NonNull Client client, @NonNull List<String> parameters, int start) {
+        ServerInfo serverInfo = client.getServerInfo();
+        return DefaultModeStatusList.from(parameters, start, c -> {
+            Optional<ChannelUserMode> userMode = serverInfo.getChannelUserMode((char) c);
+            return userMode.isPresent() ? userMode.get() : serverInfo.getChannelMode((char) c).orElse(null);
+        });
     }
 
     /**
@@ -73,21 +87,38 @@ public class DefaultModeStatusList<ModeType extends Mode> implements ModeStatusL
      * @return list
      */
     public static @NonNull DefaultModeStatusList<UserMode> fromUser(@NonNull Client client, @NonNull String string) {
-        return DefaultModeStatusList.from(string, client.getServerInfo().getUserModes().stream().collect(Collectors.toMap(UserMode::getChar, Function.identity())));
+        Sanity.safeMessageCheck(string, "String");
+        return DefaultModeStatusList.fromUser(client, Arrays.asList(string.split(" ")), 0);
     }
 
-    private static <ModeType extends Mode> @NonNull DefaultModeStatusList<ModeType> from(@NonNull String string, @NonNull Map<Character, ModeType> modes) {
-        Sanity.safeMessageCheck(string, "String");
+    /**
+     * Creates a list from already split parameters such as those of a MODE
+     * message, starting at the given index with a string of changes such as
+     * "+iZ".
+     *
+     * @param client client for which this list exists
+     * @param parameters parameters to parse
+     * @param start index of the first string of changes
+     * @return list
+     */
+    public static @NonNull DefaultModeStatusList<UserMode> fromUser(@NonNull Client client, @NonNull List<String> parameters, int start) {
+        ServerInfo serverInfo = client.getServerInfo();
+        return DefaultModeStatusList.from(parameters, start, c -> serverInfo.getUserMode((char) c).orElse(null));
+    }
+
+    private static <ModeType extends Mode> @NonNull DefaultModeStatusList<ModeType> from(@NonNull List<String> parameters, int start, @NonNull IntFunction<ModeType> modes) {
+        Sanity.nullCheck(parameters, "Parameters");
+        Sanity.truthiness((start >= 0) && (start < parameters.size()), "Start must be the index of a parameter");
         List<ModeStatus<ModeType>> list = new ArrayList<>();
-        String[] args = string.split(" ");
-        int currentArg = -1;
-        while (++currentArg < args.length) {
-            String changes = args[currentArg];
-            if (!((changes.charAt(0) == '+') || (changes.charAt(0) == '-'))) {
+        int current = start;
+        while (current < parameters.size()) {
+            String changes = parameters.get(current++);
+            if (changes.isEmpty() || !((changes.charAt(0) == '+') || (changes.charAt(0) == '-'))) {
                 throw new IllegalArgumentException("Mode change does not start with + or -");
             }
             ModeStatus.Action action = null; // Immediately changed because of lines immediately above and the switch below.
-            for (char modeChar : changes.toCharArray()) {
+            for (int i = 0; i < changes.length(); i++) {
+                char modeChar = changes.charAt(i);
                 switch (modeChar) {
                     case '+':
                         action = ModeStatus.Action.ADD;
@@ -96,19 +127,22 @@ public class DefaultModeStatusList<ModeType extends Mode> implements ModeStatusL
                         action = ModeStatus.Action.REMOVE;
                         break;
                     default:
-                        ModeType mode = modes.get(modeChar);
+                        ModeType mode = modes.apply(modeChar);
                         if (mode == null) {
                             throw new IllegalArgumentException("Contains non-registered mode: " + modeChar);
                         }
-                        String target = null;
                         if ((mode instanceof ChannelMode) && ((mode instanceof ChannelUserMode) || ((action == ModeStatus.Action.ADD) ? ((ChannelMode) mode).getType().isParameterRequiredOnSetting() : ((ChannelMode) mode).getType().isParameterRequiredOnRemoval()))) {
-                            target = args[++currentArg];
+                            if (current >= parameters.size()) {
+                                throw new IllegalArgumentException("Missing parameter for mode: " + modeChar);
+                            }
+                            list.add(new DefaultModeStatus<>(action, mode, parameters.get(current++)));
+                        } else {
+                            list.add(new DefaultModeStatus<>(action, mode));
                         }
-                        list.add((target == null) ? new DefaultModeStatus<>(action, mode) : new DefaultModeStatus<>(action, mode, target));
                 }
             }
         }
-        return DefaultModeStatusList.of(list);
+        return new DefaultModeStatusList<>(list);
     }
 
     /**
@@ -0,0 +1,254 @@
+/*
+ * * Copyright (C) 2013-2025 Matt Baxter https://kitteh.org
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS
+ * BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN
+ * ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.kitteh.irc.client.library.defaults.feature;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.kitteh.irc.client.library.Client;
+import org.kitteh.irc.client.library.element.Actor;
+import org.kitteh.irc.client.library.element.Channel;
+import org.kitteh.irc.client.library.element.User;
+import org.kitteh.irc.client.library.element.mode.ChannelMode;
+import org.kitteh.irc.client.library.element.mode.ChannelUserMode;
+import org.kitteh.irc.client.library.element.mode.ModeInfo;
+import org.kitteh.irc.client.library.element.mode.ModeStatusList;
+import org.kitteh.irc.client.library.feature.ActorTracker;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * An {@link ActorTracker} safe for use by many threads reading channels and
+ * users while the client's input thread updates them.
+ * <p>
+ * All changes, and the building of new snapshots, happen one at a time. The
+ * most recent snapshot of each channel and user is published for reading,
+ * so repeated reads of unchanged actors take no lock and never wait on the
+ * input thread.
+ * <p>
+ * Set with {@link Client.Builder.Management#actorTracker}, such as
+ * <code>.actorTracker(ConcurrentActorTracker::new)</code>.
+ */
+public class ConcurrentActorTracker extends DefaultActorTracker {
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Constructs the tracker.
+     *
+     * @param client client
+     */
+    public ConcurrentActorTracker(Client.@NonNull WithManagement client) {
+        super(client);
+    }
+
+    private <T> T read(@Nullable T published, @NonNull Supplier<T> supplier) {
+        return (published != null) ? published : this.write(supplier);
+    }
+
+    private <T> T write(@NonNull Supplier<T> supplier) {
+        this.lock.lock();
+        try {
+            return supplier.get();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void write(@NonNull Runnable runnable) {
+        this.lock.lock();
+        try {
+            runnable.run();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean ensureChannel(@NonNull String channel) {
+        return (this.getPublishedChannel(channel) != null) || this.write(() -> super.ensureChannel(channel));
+    }
+
+    @Override
+    public @NonNull Actor getActor(@NonNull String name) {
+        long separators = DefaultActorTracker.getUserMaskSeparators(name);
+        Actor published = (separators >= 0) ? this.getPublishedUser(name.substring(0, (int) (separators >>> 32))) : this.getPublishedChannel(name);
+        return this.read(published, () -> super.getActor(name));
+    }
+
+    @Override
+    public @NonNull Optional<Channel> getChannel(@NonNull String channel) {
+        Channel published = this.getPublishedChannel(channel);
+        return (published != null) ? Optional.of(published) : this.write(() -> super.getChannel(channel));
+    }
+
+    @Override
+    public @NonNull Optional<Channel> getTrackedChannel(@NonNull String channel) {
+        Channel published = this.getPublishedChannel(channel);
+        return (published != null) ? Optional.of(published) : this.write(() -> super.getTrackedChannel(channel));
+    }
+
+    @Override
+    public @NonNull Set<Channel> getTrackedChannels() {
+        return this.read(this.getPublishedChannels(), super::getTrackedChannels);
+    }
+
+    @Override
+    public @NonNull Optional<User> getTrackedUser(@NonNull String nick) {
+        User published = this.getPublishedUser(nick);
+        return (published != null) ? Optional.of(published) : this.write(() -> super.getTrackedUser(nick));
+    }
+
+    @Override
+    public void setChannelListReceived(@NonNull String channel) {
+        this.write(() -> super.setChannelListReceived(channel));
+    }
+
+    @Override
+    public void setChannelTrackingLevel(@NonNull String channel, @NonNull TrackingLevel level) {
+        this.write(() -> super.setChannelTrackingLevel(channel, level));
+    }
+
+    @Override
+    public void setChannelModeInfoList(@NonNull String channel, char mode, List<ModeInfo> modeInfo) {
+        this.write(() -> super.setChannelModeInfoList(channel, mode, modeInfo));
+    }
+
+    @Override
+    public void setChannelTopic(@NonNull String channel, @NonNull String topic) {
+        this.write(() -> super.setChannelTopic(channel, topic));
+    }
+
+    @Override
+    public void setChannelTopicInfo(@NonNull String channel, long time, @NonNull Actor actor) {
+        this.write(() -> super.setChannelTopicInfo(channel, time, actor));
+    }
+
+    @Override
+    public void setUserAccount(@NonNull String nick, @Nullable String account) {
+        this.write(() -> super.setUserAccount(nick, account));
+    }
+
+    @Override
+    public void setUserAway(@NonNull String nick, @Nullable String message) {
+        this.write(() -> super.setUserAway(nick, message));
+    }
+
+    @Override
+    public void setUserAway(@NonNull String nick, boolean away) {
+        this.write(() -> super.setUserAway(nick, away));
+    }
+
+    @Override
+    public void setUserOperString(@NonNull String nick, @NonNull String operString) {
+        this.write(() -> super.setUserOperString(nick, operString));
+    }
+
+    @Override
+    public void setUserRealName(@NonNull String nick, @NonNull String realName) {
+        this.write(() -> super.setUserRealName(nick, realName));
+    }
+
+    @Override
+    public void setUserServer(@NonNull String nick, @NonNull String server) {
+        this.write(() -> super.setUserServer(nick, server));
+    }
+
+    @Override
+    public void trackChannel(@NonNull String channel) {
+        this.write(() -> super.trackChannel(channel));
+    }
+
+    @Override
+    public void trackChannelMode(@NonNull String channel, @NonNull ChannelMode mode, boolean track) {
+        this.write(() -> super.trackChannelMode(channel, mode, track));
+    }
+
+    @Override
+    public void trackChannelModeInfo(@NonNull String channel, boolean add, @NonNull ModeInfo modeInfo) {
+        this.write(() -> super.trackChannelModeInfo(channel, add, modeInfo));
+    }
+
+    @Override
+    public void trackChannelNick(@NonNull String channel, @NonNull String nick, @NonNull Set<ChannelUserMode> modes) {
+        this.write(() -> super.trackChannelNick(channel, nick, modes));
+    }
+
+    @Override
+    public void trackChannelUser(@NonNull String channel, @NonNull User user, @NonNull Set<ChannelUserMode> modes) {
+        this.write(() -> super.trackChannelUser(channel, user, modes));
+    }
+
+    @Override
+    public void trackUser(@NonNull User user) {
+        this.write(() -> super.trackUser(user));
+    }
+
+    @Override
+    public void trackUserHostnameChange(@NonNull String nick, @NonNull String newHostname) {
+        this.write(() -> super.trackUserHostnameChange(nick, newHostname));
+    }
+
+    @Override
+    public void trackUserNickChange(@NonNull String oldNick, @NonNull String newNick) {
+        this.write(() -> super.trackUserNickChange(oldNick, newNick));
+    }
+
+    @Override
+    public void trackUserRealnameChange(@NonNull String nick, @NonNull String newRealname) {
+        this.write(() -> super.trackUserRealnameChange(nick, newRealname));
+    }
+
+    @Override
+    public void trackUserPart(@NonNull String channel, @NonNull String nick) {
+        this.write(() -> super.trackUserPart(channel, nick));
+    }
+
+    @Override
+    public void trackUserQuit(@NonNull String nick) {
+        this.write(() -> super.trackUserQuit(nick));
+    }
+
+    @Override
+    public void trackUserUserStringChange(@NonNull String nick, @NonNull String newUserString) {
+        this.write(() -> super.trackUserUserStringChange(nick, newUserString));
+    }
+
+    @Override
+    public void unTrackChannel(@NonNull String channel) {
+        this.write(() -> super.unTrackChannel(channel));
+    }
+
+    @Override
+    public void updateChannelModes(@NonNull String channel, @NonNull ModeStatusList<ChannelMode> statusList) {
+        this.write(() -> super.updateChannelModes(channel, statusList));
+    }
+
+    @Override
+    public void reset() {
+        this.write(super::reset);
+    }
+}
@@ -44,33 +44,159 @@ import org.kitteh.irc.client.library.element.mode.ModeInfo;
 import org.kitteh.irc.client.library.element.mode.ModeStatus;
 import org.kitteh.irc.client.library.element.mode.ModeStatusList;
 import org.kitteh.irc.client.library.feature.ActorTracker;
+import org.kitteh.irc.client.library.feature.CaseMapping;
 import org.kitteh.irc.client.library.util.CIKeyMap;
+import org.kitteh.irc.client.library.util.Sanity;
 import org.kitteh.irc.client.library.util.ToStringer;
 
 import java.time.Instant;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
+import java.util.RandomAccess;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
  * Default implementation of {@link ActorTracker}.
  */
 public class DefaultActorTracker implements ActorTracker {
+    /**
+     * A channel member's nickname and modes, replaced whenever either
+     * changes.
+     */
+    private static final class Member {
+        private final String nick;
+        private final SortedSet<ChannelUserMode> modes;
+
+        private Member(@NonNull String nick, @NonNull Set<ChannelUserMode> modes, @NonNull Comparator<ChannelUserMode> comparator) {
+            this.nick = nick;
+            if (modes.isEmpty()) {
+                this.modes = Collections.emptySortedSet();
+            } else {
+                SortedSet<ChannelUserMode> sorted = new TreeSet<>(comparator);
+                sorted.addAll(modes);
+                this.modes = Collections.unmodifiableSortedSet(sorted);
+            }
+        }
+    }
+
+    /**
+     * A read-only, case insensitive view of a channel's members, as of one
+     * snapshot.
+     *
+     * @param <E> stored element type
+     * @param <V> viewed value type
+     */
+    private static final class MemberView<E, V> extends AbstractMap<String, V> {
+        private final CaseMapping caseMapping;
+        private final PersistentMap<String, E> map;
+        private final Function<E, String> nick;
+        private final Function<E, V> value;
+        private @Nullable Set<Map.Entry<String, V>> entrySet;
+
+        private MemberView(@NonNull CaseMapping caseMapping, @NonNull PersistentMap<String, E> map, @NonNull Function<E, String> nick, @NonNull Function<E, V> value) {
+            this.caseMapping = caseMapping;
+            this.map = map;
+            this.nick = nick;
+            this.value = value;
+        }
+
+        @Override
+        public boolean containsKey(@Nullable Object key) {
+            return (key instanceof String) && this.map.containsKey(this.caseMapping.toLowerCase((String) key));
+        }
+
+        @Override
+        public @Nullable V get(@Nullable Object key) {
+            E element = (key instanceof String) ? this.map.get(this.caseMapping.toLowerCase((String) key)) : null;
+            return (element == null) ? null : this.value.apply(element);
+        }
+
+        @Override
+        public int size() {
+            return this.map.size();
+        }
+
+        @Override
+        public @NonNull Set<Map.Entry<String, V>> entrySet() {
+            if (this.entrySet == null) {
+                this.entrySet = new AbstractSet<>() {
+                    @Override
+                    public @NonNull Iterator<Map.Entry<String, V>> iterator() {
+                        Iterator<E> iterator = MemberView.this.map.values().iterator();
+                        return new Iterator<>() {
+                            @Override
+                            public boolean hasNext() {
+                                return iterator.hasNext();
+                            }
+
+                            @Override
+                            public Map.Entry<String, V> next() {
+                                E element = iterator.next();
+                                return new SimpleImmutableEntry<>(MemberView.this.nick.apply(element), MemberView.this.value.apply(element));
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size() {
+                        return MemberView.this.map.size();
+                    }
+                };
+            }
+            return this.entrySet;
+        }
+    }
+
+    /**
+     * A read-only list built upon first use.
+     *
+     * @param <E> element type
+     */
+    private static final class LazyList<E> extends AbstractList<E> implements RandomAccess {
+        private final Supplier<List<E>> supplier;
+        private volatile @Nullable List<E> list;
+
+        private LazyList(@NonNull Supplier<List<E>> supplier) {
+            this.supplier = supplier;
+        }
+
+        private @NonNull List<E> getList() {
+            List<E> list = this.list;
+            if (list == null) {
+                this.list = list = this.supplier.get();
+            }
+            return list;
+        }
+
+        @Override
+        public E get(int index) {
+            return this.getList().get(index);
+        }
+
+        @Override
+        public int size() {
+            return this.getList().size();
+        }
+    }
+
     private class IrcActor {
         private String name;
 
@@ -97,7 +223,7 @@ public class DefaultActorTracker implements ActorTracker {
     }
 
     private class IrcStaleable<T extends Staleable> extends IrcActor {
-        private @Nullable T snapshot;
+        private volatile @Nullable T snapshot;
 
         IrcStaleable(@NonNull String name) {
             super(name);
@@ -111,6 +237,10 @@ public class DefaultActorTracker implements ActorTracker {
             this.snapshot = null;
         }
 
+        @Nullable T getSnapshot() {
+            return this.snapshot;
+        }
+
         synchronized @NonNull T snapshot(@NonNull Supplier<T> supplier) {
             if (this.snapshot != null) {
                 return this.snapshot;
@@ -119,11 +249,20 @@ public class DefaultActorTracker implements ActorTracker {
         }
     }
 
+    /**
+     * A tracked channel. Snapshots may be built on any thread, so the member
+     * state is only read or written while holding this channel's monitor,
+     * which {@link IrcStaleable#snapshot(Supplier)} also holds.
+     */
     class IrcChannel extends IrcStaleable<DefaultChannel> {
         private final Map<Character, ModeStatus<ChannelMode>> channelModes = new HashMap<>();
-        private final Map<Character, List<ModeInfo>> modeInfoLists = new HashMap<>();
+        private final Map<Character, ModeInfoList> modeInfoLists = new HashMap<>();
         private final Set<Character> trackedModes = new HashSet<>();
-        private final Map<String, Set<ChannelUserMode>> modes;
+        private PersistentMap<String, Member> members = PersistentMap.empty();
+        private PersistentMap<String, User> users = PersistentMap.empty();
+        private final Set<String> staleUsers = new HashSet<>();
+        private @Nullable CaseMapping caseMapping;
+        private @Nullable Comparator<ChannelUserMode> comparator;
         private final DefaultChannel.DefaultChannelCommands commands;
         private volatile boolean fullListReceived;
         private long lastWho = System.currentTimeMillis();
@@ -131,33 +270,63 @@ public class DefaultActorTracker implements ActorTracker {
         private @Nullable Actor topicSetter;
         private @Nullable Instant topicTime;
         private volatile boolean tracked;
+        private volatile TrackingLevel level;
 
         private IrcChannel(@NonNull String channel) {
             super(channel);
-            this.modes = new CIKeyMap<>(DefaultActorTracker.this.client);
             this.commands = new DefaultChannel.DefaultChannelCommands(DefaultActorTracker.this.client, channel);
+            this.level = DefaultActorTracker.this.getChannelTrackingLevel(channel);
             DefaultActorTracker.this.trackedChannels.put(channel, this);
         }
 
+        private synchronized void setLevel(@NonNull TrackingLevel level) {
+            TrackingLevel old = this.level;
+            this.level = level;
+            if (level.compareTo(old) < 0) {
+                for (Member member : this.members.values()) {
+                    if (level == TrackingLevel.NONE) {
+                        DefaultActorTracker.this.removeMembership(member.nick, this);
+                    }
+                    DefaultActorTracker.this.checkUserForTracking(member.nick);
+                }
+                if (level == TrackingLevel.NONE) {
+                    this.members = PersistentMap.empty();
+                }
+                this.users = PersistentMap.empty();
+                this.staleUsers.clear();
+            } else if (this.tracked && (level != old)) {
+                this.fullListReceived = false;
+                if (DefaultActorTracker.this.queryChannelInformation) {
+                    DefaultActorTracker.this.client.sendRawLine(((level == TrackingLevel.FULL) ? "WHO " : "NAMES ") + this.getName() +
+                            (((level == TrackingLevel.FULL) && DefaultActorTracker.this.client.getServerInfo().hasWhoXSupport()) ? " %cuhsnfar" : ""));
+                }
+            }
+            this.markStale();
+        }
+
+        private boolean isQueryingWho() {
+            return DefaultActorTracker.this.queryChannelInformation && (this.level == TrackingLevel.FULL) && this.tracked && !this.fullListReceived;
+        }
+
         void setListReceived() {
             this.fullListReceived = true;
             this.markStale();
         }
 
-        private void setTracked(boolean tracked) {
+        private synchronized void setTracked(boolean tracked) {
             this.tracked = tracked;
-            this.modes.keySet().forEach(DefaultActorTracker.this::staleUser);
+            this.members.values().forEach(member -> DefaultActorTracker.this.staleUser(member.nick));
             this.markStale();
         }
 
-        void setTopic(@NonNull String topic) {
+        synchronized void setTopic(@NonNull String topic) {
             this.topic = topic;
             this.topicTime = null;
             this.topicSetter = null;
             this.markStale();
         }
 
-        void setTopic(long time, @NonNull Actor actor) {
+        synchronized void setTopic(long time, @NonNull Actor actor) {
             this.topicTime = Instant.ofEpochMilli(time);
             this.topicSetter = actor;
             this.markStale();
@@ -165,47 +334,88 @@ public class DefaultActorTracker implements ActorTracker {
 
         @Override
         @NonNull DefaultChannel snapshot() {
-            if (DefaultActorTracker.this.queryChannelInformation) {
-                synchronized (this.modes) {
-                    if (this.tracked && !this.fullListReceived) {
-                        long now = System.currentTimeMillis();
-                        if ((now - this.lastWho) > 5000) {
-                            this.lastWho = now;
-                            DefaultActorTracker.this.client.sendRawLineAvoidingDuplication("WHO " + this.getName() + (DefaultActorTracker.this.client.getServerInfo().hasWhoXSupport() ? " %cuhsnfar" : ""));
-                        }
+            if (this.isQueryingWho()) {
+                synchronized (this) {
+                    long now = System.currentTimeMillis();
+                    if ((now - this.lastWho) > 5000) {
+                        this.lastWho = now;
+                        DefaultActorTracker.this.client.sendRawLineAvoidingDuplication("WHO " + this.getName() + (DefaultActorTracker.this.client.getServerInfo().hasWhoXSupport() ? " %cuhsnfar" : ""));
                     }
                 }
             }
+            return super.snapshot(this::createSnapshot);
+        }
+
+        /**
+         * Gets the current snapshot if it can be handed out without
+         * building a new one or querying the server.
+         *
+         * @return snapshot or null if one needs building
+         */
+        @Nullable DefaultChannel getPublishedSnapshot() {
+            if (this.isQueryingWho()) {
+                return null;
+            }
+            return this.getSnapshot();
+        }
+
+        private synchronized @NonNull DefaultChannel createSnapshot() {
+            CaseMapping caseMapping = this.updateCaseMapping();
+            Comparator<ChannelUserMode> comparator = DefaultActorTracker.this.getUserModeComparator();
+            if (comparator != this.comparator) {
+                for (Map.Entry<String, Member> entry : this.members.entrySet()) {
+                    this.members = this.members.plus(entry.getKey(), new Member(entry.getValue().nick, entry.getValue().modes, comparator));
+                }
+                this.comparator = comparator;
+            }
+            if (this.level == TrackingLevel.FULL) {
+                for (String lowerNick : this.staleUsers) {
+                    Member member = this.members.get(lowerNick);
+                    IrcUser user = (member == null) ? null : DefaultActorTracker.this.trackedUsers.get(member.nick);
+                    this.users = (user == null) ? this.users.minus(lowerNick) : this.users.plus(lowerNick, user.snapshot());
+                }
+            }
+            this.staleUsers.clear();
+
             ModeStatusList<ChannelMode> channelModes = DefaultModeStatusList.of(this.channelModes.values());
-            Map<Character, List<ModeInfo>> modeInfoLists = new HashMap<>();
-            for (Map.Entry<Character, List<ModeInfo>> entry : this.modeInfoLists.entrySet()) {
-                modeInfoLists.put(entry.getKey(), List.copyOf(entry.getValue()));
-            }
-            this.trackedModes.stream()
-                    .filter(character -> !modeInfoLists.containsKey(character))
-                    .forEach(character -> this.modeInfoLists.put(character, Collections.unmodifiableList(new ArrayList<>())));
-            Map<String, SortedSet<ChannelUserMode>> newModes = new CIKeyMap<>(DefaultActorTracker.this.client);
-            Optional<ISupportParameter.Prefix> prefix = DefaultActorTracker.this.client.getServerInfo().getISupportParameter("PREFIX", ISupportParameter.Prefix.class);
-            Comparator<ChannelUserMode> comparator = prefix
-                    .<Comparator<ChannelUserMode>>map(prefix1 -> Comparator.comparingInt(prefix1.getModes()::indexOf))
-                    .orElseGet(() -> Comparator.comparing(ChannelUserMode::getChar));
-            for (Map.Entry<String, Set<ChannelUserMode>> entry : this.modes.entrySet()) {
-                SortedSet<ChannelUserMode> newSet = new TreeSet<>(comparator);
-                newSet.addAll(entry.getValue());
-                newModes.put(entry.getKey(), newSet);
-            }
-            Map<String, User> nickMap = this.modes.keySet().stream()
-                    .map(DefaultActorTracker.this.trackedUsers::get)
-                    .filter(Objects::nonNull)
-                    .map(IrcUser::snapshot)
-                    .collect(Collectors.toMap(User::getNick, Function.identity()));
-            return super.snapshot(() -> new DefaultChannel(DefaultActorTracker.this.client, this.getName(),
-                    new DefaultChannelTopic(IrcChannel.this.topicTime, IrcChannel.this.topic, IrcChannel.this.topicSetter),
-                    channelModes, modeInfoLists, newModes, new ArrayList<>(this.modes.keySet()),
-                    nickMap, new ArrayList<>(nickMap.values()), this.fullListReceived, this.commands));
-        }
-
-        void trackMode(@NonNull ChannelMode mode, boolean track) {
+            Map<Character, List<ModeInfo>> modeInfoLists = new HashMap<>(this.modeInfoLists);
+            this.trackedModes.forEach(character -> modeInfoLists.putIfAbsent(character, ModeInfoList.empty()));
+            PersistentMap<String, Member> members = this.members;
+            PersistentMap<String, User> users = this.users;
+            return new DefaultChannel(DefaultActorTracker.this.client, this.getName(),
+                    new DefaultChannelTopic(this.topicTime, this.topic, this.topicSetter),
+                    channelModes, modeInfoLists, new MemberView<>(caseMapping, members, member -> member.nick, member -> member.modes),
+                    new LazyList<>(() -> members.values().stream().map(member -> member.nick).collect(Collectors.toList())),
+                    new MemberView<>(caseMapping, users, User::getNick, Function.identity()), new LazyList<>(() -> new ArrayList<>(users.values())),
+                    this.fullListReceived, this.commands);
+        }
+
+        /**
+         * Re-keys members if the case mapping has changed since last used.
+         *
+         * @return current case mapping
+         */
+        private synchronized @NonNull CaseMapping updateCaseMapping() {
+            CaseMapping caseMapping = DefaultActorTracker.this.client.getServerInfo().getCaseMapping();
+            if (caseMapping != this.caseMapping) {
+                PersistentMap<String, Member> newMembers = PersistentMap.empty();
+                for (Member member : this.members.values()) {
+                    newMembers = newMembers.plus(caseMapping.toLowerCase(member.nick), member);
+                }
+                this.members = newMembers;
+                this.users = PersistentMap.empty();
+                this.staleUsers.clear();
+                this.staleUsers.addAll(newMembers.keySet());
+                this.caseMapping = caseMapping;
+            }
+            return caseMapping;
+        }
+
+        private @NonNull String toLowerCase(@NonNull String nick) {
+            return this.updateCaseMapping().toLowerCase(nick);
+        }
+
+        synchronized void trackMode(@NonNull ChannelMode mode, boolean track) {
             if (track && this.trackedModes.add(mode.getChar())) {
                 // Request the mode list (bans, quiets, etc)
                 new ChannelModeCommand(DefaultActorTracker.this.client, this.getName()).add(ModeStatus.Action.ADD, mode).execute();
@@ -214,135 +424,192 @@ public class DefaultActorTracker implements ActorTracker {
             }
         }
 
-        void setModeInfoList(char character, @NonNull List<ModeInfo> modeInfoList) {
+        synchronized void setModeInfoList(char character, @NonNull List<ModeInfo> modeInfoList) {
             if (!this.trackedModes.contains(character)) {
                 return;
             }
-            this.modeInfoLists.put(character, modeInfoList);
+            this.modeInfoLists.put(character, ModeInfoList.of(modeInfoList));
             this.markStale();
         }
 
-        void trackModeInfo(boolean add, @NonNull ModeInfo modeInfo) {
-            if (!this.trackedModes.contains(modeInfo.getMode().getChar())) {
+        synchronized void trackModeInfo(boolean add, @NonNull ModeInfo modeInfo) {
+            char character = modeInfo.getMode().getChar();
+            if (!this.trackedModes.contains(character)) {
                 return;
             }
-            if (add) {
-                this.modeInfoLists.get(modeInfo.getMode().getChar()).add(modeInfo);
-            } else {
-                Iterator<ModeInfo> iterator = this.modeInfoLists.get(modeInfo.getMode().getChar()).iterator();
-                while (iterator.hasNext()) {
-                    if (modeInfo.getMask().equals(iterator.next().getMask())) {
-                        iterator.remove();
-                        return;
-                    }
-                }
-            }
+            ModeInfoList modeInfoList = this.modeInfoLists.getOrDefault(character, ModeInfoList.empty());
+            this.modeInfoLists.put(character, add ? modeInfoList.plus(modeInfo) : modeInfoList.minus(modeInfo.getMask()));
+            this.markStale();
         }
 
-        void trackUser(@NonNull User user, @NonNull Set<ChannelUserMode> modes) {
-            DefaultActorTracker.this.trackUser(user);
+        synchronized void trackUser(@NonNull User user, @NonNull Set<ChannelUserMode> modes) {
+            if (this.level == TrackingLevel.NONE) {
+                return;
+            }
+            if (this.level == TrackingLevel.FULL) {
+                DefaultActorTracker.this.trackUser(user);
+            }
             this.setModes(user.getNick(), modes);
             this.markStale();
             DefaultActorTracker.this.staleUser(user.getNick());
         }
 
-        void trackNick(@NonNull String nick, @NonNull Set<ChannelUserMode> modes) {
+        synchronized void trackNick(@NonNull String nick, @NonNull Set<ChannelUserMode> modes) {
+            if (this.level == TrackingLevel.NONE) {
+                return;
+            }
             String nickname = nick;
             int index;
             if ((index = nick.indexOf('!')) >= 0) { // userhost-in-names
                 nickname = nick.substring(0, index);
-                if (!DefaultActorTracker.this.trackedUsers.containsKey(nickname)) {
-                    IrcUser user = DefaultActorTracker.this.getUserByName(nick);
-                    if (user != null) {
-                        DefaultActorTracker.this.trackUser(user.snapshot());
+                if ((this.level == TrackingLevel.FULL) && !DefaultActorTracker.this.trackedUsers.containsKey(nickname)) {
+                    long separators = DefaultActorTracker.getUserMaskSeparators(nick);
+                    if (separators >= 0) {
+                        DefaultActorTracker.this.trackedUsers.put(nickname, DefaultActorTracker.this.getUserByName(nick, separators));
                     }
                 }
             }
-            if (!this.modes.containsKey(nickname) || this.modes.get(nickname).isEmpty()) {
+            Member member = this.members.get(this.toLowerCase(nickname));
+            if ((member == null) || member.modes.isEmpty()) {
                 this.setModes(nickname, modes);
             }
             this.markStale();
         }
 
         void trackUserModeAdd(@NonNull String nick, @NonNull ChannelUserMode mode) {
-            this.getModes(nick).add(mode);
-            this.markStale();
+            this.updateModes(nick, modes -> modes.add(mode));
         }
 
         void trackUserModeRemove(@NonNull String nick, @NonNull ChannelUserMode mode) {
-            this.getModes(nick).remove(mode);
-            this.markStale();
+            this.updateModes(nick, modes -> modes.remove(mode));
         }
 
-        private void trackUserNick(@NonNull String oldNick, @NonNull String newNick) {
-            Set<ChannelUserMode> modes = this.modes.remove(oldNick);
-            if (modes != null) {
-                this.setModes(newNick, modes);
+        private synchronized void trackUserNick(@NonNull String oldNick, @NonNull String newNick) {
+            String oldLowerNick = this.toLowerCase(oldNick);
+            Member member = this.members.get(oldLowerNick);
+            if (member != null) {
+                this.members = this.members.minus(oldLowerNick);
+                this.staleUsers.add(oldLowerNick);
+                DefaultActorTracker.this.removeMembership(oldNick, this);
+                this.setModes(newNick, member.modes);
             }
             this.markStale();
         }
 
-        void trackUserPart(@NonNull String nick) {
-            this.modes.remove(nick);
+        synchronized void trackUserPart(@NonNull String nick) {
+            String lowerNick = this.toLowerCase(nick);
+            if (this.members.containsKey(lowerNick)) {
+                this.members = this.members.minus(lowerNick);
+                this.staleUsers.add(lowerNick);
+                DefaultActorTracker.this.removeMembership(nick, this);
+            }
             DefaultActorTracker.this.checkUserForTracking(nick);
             DefaultActorTracker.this.staleUser(nick);
             this.markStale();
         }
 
-        private @NonNull Set<ChannelUserMode> getModes(@NonNull String nick) {
-            return this.modes.computeIfAbsent(nick, k -> new HashSet<>());
+        /**
+         * Notes that a member's user information has changed, to be picked
+         * up by the next snapshot.
+         *
+         * @param nick nickname
+         */
+        synchronized void userChanged(@NonNull String nick) {
+            String lowerNick = this.toLowerCase(nick);
+            if (this.members.containsKey(lowerNick)) {
+                this.staleUsers.add(lowerNick);
+            }
+        }
+
+        private synchronized void setModes(@NonNull String nick, @NonNull Set<ChannelUserMode> modes) {
+            String lowerNick = this.toLowerCase(nick);
+            this.members = this.members.plus(lowerNick, new Member(nick, modes, this.getComparator()));
+            this.staleUsers.add(lowerNick);
+            DefaultActorTracker.this.addMembership(nick, this);
+            this.markStale();
         }
 
-        private void setModes(@NonNull String nick, @NonNull Set<ChannelUserMode> modes) {
-            this.modes.put(nick, new HashSet<>(modes));
+        private synchronized void updateModes(@NonNull String nick, @NonNull Consumer<Set<ChannelUserMode>> update) {
+            if (this.level == TrackingLevel.NONE) {
+                return;
+            }
+            String lowerNick = this.toLowerCase(nick);
+            Member member = this.members.get(lowerNick);
+            Set<ChannelUserMode> modes = new HashSet<>((member == null) ? Collections.emptySet() : member.modes);
+            update.accept(modes);
+            this.members = this.members.plus(lowerNick, new Member((member == null) ? nick : member.nick, modes, this.getComparator()));
+            if (member == null) {
+                this.staleUsers.add(lowerNick);
+                DefaultActorTracker.this.addMembership(nick, this);
+            }
             this.markStale();
         }
 
-        void updateChannelModes(ModeStatusList<ChannelMode> statusList) {
-            statusList.getAll().stream().filter(status -> (status.getMode() instanceof ChannelUserMode) && (status.getParameter().isPresent())).forEach(status -> {
-                if (status.getAction() == ModeStatus.Action.ADD) {
-                    this.trackUserModeAdd(status.getParameter().get(), (ChannelUserMode) status.getMode());
-                } else {
-                    this.trackUserModeRemove(status.getParameter().get(), (ChannelUserMode) status.getMode());
-                }
-            });
-            statusList.getAll().stream().filter(status -> !(status.getMode() instanceof ChannelUserMode) && (status.getMode().getType() != ChannelMode.Type.A_MASK)).forEach(status -> {
-                if (status.getAction() == ModeStatus.Action.ADD) {
-                    this.channelModes.put(status.getMode().getChar(), status);
-                } else {
-                    this.channelModes.remove(status.getMode().getChar());
+        private synchronized @NonNull Comparator<ChannelUserMode> getComparator() {
+            if (this.comparator == null) {
+                this.comparator = DefaultActorTracker.this.getUserModeComparator();
+            }
+            return this.comparator;
+        }
+
+        synchronized void updateChannelModes(ModeStatusList<ChannelMode> statusList) {
+            for (ModeStatus<ChannelMode> status : statusList.getAll()) {
+                ChannelMode mode = status.getMode();
+                boolean add = status.getAction() == ModeStatus.Action.ADD;
+                if (mode instanceof ChannelUserMode) {
+                    Optional<String> nick = status.getParameter();
+                    if (nick.isPresent()) {
+                        if (add) {
+                            this.trackUserModeAdd(nick.get(), (ChannelUserMode) mode);
+                        } else {
+                            this.trackUserModeRemove(nick.get(), (ChannelUserMode) mode);
+                        }
+                    }
+                } else if (mode.getType() != ChannelMode.Type.A_MASK) {
+                    if (add) {
+                        this.channelModes.put(mode.getChar(), status);
+                    } else {
+                        this.channelModes.remove(mode.getChar());
+                    }
                 }
-            });
+            }
             this.markStale();
         }
 
     }
 
+    /**
+     * A tracked user, stored as the nickname (in place of the name) and
+     * interned components. The full mask is only composed for snapshots.
+     */
     class IrcUser extends IrcStaleable<DefaultUser> {
         private String account;
         private @Nullable String awayMessage;
         private String host;
-        private String nick;
         private String user;
         private boolean isAway;
         private String operString;
         private String realName;
         private String server;
 
-        private IrcUser(@NonNull String mask, @NonNull String nick, @NonNull String user, @NonNull String host) {
-            super(mask);
-            this.nick = nick;
-            this.user = user;
-            this.host = host;
+        private IrcUser(@NonNull String nick, @NonNull String user, @NonNull String host) {
+            super(nick);
+            this.user = DefaultActorTracker.this.interner.intern(user);
+            this.host = DefaultActorTracker.this.interner.intern(host);
+        }
+
+        @Override
+        @NonNull String getName() {
+            return this.getNick() + '!' + this.user + '@' + this.host;
         }
 
         @NonNull String getNick() {
-            return this.nick;
+            return super.getName();
         }
 
         private void setNick(@NonNull String newNick) {
-            this.nick = newNick;
-            this.updateName();
+            this.setName(newNick);
+            this.markStale();
         }
 
         void setAccount(@Nullable String account) {
@@ -367,7 +634,7 @@ public class DefaultActorTracker implements ActorTracker {
         }
 
         void setOperString(@NonNull String operString) {
-            this.operString = operString;
+            this.operString = DefaultActorTracker.this.interner.intern(operString);
         }
 
         void setRealName(@NonNull String realName) {
@@ -376,35 +643,48 @@ public class DefaultActorTracker implements ActorTracker {
         }
 
         void setHost(@NonNull String host) {
-            this.host = host;
-            this.updateName();
+            this.host = DefaultActorTracker.this.interner.intern(host);
+            this.markStale();
         }
 
         void setUser(@NonNull String user) {
-            this.user = user;
-            this.updateName();
+            this.user = DefaultActorTracker.this.interner.intern(user);
+            this.markStale();
         }
 
         void setServer(@NonNull String server) {
-            this.server = server;
+            this.server = DefaultActorTracker.this.interner.intern(server);
             this.markStale();
         }
 
-        private void updateName() {
-            this.setName(this.nick + '!' + this.user + '@' + this.host);
-            this.markStale();
+        @Override
+        void markStale() {
+            super.markStale();
+            String nick = this.getNick();
+            DefaultActorTracker.this.getMemberships(nick).forEach(channel -> channel.userChanged(nick));
         }
 
         @Override
         @NonNull DefaultUser snapshot() {
-            Set<String> chanSet = new HashSet<>();
-            for (IrcChannel channel : DefaultActorTracker.this.trackedChannels.values()) {
-                if (channel.modes.containsKey(this.nick)) {
-                    chanSet.add(channel.getName());
+            return super.snapshot(this::createSnapshot);
+        }
+
+        private @NonNull DefaultUser createSnapshot() {
+            String nick = this.getNick();
+            Set<IrcChannel> memberships = DefaultActorTracker.this.getMemberships(nick);
+            Set<String> chanSet;
+            if (memberships.isEmpty()) {
+                chanSet = Set.of();
+            } else {
+                String[] channels = new String[memberships.size()];
+                int i = 0;
+                for (IrcChannel channel : memberships) {
+                    channels[i++] = channel.getName();
                 }
+                chanSet = Set.copyOf(Arrays.asList(channels));
             }
-            return super.snapshot(() -> new DefaultUser(DefaultActorTracker.this.client, this.getName(), this.account,
-                    this.awayMessage, this.nick, this.user, this.host, this.isAway, this.operString, this.realName, this.server, chanSet));
+            return new DefaultUser(DefaultActorTracker.this.client, this.getName(), this.account,
+                    this.awayMessage, nick, this.user, this.host, this.isAway, this.operString, this.realName, this.server, chanSet);
         }
 
     }
@@ -420,20 +700,101 @@ public class DefaultActorTracker implements ActorTracker {
         }
     }
 
-    // Valid nick chars: \w\[]^`{}|-_
-    // Pattern unescaped: ([\w\\\[\]\^`\{\}\|\-_]+)!([~\w]+)@([\w\.\-:]+)
-    // You know what? Screw it.
-    // Let's just do it assuming no IRCD can handle following the rules.
-    // New pattern: ([^!@]+)!([^!@]+)@([^!@]+)
-    private static final Pattern NICK_PATTERN = Pattern.compile("([^!@]+)!([^!@]+)@([^!@]+)");
-    private static final Pattern SERVER_PATTERN = Pattern.compile("(?!-)(?:[a-zA-Z\\d\\-]{0,62}[a-zA-Z\\d]\\.){1,126}(?!\\d+)[a-zA-Z\\d]{1,63}");
+    private static final int ACTOR_CACHE_SIZE = 512;
+    private static final int MAX_LABEL_LENGTH = 63;
+    private static final int MAX_LABELS = 127;
+
+    /**
+     * Finds the separators of a nick!user@host mask.
+     * <p>
+     * Valid nick chars are \w\[]^`{}|-_ but, assuming no IRCD can handle
+     * following the rules, this accepts anything with exactly one '!'
+     * followed by exactly one '@', with something between each.
+     *
+     * @param name name to check
+     * @return index of '!' in the upper int and '@' in the lower, or -1 if
+     * not a user mask
+     */
+    static long getUserMaskSeparators(@NonNull String name) {
+        int bang = -1;
+        int at = -1;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '!') {
+                if ((bang >= 0) || (at >= 0)) {
+                    return -1;
+                }
+                bang = i;
+            } else if (c == '@') {
+                if ((bang < 0) || (at >= 0)) {
+                    return -1;
+                }
+                at = i;
+            }
+        }
+        if ((bang < 1) || (at < (bang + 2)) || (at == (name.length() - 1))) {
+            return -1;
+        }
+        return (((long) bang) << 32) | at;
+    }
+
+    /**
+     * Gets if a name looks like a server: at least two dot separated labels
+     * of letters, digits and hyphens, each under 64 characters, with no
+     * label ending in a hyphen, no leading hyphen, and a final label of only
+     * letters and digits that starts with a letter.
+     *
+     * @param name name to check
+     * @return true if a server name
+     */
+    static boolean isServerName(@NonNull String name) {
+        int length = name.length();
+        if ((length == 0) || (name.charAt(0) == '-')) {
+            return false;
+        }
+        int labels = 1;
+        int labelStart = 0;
+        boolean hyphen = false;
+        for (int i = 0; i < length; i++) {
+            char c = name.charAt(i);
+            if (c == '.') {
+                if ((i == labelStart) || (name.charAt(i - 1) == '-') || ((i - labelStart) > DefaultActorTracker.MAX_LABEL_LENGTH) || (++labels > DefaultActorTracker.MAX_LABELS)) {
+                    return false;
+                }
+                labelStart = i + 1;
+                hyphen = false;
+            } else if (c == '-') {
+                hyphen = true;
+            } else if (!(((c >= 'a') && (c <= 'z')) || ((c >= 'A') && (c <= 'Z')) || ((c >= '0') && (c <= '9')))) {
+                return false;
+            }
+        }
+        int lastLength = length - labelStart;
+        if ((labels < 2) || hyphen || (lastLength == 0) || (lastLength > DefaultActorTracker.MAX_LABEL_LENGTH)) {
+            return false;
+        }
+        char first = name.charAt(labelStart);
+        return (first < '0') || (first > '9');
+    }
 
     private final Client.WithManagement client;
 
     private final Map<String, IrcChannel> trackedChannels;
     private final Map<String, IrcUser> trackedUsers;
+    private final Map<String, Set<IrcChannel>> memberships;
+    private final Map<String, TrackingLevel> trackingLevels;
+    private final Interner interner = new Interner();
+    private final Map<String, Actor> actorCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Actor> eldest) {
+            return this.size() > DefaultActorTracker.ACTOR_CACHE_SIZE;
+        }
+    };
+
+    private volatile boolean queryChannelInformation = true;
 
-    private boolean queryChannelInformation = true;
+    private ISupportParameter.@Nullable Prefix comparatorPrefix;
+    private Comparator<ChannelUserMode> comparator = Comparator.comparing(ChannelUserMode::getChar);
 
     /**
      * Constructs the tracker.
@@ -444,13 +805,34 @@ public class DefaultActorTracker implements ActorTracker {
         this.client = client;
         this.trackedChannels = new CIKeyMap<>(this.client);
         this.trackedUsers = new CIKeyMap<>(this.client);
+        this.memberships = new CIKeyMap<>(this.client);
+        this.trackingLevels = new CIKeyMap<>(this.client);
+    }
+
+    @Override
+    public boolean ensureChannel(@NonNull String channel) {
+        if (this.trackedChannels.containsKey(channel)) {
+            return true;
+        } else if (this.client.getServerInfo().isValidChannel(channel)) {
+            new IrcChannel(channel);
+            return true;
+        }
+        return false;
     }
 
     @Override
     public @NonNull Actor getActor(@NonNull String name) {
-        IrcUser user = this.getUserByName(name);
-        if (user != null) {
-            return user.snapshot();
+        long separators = DefaultActorTracker.getUserMaskSeparators(name);
+        if (separators >= 0) {
+            String nick = name.substring(0, (int) (separators >>> 32));
+            IrcUser user = this.trackedUsers.get(nick);
+            if (user != null) {
+                return user.snapshot();
+            }
+            if (!this.getMemberships(nick).isEmpty()) { // Channel set may change
+                return this.getUserByName(name, separators).snapshot();
+            }
+            return this.getCachedActor(name, () -> this.getUserByName(name, separators).snapshot());
         }
         Optional<Channel> channel = this.getTrackedChannel(name);
         if (channel.isPresent()) {
@@ -458,23 +840,24 @@ public class DefaultActorTracker implements ActorTracker {
         } else if (this.client.getServerInfo().isValidChannel(name)) {
             return new IrcChannel(name).snapshot();
         }
-        if (name.isEmpty() || DefaultActorTracker.SERVER_PATTERN.matcher(name).matches()) {
-            return new IrcServer(name).snapshot();
-        }
-        return new IrcActor(name).snapshot();
+        return this.getCachedActor(name, () -> (name.isEmpty() || DefaultActorTracker.isServerName(name)) ? new IrcServer(name).snapshot() : new IrcActor(name).snapshot());
     }
 
-    private IrcUser getUserByName(@NonNull String name) {
-        Matcher nickMatcher = DefaultActorTracker.NICK_PATTERN.matcher(name);
-        if (nickMatcher.matches()) {
-            String nick = nickMatcher.group(1);
-            IrcUser user = this.trackedUsers.get(nick);
-            if (user != null) {
-                return user;
+    private @NonNull Actor getCachedActor(@NonNull String name, @NonNull Supplier<Actor> supplier) {
+        synchronized (this.actorCache) {
+            Actor actor = this.actorCache.get(name);
+            if (actor == null) {
+                actor = supplier.get();
+                this.actorCache.put(name, actor);
             }
-            return new IrcUser(name, nick, nickMatcher.group(2), nickMatcher.group(3));
+            return actor;
         }
-        return null;
+    }
+
+    private @NonNull IrcUser getUserByName(@NonNull String name, long separators) {
+        int bang = (int) (separators >>> 32);
+        int at = (int) separators;
+        return new IrcUser(name.substring(0, bang), name.substring(bang + 1, at), name.substring(at + 1));
     }
 
     @Override
@@ -488,6 +871,12 @@ public class DefaultActorTracker implements ActorTracker {
         return Optional.empty();
     }
 
+    @Override
+    public @NonNull TrackingLevel getChannelTrackingLevel(@NonNull String channel) {
+        TrackingLevel level = this.trackingLevels.get(channel);
+        return (level == null) ? TrackingLevel.FULL : level;
+    }
+
     @Override
     public @NonNull Optional<Channel> getTrackedChannel(@NonNull String channel) {
         IrcChannel ch = this.trackedChannels.get(channel);
@@ -505,13 +894,53 @@ public class DefaultActorTracker implements ActorTracker {
         return (u == null) ? Optional.empty() : Optional.of(u.snapshot());
     }
 
+    /**
+     * Gets the current snapshot of a channel, without building a new one.
+     *
+     * @param channel channel name
+     * @return snapshot or null if not tracked or in need of building
+     */
+    @Nullable Channel getPublishedChannel(@NonNull String channel) {
+        IrcChannel ch = this.trackedChannels.get(channel);
+        return (ch == null) ? null : ch.getPublishedSnapshot();
+    }
+
+    /**
+     * Gets the current snapshots of all tracked channels, without building
+     * new ones.
+     *
+     * @return snapshots or null if any is in need of building
+     */
+    @Nullable Set<Channel> getPublishedChannels() {
+        Set<Channel> channels = new HashSet<>();
+        for (IrcChannel ch : this.trackedChannels.values()) {
+            Channel snapshot = ch.getPublishedSnapshot();
+            if (snapshot == null) {
+                return null;
+            }
+            channels.add(snapshot);
+        }
+        return channels;
+    }
+
+    /**
+     * Gets the current snapshot of a user, without building a new one.
+     *
+     * @param nick nickname of the user
+     * @return snapshot or null if not tracked or in need of building
+     */
+    @Nullable User getPublishedUser(@NonNull String nick) {
+        IrcUser u = this.trackedUsers.get(nick);
+        return (u == null) ? null : u.getSnapshot();
+    }
+
     @Override
     public boolean isStale(@NonNull Staleable staleable) {
         if (staleable instanceof Channel) {
             IrcChannel channel = this.trackedChannels.get(((Channel) staleable).getName());
             return (channel == null) || channel.isStale(staleable);
         } else if (staleable instanceof User) {
-            IrcUser user = this.trackedUsers.get(((User) staleable).getName());
+            IrcUser user = this.trackedUsers.get(((User) staleable).getNick());
             return (user == null) || user.isStale(staleable);
         }
         return true;
@@ -525,6 +954,21 @@ public class DefaultActorTracker implements ActorTracker {
         }
     }
 
+    @Override
+    public void setChannelTrackingLevel(@NonNull String channel, @NonNull TrackingLevel level) {
+        Sanity.nullCheck(channel, "Channel");
+        Sanity.nullCheck(level, "Level");
+        if (level == TrackingLevel.FULL) {
+            this.trackingLevels.remove(channel);
+        } else {
+            this.trackingLevels.put(channel, level);
+        }
+        IrcChannel ch = this.trackedChannels.get(channel);
+        if (ch != null) {
+            ch.setLevel(level);
+        }
+    }
+
     @Override
     public void setChannelModeInfoList(@NonNull String channel, char mode, List<ModeInfo> modeInfo) {
         IrcChannel ch = this.trackedChannels.get(channel);
@@ -651,7 +1095,7 @@ public class DefaultActorTracker implements ActorTracker {
     @Override
     public void trackUser(@NonNull User user) {
         if (!this.trackedUsers.containsKey(user.getNick())) {
-            this.trackedUsers.put(user.getNick(), new IrcUser(user.getName(), user.getNick(), user.getUserString(), user.getHost()));
+            this.trackedUsers.put(user.getNick(), new IrcUser(user.getNick(), user.getUserString(), user.getHost()));
         }
     }
 
@@ -666,9 +1110,11 @@ public class DefaultActorTracker implements ActorTracker {
     @Override
     public void trackUserNickChange(@NonNull String oldNick, @NonNull String newNick) {
         IrcUser user = this.trackedUsers.remove(oldNick);
-        user.setNick(newNick);
-        this.trackedUsers.put(newNick, user);
-        this.trackedChannels.values().forEach(channel -> channel.trackUserNick(oldNick, newNick));
+        if (user != null) {
+            user.setNick(newNick);
+            this.trackedUsers.put(newNick, user);
+        }
+        new ArrayList<>(this.getMemberships(oldNick)).forEach(channel -> channel.trackUserNick(oldNick, newNick));
     }
 
     @Override
@@ -690,7 +1136,7 @@ public class DefaultActorTracker implements ActorTracker {
     @Override
     public void trackUserQuit(@NonNull String nick) {
         this.trackedUsers.remove(nick);
-        this.trackedChannels.values().forEach(channel -> channel.trackUserPart(nick));
+        new ArrayList<>(this.getMemberships(nick)).forEach(channel -> channel.trackUserPart(nick));
     }
 
     @Override
@@ -705,6 +1151,7 @@ public class DefaultActorTracker implements ActorTracker {
     public void unTrackChannel(@NonNull String channel) {
         IrcChannel ch = this.trackedChannels.remove(channel);
         if (ch != null) {
+            ch.members.values().forEach(member -> this.removeMembership(member.nick, ch));
             ch.setTracked(false);
         }
     }
@@ -719,10 +1166,64 @@ public class DefaultActorTracker implements ActorTracker {
 
     @Override
     public void reset() {
+        synchronized (this.actorCache) {
+            this.actorCache.clear();
+        }
         this.trackedChannels.forEach((name, channel) -> channel.markStale());
         this.trackedUsers.forEach((name, user) -> user.markStale());
     }
 
+    /**
+     * Gets the comparator ordering channel user modes by the current PREFIX.
+     *
+     * @return comparator, the same instance until PREFIX changes
+     */
+    private @NonNull Comparator<ChannelUserMode> getUserModeComparator() {
+        ISupportParameter.Prefix prefix = this.client.getServerInfo().getISupportParameter("PREFIX", ISupportParameter.Prefix.class).orElse(null);
+        if (prefix != this.comparatorPrefix) {
+            this.comparatorPrefix = prefix;
+            this.comparator = (prefix == null) ? Comparator.comparing(ChannelUserMode::getChar) : Comparator.comparingInt(prefix.getModes()::indexOf);
+        }
+        return this.comparator;
+    }
+
+    /**
+     * Gets the tracked channels in which a nickname is a member.
+     *
+     * @param nick nickname
+     * @return channels, empty if none
+     */
+    private @NonNull Set<IrcChannel> getMemberships(@NonNull String nick) {
+        Set<IrcChannel> channels = this.memberships.get(nick);
+        return (channels == null) ? Collections.emptySet() : channels;
+    }
+
+    // Membership sets are replaced rather than changed, as user snapshots iterate them on other threads
+    private void addMembership(@NonNull String nick, @NonNull IrcChannel channel) {
+        if (this.trackedChannels.get(channel.getName()) == channel) {
+            Set<IrcChannel> channels = this.getMemberships(nick);
+            if (!channels.contains(channel)) {
+                Set<IrcChannel> newChannels = new HashSet<>(channels.size() + 1);
+                newChannels.addAll(channels);
+                newChannels.add(channel);
+                this.memberships.put(nick, Collections.unmodifiableSet(newChannels));
+            }
+        }
+    }
+
+    private void removeMembership(@NonNull String nick, @NonNull IrcChannel channel) {
+        Set<IrcChannel> channels = this.memberships.get(nick);
+        if ((channels != null) && channels.contains(channel)) {
+            if (channels.size() == 1) {
+                this.memberships.remove(nick);
+            } else {
+                Set<IrcChannel> newChannels = new HashSet<>(channels);
+                newChannels.remove(channel);
+                this.memberships.put(nick, Collections.unmodifiableSet(newChannels));
+            }
+        }
+    }
+
     /**
      * Considers a user for being removed from tracking.
      *
@@ -730,7 +1231,7 @@ public class DefaultActorTracker implements ActorTracker {
      */
     private void checkUserForTracking(@NonNull String nick) {
         if (!this.client.getServerInfo().getCaseMapping().areEqualIgnoringCase(nick, this.client.getNick())
-                && this.trackedChannels.values().stream().noneMatch(channel -> channel.modes.containsKey(nick))) {
+                && this.getMemberships(nick).stream().noneMatch(channel -> channel.level == TrackingLevel.FULL)) {
             IrcUser removed = this.trackedUsers.remove(nick);
             if (removed != null) {
                 removed.markStale();
@@ -24,6 +24,7 @@
 package org.kitteh.irc.client.library.defaults.feature;
 
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
 import org.kitteh.irc.client.library.Client;
 import org.kitteh.irc.client.library.defaults.element.messagetag.*;
 import org.kitteh.irc.client.library.element.MessageTag;
@@ -34,13 +35,13 @@ import org.kitteh.irc.client.library.util.AbstractNameValueProcessor;
 import org.kitteh.irc.client.library.util.ToStringer;
 import org.kitteh.irc.client.library.util.TriFunction;
 
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.RandomAccess;
 import java.util.stream.Collectors;
 
 /**
@@ -70,7 +71,130 @@ public class DefaultMessageTagManager extends AbstractNameValueProcessor<Message
         }
     }
 
-    private static final Pattern TAG_ESCAPE = Pattern.compile("\\\\([\\\\s:])");
+    /**
+     * Read-only list of the tags in a raw tag list. Only the boundaries of
+     * each tag are recorded up front, with a tag's value unescaped and its
+     * {@link MessageTag} created the first time that tag is accessed.
+     */
+    public final class TagList extends AbstractList<MessageTag> implements RandomAccess {
+        private final String tagList;
+        // Per tag: start, index of '=' or -1, end
+        private final int[] bounds;
+        private final int size;
+        private final @Nullable MessageTag[] tags;
+
+        private TagList(@NonNull String tagList) {
+            this.tagList = tagList;
+            int[] bounds = new int[24];
+            int size = 0;
+            int start = 0;
+            while (start <= tagList.length()) {
+                int end = tagList.indexOf(';', start);
+                if (end < 0) {
+                    end = tagList.length();
+                }
+                if (end > start) {
+                    int equals = tagList.indexOf('=', start);
+                    if ((equals < 0) || (equals >= end)) {
+                        equals = -1;
+                    }
+                    int nameEnd = (equals < 0) ? end : equals;
+                    // "Clients receiving messages with more than one occurrence of a tag key SHOULD discard all but the final occurrence."
+                    int slot = size;
+                    for (int i = 0; i < size; i++) {
+                        if (this.nameMatches(bounds, i, tagList, start, nameEnd - start, true)) {
+                            slot = i;
+                            break;
+                        }
+                    }
+                    if (slot == size) {
+                        if (bounds.length < ((size + 1) * 3)) {
+                            bounds = Arrays.copyOf(bounds, bounds.length * 2);
+                        }
+                        size++;
+                    }
+                    bounds[slot * 3] = start;
+                    bounds[(slot * 3) + 1] = equals;
+                    bounds[(slot * 3) + 2] = end;
+                }
+                start = end + 1;
+            }
+            this.bounds = bounds;
+            this.size = size;
+            this.tags = new MessageTag[size];
+        }
+
+        @Override
+        public @NonNull MessageTag get(int index) {
+            if ((index < 0) || (index >= this.size)) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + this.size);
+            }
+            synchronized (this.tags) {
+                MessageTag tag = this.tags[index];
+                if (tag == null) {
+                    tag = this.tags[index] = this.create(index);
+                }
+                return tag;
+            }
+        }
+
+        @Override
+        public int size() {
+            return this.size;
+        }
+
+        /**
+         * Gets the named tag if present, creating only that tag.
+         *
+         * @param name tag name
+         * @param ignoreCase true to match the name case-insensitively
+         * @return tag if present
+         */
+        public @NonNull Optional<MessageTag> getTag(@NonNull String name, boolean ignoreCase) {
+            for (int i = 0; i < this.size; i++) {
+                if (this.nameMatches(this.bounds, i, name, 0, name.length(), ignoreCase)) {
+                    return Optional.of(this.get(i));
+                }
+            }
+            return Optional.empty();
+        }
+
+        private boolean nameMatches(int @NonNull [] bounds, int index, @NonNull String other, int offset, int length, boolean ignoreCase) {
+            int start = bounds[index * 3];
+            int nameEnd = (bounds[(index * 3) + 1] < 0) ? bounds[(index * 3) + 2] : bounds[(index * 3) + 1];
+            return ((nameEnd - start) == length) && this.tagList.regionMatches(ignoreCase, start, other, offset, length);
+        }
+
+        private @NonNull MessageTag create(int index) {
+            int start = this.bounds[index * 3];
+            int equals = this.bounds[(index * 3) + 1];
+            int end = this.bounds[(index * 3) + 2];
+            String tagName;
+            String value;
+            // Value only counts if non-empty
+            if ((equals > -1) && (equals < (end - 1))) {
+                tagName = this.tagList.substring(start, equals);
+                value = DefaultMessageTagManager.getTagValue(this.tagList, equals + 1, end);
+            } else {
+                tagName = this.tagList.substring(start, (equals < 0) ? end : equals);
+                value = null;
+            }
+            MessageTag messageTag = null;
+            TagCreator tagCreator;
+            // Attempt creating from registered creator, fall back on default
+            if ((tagCreator = (TagCreator) DefaultMessageTagManager.this.getRegistrations().get(tagName)) != null) {
+                try {
+                    messageTag = tagCreator.getFunction().apply(DefaultMessageTagManager.this.getClient(), tagName, value);
+                } catch (Throwable thrown) {
+                    DefaultMessageTagManager.this.getClient().getExceptionListener().queue(new KittehServerMessageTagException(this.tagList.substring(start, end), "Tag creator failed", thrown));
+                }
+            }
+            if (messageTag == null) {
+                messageTag = new DefaultMessageTag(tagName, value);
+            }
+            return messageTag;
+        }
+    }
 
     /**
      * Constructs the default tag manager.
@@ -108,70 +232,43 @@ public class DefaultMessageTagManager extends AbstractNameValueProcessor<Message
 
     @Override
     public @NonNull List<MessageTag> getCapabilityTags(@NonNull String tagList) {
-        String[] tagSplit = tagList.split(";"); // Split up by semicolon
-        Map<String, MessageTag> tags = new LinkedHashMap<>();
-        int index;
-        TagCreator tagCreator;
-        for (String tag : tagSplit) {
-            String tagName;
-            String value;
-            // Split out value if present
-            if (((index = tag.indexOf('=')) > -1) && (index < (tag.length() - 1))) {
-                tagName = tag.substring(0, index);
-                value = this.getTagValue(tag.substring(index + 1));
-            } else {
-                tagName = (index < 0) ? tag : tag.substring(0, index);
-                value = null;
-            }
-            MessageTag messageTag = null;
-            // Attempt creating from registered creator, fall back on default
-            if ((tagCreator = (TagCreator) this.getRegistrations().get(tagName)) != null) {
-                try {
-                    messageTag = tagCreator.getFunction().apply(this.getClient(), tagName, value);
-                } catch (Throwable thrown) {
-                    this.getClient().getExceptionListener().queue(new KittehServerMessageTagException(tag, "Tag creator failed", thrown));
-                }
-            }
-            if (messageTag == null) {
-                messageTag = new DefaultMessageTag(tagName, value);
-            }
-            // "Clients receiving messages with more than one occurrence of a tag key SHOULD discard all but the final occurrence."
-            tags.put(tagName.toLowerCase(), messageTag);
-        }
-        return List.copyOf(tags.values());
+        return new TagList(tagList);
     }
 
-    private @NonNull String getTagValue(@NonNull String tag) {
-        StringBuilder builder = new StringBuilder(tag.length());
-        int currentIndex = 0;
-        Matcher matcher = DefaultMessageTagManager.TAG_ESCAPE.matcher(tag);
-        while (matcher.find()) {
-            if (matcher.start() > currentIndex) {
-                builder.append(tag, currentIndex, matcher.start());
+    private static @NonNull String getTagValue(@NonNull String tags, int start, int end) {
+        int escape = tags.indexOf('\\', start);
+        if ((escape < 0) || (escape >= end)) {
+            return tags.substring(start, end);
+        }
+        StringBuilder builder = new StringBuilder(end - start);
+        builder.append(tags, start, escape);
+        for (int i = escape; i < end; i++) {
+            char c = tags.charAt(i);
+            if ((c != '\\') || (i == (end - 1))) {
+                builder.append(c);
+                continue;
             }
-            switch (matcher.group(1)) {
-                case ":":
+            char next = tags.charAt(++i);
+            switch (next) {
+                case ':':
                     builder.append(';');
                     break;
-                case "s":
+                case 's':
                     builder.append(' ');
                     break;
-                case "\\":
+                case '\\':
                     builder.append('\\');
                     break;
-                case "r":
+                case 'r':
                     builder.append('\r');
                     break;
-                case "n":
+                case 'n':
                     builder.append('\n');
                     break;
                 default:
-                    // Ignore it? Technically not specified since the format MUST reflect documentation.
+                    // Technically not specified since the format MUST reflect documentation, so leave it be.
+                    builder.append(c).append(next);
             }
-            currentIndex = matcher.end();
-        }
-        if (currentIndex < tag.length()) {
-            builder.append(tag.substring(currentIndex));
         }
         return builder.toString();
     }
@@ -34,6 +34,7 @@ import org.kitteh.irc.client.library.element.mode.ChannelUserMode;
 import org.kitteh.irc.client.library.element.mode.Mode;
 import org.kitteh.irc.client.library.element.mode.UserMode;
 import org.kitteh.irc.client.library.feature.ServerInfo;
+import org.kitteh.irc.client.library.util.ChannelNameValidator;
 import org.kitteh.irc.client.library.util.Sanity;
 import org.kitteh.irc.client.library.util.ToStringer;
 
@@ -46,13 +47,66 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.regex.Pattern;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 
 /**
  * Default implementation for tracking server information.
  */
 public class DefaultServerInfo implements ServerInfo.WithManagement {
+    /**
+     * Immutable lists and lookup tables compiled from the current modes and
+     * ISUPPORT parameters, replaced whenever those change.
+     */
+    private static final class Views {
+        private static final int TABLE_SIZE = 128;
+
+        private final List<ChannelMode> channelModes;
+        private final List<Character> channelPrefixes;
+        private final List<ChannelUserMode> channelUserModes;
+        private final List<UserMode> userModes;
+        private final ChannelMode[] channelModesByChar = new ChannelMode[TABLE_SIZE];
+        private final ChannelUserMode[] channelUserModesByChar = new ChannelUserMode[TABLE_SIZE];
+        private final ChannelUserMode[] channelUserModesByPrefix = new ChannelUserMode[TABLE_SIZE];
+        private final UserMode[] userModesByChar = new UserMode[TABLE_SIZE];
+        private final ChannelNameValidator channelNameValidator;
+
+        private Views(@NonNull List<ChannelMode> channelModes, @NonNull List<Character> channelPrefixes, @NonNull List<ChannelUserMode> channelUserModes, @NonNull List<UserMode> userModes, int channelLengthLimit) {
+            this.channelModes = List.copyOf(channelModes);
+            this.channelPrefixes = List.copyOf(channelPrefixes);
+            this.channelUserModes = List.copyOf(channelUserModes);
+            this.userModes = List.copyOf(userModes);
+            fill(this.channelModesByChar, this.channelModes, Mode::getChar);
+            fill(this.channelUserModesByChar, this.channelUserModes, Mode::getChar);
+            fill(this.channelUserModesByPrefix, this.channelUserModes, ChannelUserMode::getNickPrefix);
+            fill(this.userModesByChar, this.userModes, Mode::getChar);
+            this.channelNameValidator = ChannelNameValidator.of(this.channelPrefixes, channelLengthLimit);
+        }
+
+        private static <T> void fill(T @NonNull [] table, @NonNull List<T> list, @NonNull ToIntFunction<T> key) {
+            for (T element : list) {
+                int c = key.applyAsInt(element);
+                if ((c < TABLE_SIZE) && (table[c] == null)) {
+                    table[c] = element;
+                }
+            }
+        }
+
+        private static <T> @NonNull Optional<T> find(T @NonNull [] table, @NonNull List<T> list, char c, @NonNull ToIntFunction<T> key) {
+            if (c < TABLE_SIZE) {
+                return Optional.ofNullable(table[c]);
+            }
+            for (T element : list) {
+                if (key.applyAsInt(element) == c) {
+                    return Optional.of(element);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    private static final Set<String> VIEW_PARAMETERS = Set.of(ISupportParameter.ChanModes.NAME, ISupportParameter.ChanTypes.NAME, ISupportParameter.Prefix.NAME, ISupportParameter.ChannelLen.NAME);
+
     private final Client client;
     private final Map<String, ISupportParameter> iSupportParameterMap = new ConcurrentHashMap<>();
     private final List<ChannelMode> defaultChannelModes;
@@ -64,11 +118,7 @@ public class DefaultServerInfo implements ServerInfo.WithManagement {
     private String version;
     private final List<UserMode> userModes = new CopyOnWriteArrayList<>();
     private final List<UserMode> customUserModes = new CopyOnWriteArrayList<>();
-
-    // Pattern: ([#!&\+][^ ,\07\r\n]{1,49})
-    // Screw it, let's assume IRCDs disregard length policy
-    // New pattern: ([#!&\+][^ ,\07\r\n]+)
-    private final Pattern channelPattern = Pattern.compile("([#!&+][^ ,\\07\\r\\n]+)");
+    private volatile Views views;
 
     /**
      * Constructs the server info.
@@ -97,16 +147,20 @@ public class DefaultServerInfo implements ServerInfo.WithManagement {
         this.userModes.add(new DefaultUserMode(client, 's')); // Can receive server notices
         this.userModes.add(new DefaultUserMode(client, 'w')); // Can receive wallops
         this.userModes.add(new DefaultUserMode(client, 'o')); // Operator
+        // Nothing from the server or custom yet, so just the defaults without a length limit
+        this.views = new Views(this.defaultChannelModes, this.defaultChannelPrefixes, this.defaultChannelUserModes, this.userModes, -1);
     }
 
     @Override
-    public void addCustomChannelMode(@NonNull ChannelMode mode) {
+    public synchronized void addCustomChannelMode(@NonNull ChannelMode mode) {
         this.customChannelModes.add(Sanity.nullCheck(mode, "mode"));
+        this.rebuildViews();
     }
 
     @Override
-    public void addCustomUserMode(@NonNull UserMode mode) {
+    public synchronized void addCustomUserMode(@NonNull UserMode mode) {
         this.customUserModes.add(Sanity.nullCheck(mode, "mode"));
+        this.rebuildViews();
     }
 
     @Override
@@ -119,27 +173,42 @@ public class DefaultServerInfo implements ServerInfo.WithManagement {
         this.address = serverAddress;
     }
 
+    @Override
+    public @NonNull Optional<ChannelMode> getChannelMode(char character) {
+        Views views = this.views;
+        return Views.find(views.channelModesByChar, views.channelModes, character, Mode::getChar);
+    }
+
     @Override
     public @NonNull List<ChannelMode> getChannelModes() {
-        Optional<ISupportParameter.ChanModes> optional = this.getISupportParameter(ISupportParameter.ChanModes.NAME, ISupportParameter.ChanModes.class);
-        List<ChannelMode> list = new ArrayList<>();
-        List<ChannelMode> modes = optional.map(ISupportParameter.ChanModes::getModes).orElse(this.defaultChannelModes);
-        Set<Character> customModeChars = this.customChannelModes.stream().map(Mode::getChar).collect(Collectors.toSet());
-        modes.stream().filter(mode -> !customModeChars.contains(mode.getChar())).forEach(list::add);
-        list.addAll(this.customChannelModes);
-        return list;
+        return this.views.channelModes;
+    }
+
+    @Override
+    public @NonNull ChannelNameValidator getChannelNameValidator() {
+        return this.views.channelNameValidator;
     }
 
     @Override
     public @NonNull List<Character> getChannelPrefixes() {
-        Optional<ISupportParameter.ChanTypes> optional = this.getISupportParameter(ISupportParameter.ChanTypes.NAME, ISupportParameter.ChanTypes.class);
-        return new ArrayList<>(optional.map(ISupportParameter.ChanTypes::getTypes).orElse(this.defaultChannelPrefixes));
+        return this.views.channelPrefixes;
+    }
+
+    @Override
+    public @NonNull Optional<ChannelUserMode> getChannelUserMode(char character) {
+        Views views = this.views;
+        return Views.find(views.channelUserModesByChar, views.channelUserModes, character, Mode::getChar);
+    }
+
+    @Override
+    public @NonNull Optional<ChannelUserMode> getChannelUserModeByPrefix(char prefix) {
+        Views views = this.views;
+        return Views.find(views.channelUserModesByPrefix, views.channelUserModes, prefix, ChannelUserMode::getNickPrefix);
     }
 
     @Override
     public @NonNull List<ChannelUserMode> getChannelUserModes() {
-        Optional<ISupportParameter.Prefix> optional = this.getISupportParameter(ISupportParameter.Prefix.NAME, ISupportParameter.Prefix.class);
-        return new ArrayList<>(optional.map(ISupportParameter.Prefix::getModes).orElse(this.defaultChannelUserModes));
+        return this.views.channelUserModes;
     }
 
     @Override
@@ -154,8 +223,12 @@ public class DefaultServerInfo implements ServerInfo.WithManagement {
     }
 
     @Override
-    public void addISupportParameter(@NonNull ISupportParameter parameter) {
-        this.iSupportParameterMap.put(parameter.getName().toUpperCase(), parameter);
+    public synchronized void addISupportParameter(@NonNull ISupportParameter parameter) {
+        String name = parameter.getName().toUpperCase();
+        this.iSupportParameterMap.put(name, parameter);
+        if (VIEW_PARAMETERS.contains(name)) {
+            this.rebuildViews();
+        }
     }
 
     @Override
@@ -182,8 +255,7 @@ public class DefaultServerInfo implements ServerInfo.WithManagement {
     @Override
     public boolean isValidChannel(@NonNull String name) {
         Sanity.nullCheck(name, "Channel name");
-        int channelLengthLimit = this.getChannelLengthLimit();
-        return (name.length() > 1) && ((channelLengthLimit < 0) || (name.length() <= channelLengthLimit)) && this.getChannelPrefixes().contains(name.charAt(0)) && this.channelPattern.matcher(name).matches();
+        return this.views.channelNameValidator.isValid(name);
     }
 
     @Override
@@ -192,30 +264,50 @@ public class DefaultServerInfo implements ServerInfo.WithManagement {
             return Optional.empty();
         }
         final char first = name.charAt(0);
-        final String shorter = name.substring(1);
-        if (!this.getChannelPrefixes().contains(first) && this.isValidChannel(shorter)) {
-            for (ChannelUserMode mode : this.getChannelUserModes()) {
-                if (mode.getNickPrefix() == first) {
-                    return Optional.of(mode);
-                }
-            }
+        final ChannelNameValidator validator = this.views.channelNameValidator;
+        if (!validator.isPrefix(first) && validator.isValid(name, 1)) {
+            return this.getChannelUserModeByPrefix(first);
         }
         return Optional.empty();
     }
 
+    @Override
+    public @NonNull Optional<UserMode> getUserMode(char character) {
+        Views views = this.views;
+        return Views.find(views.userModesByChar, views.userModes, character, Mode::getChar);
+    }
+
     @Override
     public @NonNull List<UserMode> getUserModes() {
-        List<UserMode> list = new ArrayList<>();
-        Set<Character> customModeChars = this.customUserModes.stream().map(Mode::getChar).collect(Collectors.toSet());
-        this.userModes.stream().filter(mode -> !customModeChars.contains(mode.getChar())).forEach(list::add);
-        list.addAll(this.customUserModes);
-        return list;
+        return this.views.userModes;
     }
 
     @Override
-    public void setUserModes(@NonNull List<UserMode> userModes) {
+    public synchronized void setUserModes(@NonNull List<UserMode> userModes) {
         this.userModes.clear();
         this.userModes.addAll(userModes);
+        this.rebuildViews();
+    }
+
+    private void rebuildViews() {
+        Optional<ISupportParameter.ChanModes> chanModes = this.getISupportParameter(ISupportParameter.ChanModes.NAME, ISupportParameter.ChanModes.class);
+        List<ChannelMode> channelModes = new ArrayList<>();
+        Set<Character> customChannelModeChars = this.customChannelModes.stream().map(Mode::getChar).collect(Collectors.toSet());
+        chanModes.map(ISupportParameter.ChanModes::getModes).orElse(this.defaultChannelModes).stream().filter(mode -> !customChannelModeChars.contains(mode.getChar())).forEach(channelModes::add);
+        channelModes.addAll(this.customChannelModes);
+
+        Optional<ISupportParameter.ChanTypes> chanTypes = this.getISupportParameter(ISupportParameter.ChanTypes.NAME, ISupportParameter.ChanTypes.class);
+        List<Character> channelPrefixes = chanTypes.map(ISupportParameter.ChanTypes::getTypes).orElse(this.defaultChannelPrefixes);
+
+        Optional<ISupportParameter.Prefix> prefix = this.getISupportParameter(ISupportParameter.Prefix.NAME, ISupportParameter.Prefix.class);
+        List<ChannelUserMode> channelUserModes = prefix.map(ISupportParameter.Prefix::getModes).orElse(this.defaultChannelUserModes);
+
+        List<UserMode> userModes = new ArrayList<>();
+        Set<Character> customUserModeChars = this.customUserModes.stream().map(Mode::getChar).collect(Collectors.toSet());
+        this.userModes.stream().filter(mode -> !customUserModeChars.contains(mode.getChar())).forEach(userModes::add);
+        userModes.addAll(this.customUserModes);
+
+        this.views = new Views(channelModes, channelPrefixes, channelUserModes, userModes, this.getChannelLengthLimit());
     }
 
     @Override
@@ -0,0 +1,437 @@
+/*
+ * * Copyright (C) 2013-2025 Matt Baxter https://kitteh.org
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS
+ * BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN
+ * ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.kitteh.irc.client.library.defaults.feature;
+
+import net.engio.mbassy.listener.Handler;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.kitteh.irc.client.library.Client;
+import org.kitteh.irc.client.library.event.client.ClientReceiveCommandEvent;
+import org.kitteh.irc.client.library.event.client.ClientReceiveNumericEvent;
+import org.kitteh.irc.client.library.event.helper.ClientEvent;
+import org.kitteh.irc.client.library.exception.KittehEventException;
+import org.kitteh.irc.client.library.exception.KittehNagException;
+import org.kitteh.irc.client.library.exception.KittehServerMessageException;
+import org.kitteh.irc.client.library.feature.EventManager;
+import org.kitteh.irc.client.library.feature.filter.CommandFilter;
+import org.kitteh.irc.client.library.feature.filter.EchoMessage;
+import org.kitteh.irc.client.library.feature.filter.FilterProcessor;
+import org.kitteh.irc.client.library.feature.filter.NumericFilter;
+import org.kitteh.irc.client.library.feature.filter.ToSelfOnly;
+import org.kitteh.irc.client.library.util.Sanity;
+import org.kitteh.irc.client.library.util.ToStringer;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiConsumer;
+
+/**
+ * An {@link EventManager} that does not use MBassador, instead dispatching
+ * events itself to {@link Handler} methods, which are invoked synchronously
+ * in descending priority order.
+ * <p>
+ * Handlers of the {@link ClientReceiveCommandEvent} and {@link
+ * ClientReceiveNumericEvent} annotated with {@link CommandFilter} or {@link
+ * NumericFilter} are indexed by their commands and numerics when
+ * registered, so a received line is only offered to the handlers which
+ * asked for its command, however many listeners are registered.
+ * <p>
+ * Each handler method is compiled once into a direct invoker via {@link
+ * LambdaMetafactory}, rather than being called reflectively for each event,
+ * and the handlers applicable to an event class are resolved once for that
+ * class rather than per event.
+ * <p>
+ * Only the priority, enabled, and rejectSubtypes values of the {@link
+ * Handler} annotation are supported, and all handlers are invoked
+ * synchronously.
+ */
+public class IndexedEventManager implements EventManager {
+    private static final int NUMERIC_LIMIT = 1000;
+    private static final Subscriber[] NO_SUBSCRIBERS = new Subscriber[0];
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final ClassValue<ConcurrentMap<Method, BiConsumer<Object, Object>>> INVOKERS = new ClassValue<>() {
+        @Override
+        protected ConcurrentMap<Method, BiConsumer<Object, Object>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+    private static final Comparator<Subscriber> ORDER = Comparator.<Subscriber>comparingInt(subscriber -> subscriber.priority).reversed().thenComparingLong(subscriber -> subscriber.order);
+
+    private record FilterProcessorWrapper(FilterProcessor<?, ?> filterProcessor, Annotation[] annotations) {
+        @SuppressWarnings("unchecked")
+        private boolean accepts(@NonNull Object event) {
+            // Processors are only given events of their handler's type, and annotations of their own type
+            return ((FilterProcessor<Object, Annotation>) this.filterProcessor).accepts(event, this.annotations);
+        }
+    }
+
+    /**
+     * The subscribers to an event class for each command named by a command
+     * filter, and for any other command.
+     *
+     * @param named subscribers by upper-cased command
+     * @param unnamed subscribers without a command filter
+     */
+    private record CommandIndex(Map<String, Subscriber[]> named, Subscriber[] unnamed) {
+    }
+
+    private static final class Subscriber {
+        private final Object listener;
+        private final Method method;
+        private final BiConsumer<Object, Object> invoker;
+        private final Class<?> eventType;
+        private final int priority;
+        private final long order;
+        private final boolean rejectSubtypes;
+        private final FilterProcessorWrapper[] filters;
+        private final String @Nullable [] commands;
+        private final int @Nullable [] numerics;
+
+        private Subscriber(@NonNull Object listener, @NonNull Method method, @NonNull Handler handler, long order, @NonNull FilterProcessorWrapper[] filters, String @Nullable [] commands, int @Nullable [] numerics) {
+            this.listener = listener;
+            this.method = method;
+            this.invoker = IndexedEventManager.getInvoker(method);
+            this.eventType = method.getParameterTypes()[0];
+            this.priority = handler.priority();
+            this.order = order;
+            this.rejectSubtypes = handler.rejectSubtypes();
+            this.filters = filters;
+            this.commands = commands;
+            this.numerics = numerics;
+        }
+
+        private boolean handles(@NonNull Class<?> eventClass) {
+            return this.rejectSubtypes ? (this.eventType == eventClass) : this.eventType.isAssignableFrom(eventClass);
+        }
+
+        private boolean handlesCommand(@NonNull String command) {
+            if (this.commands == null) {
+                return true;
+            }
+            for (String handled : this.commands) {
+                if (handled.equalsIgnoreCase(command)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean handlesNumeric(int numeric) {
+            if (this.numerics == null) {
+                return true;
+            }
+            for (int handled : this.numerics) {
+                if (handled == numeric) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void dispatch(@NonNull Object event) {
+            for (FilterProcessorWrapper filter : this.filters) {
+                if (!filter.accepts(event)) {
+                    return;
+                }
+            }
+            this.invoker.accept(this.listener, event);
+        }
+
+        @Override
+        public @NonNull String toString() {
+            return new ToStringer(this).add("listener", this.listener).add("method", this.method.getName()).add("priority", this.priority).toString();
+        }
+    }
+
+    /**
+     * All registered subscribers at a point in time, with the subscribers
+     * applicable to each event class, command, and numeric worked out the
+     * first time each event class is dispatched. Only the commands named by
+     * command filters are indexed, so received commands nobody filters for
+     * share one array rather than each being cached.
+     */
+    private static final class Index {
+        private final Subscriber[] subscribers;
+        private final Set<String> commands = new HashSet<>();
+        private final ConcurrentMap<Class<?>, Subscriber[]> byClass = new ConcurrentHashMap<>();
+        private final ConcurrentMap<Class<?>, CommandIndex> byCommand = new ConcurrentHashMap<>();
+        private final ConcurrentMap<Class<?>, AtomicReferenceArray<Subscriber[]>> byNumeric = new ConcurrentHashMap<>();
+
+        private Index(@NonNull Subscriber[] subscribers) {
+            this.subscribers = subscribers;
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.commands != null) {
+                    for (String command : subscriber.commands) {
+                        this.commands.add(command.toUpperCase(Locale.ENGLISH));
+                    }
+                }
+            }
+        }
+
+        private @NonNull Subscriber[] get(@NonNull Class<?> eventClass) {
+            return this.byClass.computeIfAbsent(eventClass, clazz -> Arrays.stream(this.subscribers).filter(subscriber -> subscriber.handles(clazz)).toArray(Subscriber[]::new));
+        }
+
+        private @NonNull Subscriber[] getCommand(@NonNull Class<?> eventClass, @NonNull String command) {
+            CommandIndex commandIndex = this.byCommand.computeIfAbsent(eventClass, this::indexCommands);
+            Subscriber[] subscribers = commandIndex.named.get(command.toUpperCase(Locale.ENGLISH));
+            return (subscribers == null) ? commandIndex.unnamed : subscribers;
+        }
+
+        private @NonNull CommandIndex indexCommands(@NonNull Class<?> eventClass) {
+            Subscriber[] subscribers = this.get(eventClass);
+            Map<String, Subscriber[]> named = new HashMap<>();
+            for (String command : this.commands) {
+                named.put(command, Arrays.stream(subscribers).filter(subscriber -> subscriber.handlesCommand(command)).toArray(Subscriber[]::new));
+            }
+            return new CommandIndex(named, Arrays.stream(subscribers).filter(subscriber -> subscriber.commands == null).toArray(Subscriber[]::new));
+        }
+
+        private @NonNull Subscriber[] getNumeric(@NonNull Class<?> eventClass, int numeric) {
+            if ((numeric < 0) || (numeric >= IndexedEventManager.NUMERIC_LIMIT)) {
+                return this.filterNumeric(eventClass, numeric);
+            }
+            AtomicReferenceArray<Subscriber[]> numerics = this.byNumeric.computeIfAbsent(eventClass, clazz -> new AtomicReferenceArray<>(IndexedEventManager.NUMERIC_LIMIT));
+            Subscriber[] subscribers = numerics.get(numeric);
+            if (subscribers == null) {
+                subscribers = this.filterNumeric(eventClass, numeric);
+                numerics.set(numeric, subscribers);
+            }
+            return subscribers;
+        }
+
+        private @NonNull Subscriber[] filterNumeric(@NonNull Class<?> eventClass, int numeric) {
+            return Arrays.stream(this.get(eventClass)).filter(subscriber -> subscriber.handlesNumeric(numeric)).toArray(Subscriber[]::new);
+        }
+    }
+
+    private final Client client;
+    private final Map<Class<? extends Annotation>, FilterProcessor<?, ? extends Annotation>> filters = new ConcurrentHashMap<>();
+    private final Map<Object, List<Subscriber>> listeners = new LinkedHashMap<>();
+    private volatile Index index = new Index(IndexedEventManager.NO_SUBSCRIBERS);
+    private long registrations;
+
+    /**
+     * Constructs the event manager.
+     *
+     * @param client client for which this manager will operate
+     */
+    public IndexedEventManager(@NonNull Client client) {
+        this.client = Sanity.nullCheck(client, "Client");
+        // Defaults!
+        this.filters.put(CommandFilter.class, new CommandFilter.Processor());
+        this.filters.put(EchoMessage.class, new EchoMessage.Processor());
+        this.filters.put(NumericFilter.class, new NumericFilter.Processor());
+        this.filters.put(ToSelfOnly.class, new ToSelfOnly.Processor());
+    }
+
+    @Override
+    public void callEvent(@NonNull Object event) {
+        Sanity.nullCheck(event, "Event");
+        if (event instanceof ClientEvent) {
+            Sanity.truthiness(((ClientEvent) event).getClient() == this.client, "Event cannot be from another client!");
+        }
+        Index index = this.index;
+        Subscriber[] subscribers;
+        if (event instanceof ClientReceiveCommandEvent commandEvent) {
+            subscribers = index.getCommand(event.getClass(), commandEvent.getCommand());
+        } else if (event instanceof ClientReceiveNumericEvent numericEvent) {
+            subscribers = index.getNumeric(event.getClass(), numericEvent.getNumeric());
+        } else {
+            subscribers = index.get(event.getClass());
+        }
+        for (Subscriber subscriber : subscribers) {
+            try {
+                subscriber.dispatch(event);
+            } catch (KittehServerMessageException | KittehNagException exception) {
+                this.client.getExceptionListener().queue(exception);
+            } catch (Throwable thrown) {
+                this.client.getExceptionListener().queue(new KittehEventException(thrown));
+            }
+        }
+    }
+
+    @Override
+    public synchronized @NonNull Set<Object> getRegisteredEventListeners() {
+        return new HashSet<>(this.listeners.keySet());
+    }
+
+    @Override
+    public @NonNull Map<Class<? extends Annotation>, FilterProcessor<?, ? extends Annotation>> getAnnotationFilters() {
+        return Map.copyOf(this.filters);
+    }
+
+    @Override
+    public <A extends Annotation> void registerAnnotationFilter(Class<A> annotationClass, FilterProcessor<?, A> filterProcessor) {
+        this.filters.put(annotationClass, filterProcessor);
+    }
+
+    @Override
+    public synchronized void registerEventListener(@NonNull Object listener) {
+        Sanity.nullCheck(listener, "Listener");
+        if (this.listeners.containsKey(listener)) {
+            return;
+        }
+        List<Subscriber> subscribers = new ArrayList<>();
+        for (Method method : IndexedEventManager.getHandlerMethods(listener.getClass())) {
+            subscribers.add(this.createSubscriber(listener, method));
+        }
+        this.listeners.put(listener, subscribers);
+        this.rebuildIndex();
+    }
+
+    @Override
+    public synchronized void unregisterEventListener(@NonNull Object listener) {
+        Sanity.nullCheck(listener, "Listener");
+        if (this.listeners.remove(listener) != null) {
+            this.rebuildIndex();
+        }
+    }
+
+    @Override
+    public @NonNull String toString() {
+        return new ToStringer(this).add("client", this.client).toString();
+    }
+
+    private void rebuildIndex() {
+        this.index = new Index(this.listeners.values().stream().flatMap(List::stream).sorted(IndexedEventManager.ORDER).toArray(Subscriber[]::new));
+    }
+
+    private @NonNull Subscriber createSubscriber(@NonNull Object listener, @NonNull Method method) {
+        Class<?> eventType = method.getParameterTypes()[0];
+        String[] commands = null;
+        int[] numerics = null;
+        List<FilterProcessorWrapper> filterWrappers = new ArrayList<>();
+        for (Map.Entry<Class<? extends Annotation>, FilterProcessor<?, ? extends Annotation>> entry : this.filters.entrySet()) {
+            Annotation[] annotations = method.getAnnotationsByType(entry.getKey());
+            if (annotations.length == 0) {
+                continue;
+            }
+            // Index rather than filter, as long as the stock processor would be doing the filtering
+            if ((entry.getKey() == CommandFilter.class) && (entry.getValue() instanceof CommandFilter.Processor) && ClientReceiveCommandEvent.class.isAssignableFrom(eventType)) {
+                commands = Arrays.stream((CommandFilter[]) annotations).map(CommandFilter::value).toArray(String[]::new);
+            } else if ((entry.getKey() == NumericFilter.class) && (entry.getValue() instanceof NumericFilter.Processor) && ClientReceiveNumericEvent.class.isAssignableFrom(eventType)) {
+                numerics = Arrays.stream((NumericFilter[]) annotations).mapToInt(NumericFilter::value).toArray();
+            } else {
+                filterWrappers.add(new FilterProcessorWrapper(entry.getValue(), annotations));
+            }
+        }
+        return new Subscriber(listener, method, method.getAnnotation(Handler.class), this.registrations++, filterWrappers.toArray(new FilterProcessorWrapper[0]), commands, numerics);
+    }
+
+    private static @NonNull BiConsumer<Object, Object> getInvoker(@NonNull Method method) {
+        return IndexedEventManager.INVOKERS.get(method.getDeclaringClass()).computeIfAbsent(method, IndexedEventManager::createInvoker);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static @NonNull BiConsumer<Object, Object> createInvoker(@NonNull Method method) {
+        MethodHandle handle;
+        MethodHandles.Lookup lookup = null;
+        try {
+            lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+            handle = lookup.unreflect(method);
+        } catch (IllegalAccessException | RuntimeException e) {
+            // Not open to us, so the best remaining option is an accessible handle
+            method.setAccessible(true);
+            try {
+                handle = MethodHandles.publicLookup().unreflect(method);
+            } catch (IllegalAccessException ex) {
+                throw new IllegalArgumentException("Cannot access handler " + method, ex);
+            }
+        }
+        if (lookup != null) {
+            try {
+                CallSite site = LambdaMetafactory.metafactory(lookup, "accept", MethodType.methodType(BiConsumer.class),
+                        IndexedEventManager.INVOKER_TYPE.erase(), handle, MethodType.methodType(void.class, method.getDeclaringClass(), method.getParameterTypes()[0]));
+                return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+            } catch (Throwable thrown) {
+                // Fall back on the handle itself
+            }
+        }
+        MethodHandle invoker = handle.asType(IndexedEventManager.INVOKER_TYPE);
+        return (listener, event) -> {
+            try {
+                invoker.invokeExact(listener, event);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable thrown) {
+                IndexedEventManager.sneakyThrow(thrown);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Throwable> void sneakyThrow(@NonNull Throwable thrown) throws T {
+        throw (T) thrown;
+    }
+
+    private static @NonNull List<Method> getHandlerMethods(@NonNull Class<?> clazz) {
+        List<Method> handlers = new ArrayList<>();
+        Set<String> overridden = new HashSet<>();
+        for (Class<?> current = clazz; (current != null) && (current != Object.class); current = current.getSuperclass()) {
+            for (Method method : current.getDeclaredMethods()) {
+                if (method.isBridge() || method.isSynthetic() || Modifier.isStatic(method.getModifiers())) {
+                    continue;
+                }
+                String signature = method.getName() + Arrays.toString(method.getParameterTypes());
+                boolean isOverridden = !Modifier.isPrivate(method.getModifiers()) && !overridden.add(signature);
+                Handler handler = method.getAnnotation(Handler.class);
+                // An annotated override is already registered, while an unannotated override inherits the handler
+                if ((handler == null) || !handler.enabled() || (method.getParameterCount() != 1) || (isOverridden && IndexedEventManager.isAnnotatedIn(handlers, signature))) {
+                    continue;
+                }
+                handlers.add(method);
+            }
+        }
+        return handlers;
+    }
+
+    private static boolean isAnnotatedIn(@NonNull List<Method> handlers, @NonNull String signature) {
+        for (Method handler : handlers) {
+            if (!Modifier.isPrivate(handler.getModifiers()) && signature.equals(handler.getName() + Arrays.toString(handler.getParameterTypes()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
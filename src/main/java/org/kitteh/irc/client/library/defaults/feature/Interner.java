@@ -0,0 +1,73 @@
+/*
+ * * Copyright (C) 2013-2025 Matt Baxter https://kitteh.org
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS
+ * BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN
+ * ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.kitteh.irc.client.library.defaults.feature;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.kitteh.irc.client.library.util.ToStringer;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Deduplicates equal strings, such as hosts and idents repeated across many
+ * users, without keeping them alive once no longer used elsewhere.
+ */
+final class Interner {
+    private final Map<String, WeakReference<String>> strings = new WeakHashMap<>();
+
+    /**
+     * Gets the canonical instance of a string.
+     *
+     * @param string string, or null
+     * @return an equal string, shared by all equal strings interned
+     */
+    synchronized @Nullable String intern(@Nullable String string) {
+        if (string == null) {
+            return null;
+        }
+        WeakReference<String> reference = this.strings.get(string);
+        String interned = (reference == null) ? null : reference.get();
+        if (interned == null) {
+            this.strings.put(string, new WeakReference<>(string));
+            return string;
+        }
+        return interned;
+    }
+
+    /**
+     * Gets the number of distinct strings currently interned.
+     *
+     * @return size
+     */
+    synchronized int size() {
+        return this.strings.size();
+    }
+
+    @Override
+    public @NonNull String toString() {
+        return new ToStringer(this).add("size", this.size()).toString();
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * * Copyright (C) 2013-2025 Matt Baxter https://kitteh.org
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS
+ * BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN
+ * ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.kitteh.irc.client.library.defaults.feature;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.kitteh.irc.client.library.element.mode.ModeInfo;
+import org.kitteh.irc.client.library.feature.CaseMapping;
+import org.kitteh.irc.client.library.util.Mask;
+import org.kitteh.irc.client.library.util.MaskIndex;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * An immutable, insertion-ordered list of mode info keyed by mask, such as a
+ * channel's bans. Adding or removing an entry costs O(log n) and shares the
+ * rest with the original, so that one list can be handed to every snapshot
+ * until the next change. Ordering is only worked out once a copy is read,
+ * and masks are only indexed for matching once a match is requested.
+ */
+public final class ModeInfoList extends AbstractList<ModeInfo> implements RandomAccess {
+    private static final class Entry {
+        private final ModeInfo modeInfo;
+        private final long order;
+
+        private Entry(@NonNull ModeInfo modeInfo, long order) {
+            this.modeInfo = modeInfo;
+            this.order = order;
+        }
+    }
+
+    private static final ModeInfoList EMPTY = new ModeInfoList(PersistentMap.empty(), 0);
+
+    /**
+     * Gets the empty list.
+     *
+     * @return empty list
+     */
+    static @NonNull ModeInfoList empty() {
+        return ModeInfoList.EMPTY;
+    }
+
+    /**
+     * Gets a list of the given mode info, in order.
+     *
+     * @param modeInfo mode info
+     * @return list
+     */
+    static @NonNull ModeInfoList of(@NonNull List<ModeInfo> modeInfo) {
+        ModeInfoList list = ModeInfoList.EMPTY;
+        for (ModeInfo info : modeInfo) {
+            list = list.plus(info);
+        }
+        return list;
+    }
+
+    private final PersistentMap<Mask, Entry> entries;
+    private final long nextOrder;
+    private volatile ModeInfo @Nullable [] array;
+    private volatile @Nullable MaskIndex<ModeInfo> index;
+
+    private ModeInfoList(@NonNull PersistentMap<Mask, Entry> entries, long nextOrder) {
+        this.entries = entries;
+        this.nextOrder = nextOrder;
+    }
+
+    /**
+     * Gets a copy of this list with the given mode info added at the end,
+     * or in place of the entry with the same mask.
+     *
+     * @param modeInfo mode info to add
+     * @return updated list
+     */
+    @NonNull ModeInfoList plus(@NonNull ModeInfo modeInfo) {
+        Entry existing = this.entries.get(modeInfo.getMask());
+        if (existing != null) {
+            return new ModeInfoList(this.entries.plus(modeInfo.getMask(), new Entry(modeInfo, existing.order)), this.nextOrder);
+        }
+        return new ModeInfoList(this.entries.plus(modeInfo.getMask(), new Entry(modeInfo, this.nextOrder)), this.nextOrder + 1);
+    }
+
+    /**
+     * Gets a copy of this list without the entry for the given mask.
+     *
+     * @param mask mask to remove
+     * @return updated list, or this list if unchanged
+     */
+    @NonNull ModeInfoList minus(@NonNull Mask mask) {
+        PersistentMap<Mask, Entry> entries = this.entries.minus(mask);
+        return (entries == this.entries) ? this : new ModeInfoList(entries, this.nextOrder);
+    }
+
+    /**
+     * Gets the mode info for a mask.
+     *
+     * @param mask mask
+     * @return mode info or null if not listed
+     */
+    @Nullable ModeInfo get(@NonNull Mask mask) {
+        Entry entry = this.entries.get(mask);
+        return (entry == null) ? null : entry.modeInfo;
+    }
+
+    /**
+     * Gets the mode info whose masks match a name.
+     *
+     * @param caseMapping case mapping under which to match
+     * @param name name, such as <code>nick!user@host</code>
+     * @return matching mode info, in list order
+     */
+    public @NonNull List<ModeInfo> getMatching(@NonNull CaseMapping caseMapping, @NonNull String name) {
+        MaskIndex<ModeInfo> index = this.index;
+        if ((index == null) || (index.getCaseMapping() != caseMapping)) {
+            this.index = index = MaskIndex.of(caseMapping, this, ModeInfo::getMask);
+        }
+        return index.getMatches(name);
+    }
+
+    private ModeInfo @NonNull [] getArray() {
+        ModeInfo[] array = this.array;
+        if (array == null) {
+            Entry[] entries = this.entries.values().toArray(new Entry[0]);
+            Arrays.sort(entries, Comparator.comparingLong(entry -> entry.order));
+            array = new ModeInfo[entries.length];
+            for (int i = 0; i < entries.length; i++) {
+                array[i] = entries[i].modeInfo;
+            }
+            this.array = array;
+        }
+        return array;
+    }
+
+    @Override
+    public ModeInfo get(int index) {
+        return this.getArray()[index];
+    }
+
+    @Override
+    public int size() {
+        return this.entries.size();
+    }
+
+    @Override
+    public boolean contains(@Nullable Object o) {
+        return (o instanceof ModeInfo) && o.equals(this.get(((ModeInfo) o).getMask()));
+    }
+}
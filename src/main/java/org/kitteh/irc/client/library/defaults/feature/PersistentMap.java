@@ -0,0 +1,359 @@
+/*
+ * * Copyright (C) 2013-2025 Matt Baxter https://kitteh.org
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS
+ * BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN
+ * ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.kitteh.irc.client.library.defaults.feature;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.kitteh.irc.client.library.util.Sanity;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * An immutable hash map whose modified copies share all untouched structure
+ * with the original, so that adding or removing a key costs O(log n)
+ * rather than a full copy. Backed by a hash array mapped trie.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+final class PersistentMap<K, V> extends AbstractMap<K, V> {
+    private abstract static class Node {
+        final Object[] array; // Key, value pairs. A null key marks a child node as the value.
+
+        Node(Object[] array) {
+            this.array = array;
+        }
+
+        abstract @Nullable Object find(@NonNull Object key, int hash, int shift);
+
+        abstract @NonNull Node plus(int shift, int hash, @NonNull Object key, @NonNull Object value, boolean @NonNull [] added);
+
+        abstract @Nullable Node minus(int shift, int hash, @NonNull Object key);
+    }
+
+    private static final class BitmapNode extends Node {
+        private static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        private final int bitmap;
+
+        private BitmapNode(int bitmap, Object[] array) {
+            super(array);
+            this.bitmap = bitmap;
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(this.bitmap & (bit - 1)) * 2;
+        }
+
+        @Override
+        @Nullable Object find(@NonNull Object key, int hash, int shift) {
+            int bit = 1 << ((hash >>> shift) & 31);
+            if ((this.bitmap & bit) == 0) {
+                return null;
+            }
+            int index = this.index(bit);
+            Object k = this.array[index];
+            if (k == null) {
+                return ((Node) this.array[index + 1]).find(key, hash, shift + 5);
+            }
+            return key.equals(k) ? this.array[index + 1] : null;
+        }
+
+        @Override
+        @NonNull Node plus(int shift, int hash, @NonNull Object key, @NonNull Object value, boolean @NonNull [] added) {
+            int bit = 1 << ((hash >>> shift) & 31);
+            int index = this.index(bit);
+            if ((this.bitmap & bit) == 0) {
+                Object[] newArray = new Object[this.array.length + 2];
+                System.arraycopy(this.array, 0, newArray, 0, index);
+                newArray[index] = key;
+                newArray[index + 1] = value;
+                System.arraycopy(this.array, index, newArray, index + 2, this.array.length - index);
+                added[0] = true;
+                return new BitmapNode(this.bitmap | bit, newArray);
+            }
+            Object k = this.array[index];
+            Object v = this.array[index + 1];
+            if (k == null) {
+                Node child = ((Node) v).plus(shift + 5, hash, key, value, added);
+                return (child == v) ? this : new BitmapNode(this.bitmap, PersistentMap.with(this.array, index + 1, child));
+            }
+            if (key.equals(k)) {
+                return (value == v) ? this : new BitmapNode(this.bitmap, PersistentMap.with(this.array, index + 1, value));
+            }
+            added[0] = true;
+            Object[] newArray = PersistentMap.with(this.array, index, null);
+            newArray[index + 1] = PersistentMap.createNode(shift + 5, k, v, hash, key, value);
+            return new BitmapNode(this.bitmap, newArray);
+        }
+
+        @Override
+        @Nullable Node minus(int shift, int hash, @NonNull Object key) {
+            int bit = 1 << ((hash >>> shift) & 31);
+            if ((this.bitmap & bit) == 0) {
+                return this;
+            }
+            int index = this.index(bit);
+            Object k = this.array[index];
+            Object v = this.array[index + 1];
+            if (k == null) {
+                Node child = ((Node) v).minus(shift + 5, hash, key);
+                if (child == v) {
+                    return this;
+                }
+                if (child != null) {
+                    return new BitmapNode(this.bitmap, PersistentMap.with(this.array, index + 1, child));
+                }
+            } else if (!key.equals(k)) {
+                return this;
+            }
+            if (this.bitmap == bit) {
+                return null;
+            }
+            Object[] newArray = new Object[this.array.length - 2];
+            System.arraycopy(this.array, 0, newArray, 0, index);
+            System.arraycopy(this.array, index + 2, newArray, index, newArray.length - index);
+            return new BitmapNode(this.bitmap ^ bit, newArray);
+        }
+    }
+
+    private static final class CollisionNode extends Node {
+        private final int hash;
+
+        private CollisionNode(int hash, Object[] array) {
+            super(array);
+            this.hash = hash;
+        }
+
+        private int indexOf(@NonNull Object key) {
+            for (int i = 0; i < this.array.length; i += 2) {
+                if (key.equals(this.array[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        @Nullable Object find(@NonNull Object key, int hash, int shift) {
+            if (hash != this.hash) {
+                return null;
+            }
+            int index = this.indexOf(key);
+            return (index < 0) ? null : this.array[index + 1];
+        }
+
+        @Override
+        @NonNull Node plus(int shift, int hash, @NonNull Object key, @NonNull Object value, boolean @NonNull [] added) {
+            if (hash != this.hash) {
+                return new BitmapNode(1 << ((this.hash >>> shift) & 31), new Object[]{null, this}).plus(shift, hash, key, value, added);
+            }
+            int index = this.indexOf(key);
+            if (index >= 0) {
+                return (this.array[index + 1] == value) ? this : new CollisionNode(hash, PersistentMap.with(this.array, index + 1, value));
+            }
+            Object[] newArray = new Object[this.array.length + 2];
+            System.arraycopy(this.array, 0, newArray, 0, this.array.length);
+            newArray[this.array.length] = key;
+            newArray[this.array.length + 1] = value;
+            added[0] = true;
+            return new CollisionNode(hash, newArray);
+        }
+
+        @Override
+        @Nullable Node minus(int shift, int hash, @NonNull Object key) {
+            int index = (hash == this.hash) ? this.indexOf(key) : -1;
+            if (index < 0) {
+                return this;
+            }
+            if (this.array.length == 2) {
+                return null;
+            }
+            Object[] newArray = new Object[this.array.length - 2];
+            System.arraycopy(this.array, 0, newArray, 0, index);
+            System.arraycopy(this.array, index + 2, newArray, index, newArray.length - index);
+            return new CollisionNode(hash, newArray);
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<K, V>> {
+        private final Object[][] arrays = new Object[9][];
+        private final int[] positions = new int[9];
+        private int depth;
+        private Map.@Nullable Entry<K, V> next;
+
+        private EntryIterator() {
+            this.arrays[0] = PersistentMap.this.root.array;
+            this.advance();
+        }
+
+        @SuppressWarnings("unchecked")
+        private void advance() {
+            this.next = null;
+            while (this.depth >= 0) {
+                Object[] array = this.arrays[this.depth];
+                int position = this.positions[this.depth];
+                if (position >= array.length) {
+                    this.depth--;
+                    continue;
+                }
+                this.positions[this.depth] += 2;
+                if (array[position] == null) {
+                    this.depth++;
+                    this.arrays[this.depth] = ((Node) array[position + 1]).array;
+                    this.positions[this.depth] = 0;
+                } else {
+                    this.next = new SimpleImmutableEntry<>((K) array[position], (V) array[position + 1]);
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.next != null;
+        }
+
+        @Override
+        public Map.@NonNull Entry<K, V> next() {
+            Map.Entry<K, V> entry = this.next;
+            if (entry == null) {
+                throw new NoSuchElementException();
+            }
+            this.advance();
+            return entry;
+        }
+    }
+
+    private static final PersistentMap<?, ?> EMPTY = new PersistentMap<>(BitmapNode.EMPTY, 0);
+
+    /**
+     * Gets the empty map.
+     *
+     * @param <K> key type
+     * @param <V> value type
+     * @return empty map
+     */
+    @SuppressWarnings("unchecked")
+    static <K, V> @NonNull PersistentMap<K, V> empty() {
+        return (PersistentMap<K, V>) PersistentMap.EMPTY;
+    }
+
+    private static int hash(@NonNull Object key) {
+        int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    private static Object[] with(Object[] array, int index, @Nullable Object value) {
+        Object[] newArray = array.clone();
+        newArray[index] = value;
+        return newArray;
+    }
+
+    private static @NonNull Node createNode(int shift, @NonNull Object key1, @NonNull Object value1, int hash2, @NonNull Object key2, @NonNull Object value2) {
+        int hash1 = PersistentMap.hash(key1);
+        if (hash1 == hash2) {
+            return new CollisionNode(hash1, new Object[]{key1, value1, key2, value2});
+        }
+        boolean[] added = new boolean[1];
+        return BitmapNode.EMPTY.plus(shift, hash1, key1, value1, added).plus(shift, hash2, key2, value2, added);
+    }
+
+    private final Node root;
+    private final int size;
+    private @Nullable Set<Map.Entry<K, V>> entrySet;
+
+    private PersistentMap(@NonNull Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @Override
+    public boolean containsKey(@Nullable Object key) {
+        return this.get(key) != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public @Nullable V get(@Nullable Object key) {
+        return (key == null) ? null : (V) this.root.find(key, PersistentMap.hash(key), 0);
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public @NonNull Set<Map.Entry<K, V>> entrySet() {
+        if (this.entrySet == null) {
+            this.entrySet = new AbstractSet<>() {
+                @Override
+                public @NonNull Iterator<Map.Entry<K, V>> iterator() {
+                    return new EntryIterator();
+                }
+
+                @Override
+                public int size() {
+                    return PersistentMap.this.size;
+                }
+            };
+        }
+        return this.entrySet;
+    }
+
+    /**
+     * Gets a copy of this map with the given key mapped to the value.
+     *
+     * @param key key
+     * @param value value
+     * @return updated map, or this map if unchanged
+     */
+    @NonNull PersistentMap<K, V> plus(@NonNull K key, @NonNull V value) {
+        Sanity.nullCheck(key, "Key");
+        Sanity.nullCheck(value, "Value");
+        boolean[] added = new boolean[1];
+        Node newRoot = this.root.plus(0, PersistentMap.hash(key), key, value, added);
+        return (newRoot == this.root) ? this : new PersistentMap<>(newRoot, added[0] ? (this.size + 1) : this.size);
+    }
+
+    /**
+     * Gets a copy of this map without the given key.
+     *
+     * @param key key
+     * @return updated map, or this map if unchanged
+     */
+    @NonNull PersistentMap<K, V> minus(@NonNull Object key) {
+        Node newRoot = this.root.minus(0, PersistentMap.hash(Sanity.nullCheck(key, "Key")), key);
+        if (newRoot == this.root) {
+            return this;
+        }
+        return (newRoot == null) ? PersistentMap.empty() : new PersistentMap<>(newRoot, this.size - 1);
+    }
+}
@@ -23,6 +23,8 @@
  */
 package org.kitteh.irc.client.library.defaults.feature.network;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelDuplexHandler;
@@ -31,9 +33,9 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.handler.codec.DelimiterBasedFrameDecoder;
+import io.netty.handler.codec.MessageToByteEncoder;
 import io.netty.handler.codec.MessageToMessageEncoder;
 import io.netty.handler.codec.string.StringDecoder;
-import io.netty.handler.codec.string.StringEncoder;
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslContextBuilder;
 import io.netty.handler.ssl.SslHandler;
@@ -58,6 +60,7 @@ import org.kitteh.irc.client.library.feature.sts.StsClientState;
 import org.kitteh.irc.client.library.feature.sts.StsMachine;
 import org.kitteh.irc.client.library.util.HostWithPort;
 import org.kitteh.irc.client.library.util.Sanity;
+import org.kitteh.irc.client.library.util.ServerLine;
 import org.kitteh.irc.client.library.util.SslUtil;
 import org.kitteh.irc.client.library.util.ToStringer;
 
@@ -70,6 +73,8 @@ import java.security.KeyStore;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
@@ -86,7 +91,9 @@ public final class NettyConnection implements ClientConnection {
 
     private @Nullable ScheduledFuture<?> ping;
 
-    private volatile String lastMessage;
+    private boolean flushPending; // Only touched on the event loop
+
+    private volatile @Nullable ServerLine lastLine;
     private volatile Throwable lastCause;
 
     private boolean alive = true;
@@ -109,7 +116,7 @@ public final class NettyConnection implements ClientConnection {
             if (future.isSuccess()) {
                 this.buildOurFutureTogether();
                 this.client.getEventManager().callEvent(new ClientConnectionEstablishedEvent(this.client));
-                this.client.beginMessageSendingImmediate(this.channel::writeAndFlush);
+                this.client.beginMessageSendingImmediate(this::send);
             } else {
                 NettyConnection.this.alive = false;
                 ClientConnectionFailedEvent event = new ClientConnectionFailedEvent(this.client, this.reconnect, future.cause());
@@ -131,13 +138,19 @@ public final class NettyConnection implements ClientConnection {
                 out.add(msg);
             }
         });
-        this.channel.pipeline().addFirst("[OUTPUT] Add line breaks", new MessageToMessageEncoder<String>() {
+        this.channel.pipeline().addFirst("[OUTPUT] Line encoder", new MessageToByteEncoder<String>() {
             @Override
-            protected void encode(ChannelHandlerContext ctx, String msg, List<Object> out) {
-                out.add(msg + "\r\n");
+            protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, String msg, boolean preferDirect) {
+                return ctx.alloc().ioBuffer(ByteBufUtil.utf8MaxBytes(msg) + 2);
+            }
+
+            @Override
+            protected void encode(ChannelHandlerContext ctx, String msg, ByteBuf out) {
+                ByteBufUtil.writeUtf8(out, msg);
+                out.writeByte('\r');
+                out.writeByte('\n');
             }
         });
-        this.channel.pipeline().addFirst("[OUTPUT] String encoder", new StringEncoder(CharsetUtil.UTF_8));
 
         // Handle timeout
         this.channel.pipeline().addLast("[INPUT] Idle state handler", new IdleStateHandler(250, 0, 0));
@@ -154,18 +167,25 @@ public final class NettyConnection implements ClientConnection {
 
         // Inbound
         this.channel.pipeline().addLast("[INPUT] Line splitter", new DelimiterBasedFrameDecoder(NettyConnection.MAX_LINE_LENGTH, Unpooled.wrappedBuffer(new byte[]{(byte) '\r', (byte) '\n'})));
-        this.channel.pipeline().addLast("[INPUT] String decoder", new StringDecoder(CharsetUtil.UTF_8));
-        this.channel.pipeline().addLast("[INPUT] Send to client", new SimpleChannelInboundHandler<String>() {
-            @Override
-            protected void channelRead0(ChannelHandlerContext ctx, String msg) {
-                if (msg == null) {
-                    return;
+        if (this.client.isBufferLineParsing()) {
+            this.channel.pipeline().addLast("[INPUT] Send to client", new SimpleChannelInboundHandler<ByteBuf>() {
+                @Override
+                protected void channelRead0(ChannelHandlerContext ctx, ByteBuf msg) {
+                    NettyConnection.this.handleLine(ServerLine.of(ByteBufUtil.getBytes(msg)));
                 }
-                NettyConnection.this.client.getInputListener().queue(msg);
-                NettyConnection.this.client.processLine(msg);
-                NettyConnection.this.lastMessage = msg;
-            }
-        });
+            });
+        } else {
+            this.channel.pipeline().addLast("[INPUT] String decoder", new StringDecoder(CharsetUtil.UTF_8));
+            this.channel.pipeline().addLast("[INPUT] Send to client", new SimpleChannelInboundHandler<String>() {
+                @Override
+                protected void channelRead0(ChannelHandlerContext ctx, String msg) {
+                    if (msg == null) {
+                        return;
+                    }
+                    NettyConnection.this.handleLine(ServerLine.of(msg));
+                }
+            });
+        }
 
         // TLS
         if (this.client.isSecureConnection()) {
@@ -227,7 +247,8 @@ public final class NettyConnection implements ClientConnection {
             NettyConnection.this.alive = false;
             ClientConnectionEndedEvent event;
             if (this.lastCause == null) {
-                event = new ClientConnectionClosedEvent(this.client, this.reconnect, future.cause(), this.lastMessage);
+                ServerLine last = this.lastLine;
+                event = new ClientConnectionClosedEvent(this.client, this.reconnect, future.cause(), (last == null) ? null : last.getMessage());
             } else {
                 event = new ClientConnectionFailedEvent(this.client, this.reconnect, this.lastCause);
             }
@@ -238,6 +259,14 @@ public final class NettyConnection implements ClientConnection {
         });
     }
 
+    private void handleLine(@NonNull ServerLine line) {
+        if (this.client.getInputListener().hasConsumer()) {
+            this.client.getInputListener().queue(line.getMessage());
+        }
+        this.client.processLine(line);
+        this.lastLine = line;
+    }
+
     @SuppressWarnings("resource")
     private void scheduleReconnect(int delay) {
         NettyConnection.this.channel.eventLoop().schedule(NettyConnection.this.client::connect, delay, TimeUnit.MILLISECONDS);
@@ -250,11 +279,35 @@ public final class NettyConnection implements ClientConnection {
         }
     }
 
+    /**
+     * Writes a line, flushing once after all lines written in the same
+     * event loop tick.
+     *
+     * @param line line to send
+     */
+    private void send(@NonNull String line) {
+        this.channel.eventLoop().execute(() -> {
+            this.channel.write(line);
+            if (!this.flushPending) {
+                this.flushPending = true;
+                this.channel.eventLoop().execute(() -> {
+                    this.flushPending = false;
+                    this.channel.flush();
+                });
+            }
+        });
+    }
+
     @Override
     public boolean isAlive() {
         return this.alive;
     }
 
+    @Override
+    public @NonNull Optional<ScheduledExecutorService> getScheduler() {
+        return Optional.of(this.channel.eventLoop());
+    }
+
     @SuppressWarnings("resource")
     @Override
     public void startPing() {
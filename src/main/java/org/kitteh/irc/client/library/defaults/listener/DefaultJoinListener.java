@@ -31,6 +31,7 @@ import org.kitteh.irc.client.library.element.User;
 import org.kitteh.irc.client.library.event.channel.ChannelJoinEvent;
 import org.kitteh.irc.client.library.event.channel.RequestedChannelJoinCompleteEvent;
 import org.kitteh.irc.client.library.event.client.ClientReceiveCommandEvent;
+import org.kitteh.irc.client.library.feature.ActorTracker;
 import org.kitteh.irc.client.library.feature.filter.CommandFilter;
 
 import java.util.HashSet;
@@ -82,9 +83,12 @@ public class DefaultJoinListener extends AbstractDefaultListenerBase {
         }
         ChannelJoinEvent joinEvent = null;
         if (user.getNick().equals(this.getClient().getNick())) {
-            if (this.getClient().getActorTracker().shouldQueryChannelInformation()) {
+            ActorTracker.TrackingLevel level = this.getTracker().getChannelTrackingLevel(channelName);
+            if (this.getTracker().shouldQueryChannelInformation() && (level != ActorTracker.TrackingLevel.NONE)) {
                 this.getClient().sendRawLine("MODE " + channelName);
-                this.getClient().sendRawLine("WHO " + channelName + (this.getClient().getServerInfo().hasWhoXSupport() ? " %cuhsnfar" : ""));
+                if (level == ActorTracker.TrackingLevel.FULL) {
+                    this.getClient().sendRawLine("WHO " + channelName + (this.getClient().getServerInfo().hasWhoXSupport() ? " %cuhsnfar" : ""));
+                }
             }
             if (this.getClient().getIntendedChannels().contains(channelName)) {
                 joinEvent = new RequestedChannelJoinCompleteEvent(this.getClient(), event.getSource(), channel, user);
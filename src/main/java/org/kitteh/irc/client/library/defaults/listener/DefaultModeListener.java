@@ -39,7 +39,6 @@ import org.kitteh.irc.client.library.event.client.ClientReceiveNumericEvent;
 import org.kitteh.irc.client.library.event.user.UserModeEvent;
 import org.kitteh.irc.client.library.feature.filter.CommandFilter;
 import org.kitteh.irc.client.library.feature.filter.NumericFilter;
-import org.kitteh.irc.client.library.util.StringUtil;
 
 import java.time.Instant;
 
@@ -70,7 +69,7 @@ public class DefaultModeListener extends AbstractDefaultListenerBase {
         }
         ModeStatusList<ChannelMode> statusList;
         try {
-            statusList = DefaultModeStatusList.fromChannel(this.getClient(), StringUtil.combineSplit(event.getParameters().toArray(new String[0]), 2));
+            statusList = DefaultModeStatusList.fromChannel(this.getClient(), event.getParameters(), 2);
         } catch (IllegalArgumentException e) {
             this.trackException(event, e.getMessage());
             return;
@@ -89,7 +88,7 @@ public class DefaultModeListener extends AbstractDefaultListenerBase {
         if (messageTargetInfo instanceof MessageTargetInfo.Private) {
             ModeStatusList<UserMode> statusList;
             try {
-                statusList = DefaultModeStatusList.fromUser(this.getClient(), StringUtil.combineSplit(event.getParameters().toArray(new String[0]), 1));
+                statusList = DefaultModeStatusList.fromUser(this.getClient(), event.getParameters(), 1);
             } catch (IllegalArgumentException e) {
                 this.trackException(event, e.getMessage());
                 return;
@@ -100,17 +99,19 @@ public class DefaultModeListener extends AbstractDefaultListenerBase {
             Channel channel = ((MessageTargetInfo.ChannelInfo) messageTargetInfo).getChannel();
             ModeStatusList<ChannelMode> statusList;
             try {
-                statusList = DefaultModeStatusList.fromChannel(this.getClient(), StringUtil.combineSplit(event.getParameters().toArray(new String[0]), 1));
+                statusList = DefaultModeStatusList.fromChannel(this.getClient(), event.getParameters(), 1);
             } catch (IllegalArgumentException e) {
                 this.trackException(event, e.getMessage());
                 return;
             }
             this.fire(new ChannelModeEvent(this.getClient(), event.getSource(), event.getActor(), channel, statusList));
-            statusList.getAll().stream()
-                    .filter(status -> status.getMode().getType() == ChannelMode.Type.A_MASK)
-                    .forEach(status -> this.getTracker().trackChannelModeInfo(channel.getName(), status.getAction() == ModeStatus.Action.ADD,
-                            new DefaultModeInfo(this.getClient(), channel, status.getMode(), status.getParameter().get(), event.getActor().getName(), Instant.now())
-                    ));
+            Instant now = Instant.now();
+            for (ModeStatus<ChannelMode> status : statusList.getAll()) {
+                if (status.getMode().getType() == ChannelMode.Type.A_MASK) {
+                    this.getTracker().trackChannelModeInfo(channel.getName(), status.getAction() == ModeStatus.Action.ADD,
+                            new DefaultModeInfo(this.getClient(), channel, status.getMode(), status.getParameter().get(), event.getActor().getName(), now));
+                }
+            }
             this.getTracker().updateChannelModes(channel.getName(), statusList);
         } else {
             this.trackException(event, "MODE message sent for invalid target");
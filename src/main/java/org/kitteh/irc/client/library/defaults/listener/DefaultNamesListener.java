@@ -31,6 +31,8 @@ import org.kitteh.irc.client.library.element.ServerMessage;
 import org.kitteh.irc.client.library.element.mode.ChannelUserMode;
 import org.kitteh.irc.client.library.event.channel.ChannelNamesUpdatedEvent;
 import org.kitteh.irc.client.library.event.client.ClientReceiveNumericEvent;
+import org.kitteh.irc.client.library.feature.ActorTracker;
+import org.kitteh.irc.client.library.feature.ServerInfo;
 import org.kitteh.irc.client.library.feature.filter.NumericFilter;
 
 import java.util.ArrayList;
@@ -61,21 +63,20 @@ public class DefaultNamesListener extends AbstractDefaultListenerBase {
             this.trackException(event, "NAMES response too short");
             return;
         }
-        Optional<Channel> channel = this.getTracker().getChannel(event.getParameters().get(2));
-        if (channel.isEmpty()) {
+        String channelName = event.getParameters().get(2);
+        if (!this.getTracker().ensureChannel(channelName)) {
             this.trackException(event, "NAMES response sent for invalid channel name");
             return;
         }
-        List<ChannelUserMode> channelUserModes = this.getClient().getServerInfo().getChannelUserModes();
+        ServerInfo serverInfo = this.getClient().getServerInfo();
         for (String combo : event.getParameters().get(3).split(" ")) {
             Set<ChannelUserMode> modes = new HashSet<>();
             for (int i = 0; i < combo.length(); i++) {
-                char c = combo.charAt(i);
-                Optional<ChannelUserMode> mode = channelUserModes.stream().filter(userMode -> userMode.getNickPrefix() == c).findFirst();
+                Optional<ChannelUserMode> mode = serverInfo.getChannelUserModeByPrefix(combo.charAt(i));
                 if (mode.isPresent()) {
                     modes.add(mode.get());
                 } else {
-                    this.getTracker().trackChannelNick(channel.get().getName(), combo.substring(i), modes);
+                    this.getTracker().trackChannelNick(channelName, combo.substring(i), modes);
                     break;
                 }
             }
@@ -90,7 +91,11 @@ public class DefaultNamesListener extends AbstractDefaultListenerBase {
             this.trackException(event, "NAMES response too short");
             return;
         }
-        Optional<Channel> channel = this.getTracker().getChannel(event.getParameters().get(1));
+        String channelName = event.getParameters().get(1);
+        if (this.getTracker().getChannelTrackingLevel(channelName) == ActorTracker.TrackingLevel.NAMES) { // No WHO to complete the list
+            this.getTracker().setChannelListReceived(channelName);
+        }
+        Optional<Channel> channel = this.getTracker().getChannel(channelName);
         if (channel.isEmpty()) {
             this.trackException(event, "NAMES response sent for invalid channel name");
             return;
@@ -31,7 +31,6 @@ import org.kitteh.irc.client.library.element.mode.ModeStatusList;
 import org.kitteh.irc.client.library.element.mode.UserMode;
 import org.kitteh.irc.client.library.event.client.ClientReceiveNumericEvent;
 import org.kitteh.irc.client.library.feature.filter.NumericFilter;
-import org.kitteh.irc.client.library.util.StringUtil;
 
 /**
  * Default UMODE listener, producing events using default classes.
@@ -60,7 +59,7 @@ public class DefaultUserModeListener extends AbstractDefaultListenerBase {
         }
         ModeStatusList<UserMode> modes;
         try {
-            modes = DefaultModeStatusList.fromUser(this.getClient(), StringUtil.combineSplit(event.getParameters().toArray(new String[0]), 1));
+            modes = DefaultModeStatusList.fromUser(this.getClient(), event.getParameters(), 1);
         } catch (IllegalArgumentException e) {
             this.trackException(event, e.getMessage());
             return;
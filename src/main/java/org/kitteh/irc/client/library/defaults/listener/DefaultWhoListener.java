@@ -63,8 +63,8 @@ public class DefaultWhoListener extends AbstractDefaultListenerBase {
             this.trackException(event, "WHO response too short");
             return;
         }
-        final Optional<Channel> channel = this.getTracker().getChannel(event.getParameters().get(1));
-        channel.ifPresent(ch -> {
+        final String channelName = event.getParameters().get(1);
+        if (this.getTracker().ensureChannel(channelName)) {
             final String ident = event.getParameters().get(2);
             final String host = event.getParameters().get(3);
             final String server = event.getParameters().get(4);
@@ -96,16 +96,11 @@ public class DefaultWhoListener extends AbstractDefaultListenerBase {
                     this.getTracker().setUserOperString(nick, "*");
                     continue;
                 }
-                for (ChannelUserMode mode : this.getClient().getServerInfo().getChannelUserModes()) {
-                    if (mode.getNickPrefix() == prefix) {
-                        modes.add(mode);
-                        break;
-                    }
-                }
+                this.getClient().getServerInfo().getChannelUserModeByPrefix(prefix).ifPresent(modes::add);
             }
-            this.getTracker().trackChannelUser(ch.getName(), user, modes);
+            this.getTracker().trackChannelUser(channelName, user, modes);
             this.whoMessages.add(event.getServerMessage());
-        }); // No else, server might send other WHO information about non-channels.
+        } // No else, server might send other WHO information about non-channels.
     }
 
     @NumericFilter(315) // WHO completed
@@ -28,6 +28,7 @@ import org.kitteh.irc.client.library.Client;
 import org.kitteh.irc.client.library.command.ChannelModeCommand;
 import org.kitteh.irc.client.library.command.Command;
 import org.kitteh.irc.client.library.command.KickCommand;
+import org.kitteh.irc.client.library.command.ModerationCommand;
 import org.kitteh.irc.client.library.command.TopicCommand;
 import org.kitteh.irc.client.library.element.mode.ChannelMode;
 import org.kitteh.irc.client.library.element.mode.ChannelUserMode;
@@ -36,12 +37,14 @@ import org.kitteh.irc.client.library.element.mode.ModeStatusList;
 import org.kitteh.irc.client.library.event.channel.ChannelModeInfoListEvent;
 import org.kitteh.irc.client.library.event.channel.ChannelUsersUpdatedEvent;
 import org.kitteh.irc.client.library.event.channel.RequestedChannelJoinCompleteEvent;
+import org.kitteh.irc.client.library.util.Mask;
 import org.kitteh.irc.client.library.util.Sanity;
 
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.SortedSet;
+import java.util.stream.Collectors;
 
 /**
  * Represents an IRC channel.
@@ -65,6 +68,13 @@ public interface Channel extends MessageReceiver, Staleable {
          */
         @NonNull KickCommand kick();
 
+        /**
+         * Provides a new bulk moderation command.
+         *
+         * @return new moderation command
+         */
+        @NonNull ModerationCommand moderation();
+
         /**
          * Provides a new TOPIC command.
          *
@@ -118,6 +128,21 @@ public interface Channel extends MessageReceiver, Staleable {
      */
     @NonNull Optional<List<ModeInfo>> getModeInfoList(@NonNull ChannelMode mode);
 
+    /**
+     * Gets the tracked mode info for the channel whose masks match a user,
+     * such as the bans affecting them.
+     *
+     * @param user user to match
+     * @param mode type A mode to check
+     * @return matching mode info if tracked, empty if not tracked
+     * @throws IllegalArgumentException for null or non-type-A mode
+     * @see Mask#matches(User)
+     */
+    default @NonNull Optional<List<ModeInfo>> getMatchingModeInfo(@NonNull User user, @NonNull ChannelMode mode) {
+        Sanity.nullCheck(user, "User");
+        return this.getModeInfoList(mode).map(list -> list.stream().filter(info -> info.getMask().matches(user)).collect(Collectors.toList()));
+    }
+
     /**
      * Gets the channel's current known modes.
      *
@@ -95,6 +95,6 @@ public interface ChannelMode extends Mode {
      * @return the mode, if present
      */
     static @NonNull Optional<ChannelMode> get(@NonNull Client client, char mode) {
-        return client.getServerInfo().getChannelModes().stream().filter(m -> m.getChar() == mode).findFirst();
+        return client.getServerInfo().getChannelMode(mode);
     }
 }
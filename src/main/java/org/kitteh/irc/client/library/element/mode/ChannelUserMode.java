@@ -52,6 +52,6 @@ public interface ChannelUserMode extends ChannelMode {
      * @return the mode, if present
      */
     static @NonNull Optional<ChannelUserMode> get(@NonNull Client client, char mode) {
-        return client.getServerInfo().getChannelUserModes().stream().filter(m -> m.getChar() == mode).findFirst();
+        return client.getServerInfo().getChannelUserMode(mode);
     }
 }
@@ -40,6 +40,6 @@ public interface UserMode extends Mode {
      * @return the mode, if present
      */
     static @NonNull Optional<UserMode> get(@NonNull Client client, char mode) {
-        return client.getServerInfo().getUserModes().stream().filter(m -> m.getChar() == mode).findFirst();
+        return client.getServerInfo().getUserMode(mode);
     }
 }
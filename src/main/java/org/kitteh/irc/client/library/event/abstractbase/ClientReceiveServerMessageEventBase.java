@@ -30,6 +30,7 @@ import org.kitteh.irc.client.library.element.MessageTag;
 import org.kitteh.irc.client.library.element.ServerMessage;
 import org.kitteh.irc.client.library.event.helper.ClientReceiveServerMessageEvent;
 import org.kitteh.irc.client.library.util.Sanity;
+import org.kitteh.irc.client.library.util.ServerLine;
 import org.kitteh.irc.client.library.util.ToStringer;
 
 import java.util.List;
@@ -54,7 +55,9 @@ public class ClientReceiveServerMessageEventBase extends ActorEventBase<Actor> i
      */
     public ClientReceiveServerMessageEventBase(@NonNull Client client, @NonNull ServerMessage serverMessage, @NonNull Actor server, @NonNull String command, @NonNull List<String> parameters) {
         super(client, Sanity.nullCheck(serverMessage, "Server message"), server);
-        this.parameters = List.copyOf(Sanity.nullCheck(parameters, "Parameters"));
+        Sanity.nullCheck(parameters, "Parameters");
+        // Already read-only, and copying would decode every parameter up front
+        this.parameters = (parameters instanceof ServerLine.Parameters) ? parameters : List.copyOf(parameters);
         this.message = serverMessage;
         this.command = Sanity.nullCheck(command, "Command");
     }
@@ -43,6 +43,40 @@ import java.util.Set;
  * Tracker of users and channels, provider of all actors.
  */
 public interface ActorTracker extends Resettable {
+    /**
+     * How much is tracked about a channel's members.
+     */
+    enum TrackingLevel {
+        /**
+         * No members are tracked. The channel itself, its modes and topic
+         * still are.
+         */
+        NONE,
+        /**
+         * Member nicknames and their channel user modes are tracked, without
+         * user information or WHO queries. Users seen only in such channels
+         * are not tracked.
+         */
+        NAMES,
+        /**
+         * Members and their user information are tracked, querying the
+         * channel with WHO. The default.
+         */
+        FULL
+    }
+
+    /**
+     * Makes sure a channel is known to the tracker, whether or not it is
+     * joined, so that replies listing its members are kept. Unlike {@link
+     * #getChannel(String)}, this need not build a snapshot.
+     *
+     * @param channel channel name
+     * @return true if a valid channel name
+     */
+    default boolean ensureChannel(@NonNull String channel) {
+        return this.getChannel(channel).isPresent();
+    }
+
     /**
      * Gets an Actor based on the name provided.
      * <p>
@@ -62,6 +96,16 @@ public interface ActorTracker extends Resettable {
      */
     @NonNull Optional<Channel> getChannel(@NonNull String channel);
 
+    /**
+     * Gets the level of tracking for a channel.
+     *
+     * @param channel channel name
+     * @return tracking level, {@link TrackingLevel#FULL} unless set otherwise
+     */
+    default @NonNull TrackingLevel getChannelTrackingLevel(@NonNull String channel) {
+        return TrackingLevel.FULL;
+    }
+
     /**
      * Gets a tracked channel.
      *
@@ -100,6 +144,20 @@ public interface ActorTracker extends Resettable {
      */
     void setChannelListReceived(@NonNull String channel);
 
+    /**
+     * Sets the level of tracking for a channel, whether or not it is
+     * currently joined. Lowering the level immediately drops what is no
+     * longer tracked, while raising it queries the channel again.
+     * <p>
+     * By default this is not supported and does nothing, so the level stays
+     * {@link TrackingLevel#FULL}.
+     *
+     * @param channel channel name
+     * @param level tracking level
+     */
+    default void setChannelTrackingLevel(@NonNull String channel, @NonNull TrackingLevel level) {
+    }
+
     /**
      * Sets a channel's mode info list for a given mode, such as bans.
      *
@@ -49,6 +49,38 @@ public interface CaseMapping {
             }
             return new String(arr);
         }
+
+        @Override
+        public boolean areEqualIgnoringCase(String one, String two) {
+            Sanity.nullCheck(one, "Input");
+            Sanity.nullCheck(two, "Input");
+            int length = one.length();
+            if (length != two.length()) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                char a = one.charAt(i);
+                char b = two.charAt(i);
+                if ((a != b) && (this.toLowerCase(a) != this.toLowerCase(b))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCodeIgnoringCase(String input) {
+            Sanity.nullCheck(input, "Input");
+            int hash = 0;
+            for (int i = 0; i < input.length(); i++) {
+                hash = (31 * hash) + this.toLowerCase(input.charAt(i));
+            }
+            return hash;
+        }
+
+        private char toLowerCase(char c) {
+            return ((c >= 'A') && (c <= this.upperbound)) ? (char) (c + 32) : c;
+        }
     }
 
     /**
@@ -68,6 +100,18 @@ public interface CaseMapping {
         return this.toLowerCase(one).equals(this.toLowerCase(two));
     }
 
+    /**
+     * Gets a hash code for a String, equal to that of its lowercased form
+     * per spec.
+     *
+     * @param input string to hash
+     * @return hash code of the lowercased string
+     * @throws IllegalArgumentException if input is null
+     */
+    default int hashCodeIgnoringCase(String input) {
+        return this.toLowerCase(input).hashCode();
+    }
+
     /**
      * Converts a given String to lowercase per spec.
      *
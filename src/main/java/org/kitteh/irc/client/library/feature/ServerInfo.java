@@ -28,12 +28,15 @@ import org.kitteh.irc.client.library.element.ISupportParameter;
 import org.kitteh.irc.client.library.element.mode.ChannelMode;
 import org.kitteh.irc.client.library.element.mode.ChannelUserMode;
 import org.kitteh.irc.client.library.element.mode.UserMode;
+import org.kitteh.irc.client.library.util.ChannelNameValidator;
+import org.kitteh.irc.client.library.util.Pair;
 import org.kitteh.irc.client.library.util.Sanity;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
 
 /**
  * Provides information about the server to which the client is connected.
@@ -171,6 +174,16 @@ public interface ServerInfo {
      */
     @NonNull List<ChannelMode> getChannelModes();
 
+    /**
+     * Gets a validator for channel names according to the available server
+     * information.
+     *
+     * @return channel name validator
+     */
+    default @NonNull ChannelNameValidator getChannelNameValidator() {
+        return ChannelNameValidator.of(this.getChannelPrefixes(), this.getChannelLengthLimit());
+    }
+
     /**
      * Gets the list of accepted channel prefixes. If the server has not
      * provided this information all four listed in the IRC spec are
@@ -190,6 +203,17 @@ public interface ServerInfo {
         return this.getChannelUserModes().stream().filter(channelUserMode -> channelUserMode.getChar() == character).findFirst();
     }
 
+    /**
+     * Gets a channel user mode by the nickname prefix it displays, such as
+     * {@literal @} for op.
+     *
+     * @param prefix nickname prefix to match
+     * @return the found channel user mode if present
+     */
+    default @NonNull Optional<ChannelUserMode> getChannelUserModeByPrefix(char prefix) {
+        return this.getChannelUserModes().stream().filter(channelUserMode -> channelUserMode.getNickPrefix() == prefix).findFirst();
+    }
+
     /**
      * Gets the list of accepted channel user modes, such as op. Modes are
      * listed from most powerful to least powerful. If the server has not
@@ -270,6 +294,33 @@ public interface ServerInfo {
         return optional.map(ISupportParameter.IntegerParameter::getInteger).orElse(-1);
     }
 
+    /**
+     * Gets the maximum number of comma-separated targets the server accepts
+     * in one command, according to TARGMAX. For PRIVMSG and NOTICE, servers
+     * sending MAXTARGETS instead of TARGMAX have that limit used.
+     *
+     * @param command command, such as KICK
+     * @return target limit, 1 if not listed or {@link Integer#MAX_VALUE} if
+     * listed without a limit
+     */
+    default int getTargetLimit(@NonNull String command) {
+        Sanity.nullCheck(command, "Command");
+        Optional<ISupportParameter.TargMax> optional = this.getISupportParameter(ISupportParameter.TargMax.NAME, ISupportParameter.TargMax.class);
+        if (optional.isPresent()) {
+            for (Pair<String, OptionalInt> entry : optional.get().getEntries()) {
+                if (command.equalsIgnoreCase(entry.getLeft())) {
+                    return entry.getRight().orElse(Integer.MAX_VALUE);
+                }
+            }
+        } else if ("PRIVMSG".equalsIgnoreCase(command) || "NOTICE".equalsIgnoreCase(command)) {
+            Optional<ISupportParameter.MaxTargets> maxTargets = this.getISupportParameter(ISupportParameter.MaxTargets.NAME, ISupportParameter.MaxTargets.class);
+            if (maxTargets.isPresent()) {
+                return maxTargets.get().getInteger().orElse(Integer.MAX_VALUE);
+            }
+        }
+        return 1;
+    }
+
     /**
      * Gets the maximum length of topics.
      *
@@ -280,6 +331,16 @@ public interface ServerInfo {
         return optional.map(ISupportParameter.IntegerParameter::getInteger).orElse(-1);
     }
 
+    /**
+     * Gets a user mode by specified character.
+     *
+     * @param character character to match
+     * @return the found user mode if present
+     */
+    default @NonNull Optional<UserMode> getUserMode(char character) {
+        return this.getUserModes().stream().filter(userMode -> userMode.getChar() == character).findFirst();
+    }
+
     /**
      * Gets the user modes available. If the server has not provided
      * information on user modes, defaults are used and returned here.
@@ -23,9 +23,13 @@
  */
 package org.kitteh.irc.client.library.feature.network;
 
+import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.Nullable;
 import org.kitteh.irc.client.library.feature.defaultmessage.DefaultMessageType;
 
+import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+
 /**
  * A connection by a client.
  */
@@ -37,6 +41,18 @@ public interface ClientConnection {
      */
     boolean isAlive();
 
+    /**
+     * Gets a scheduler tied to this connection, such as the event loop
+     * handling it, on which tasks for this connection can be timed.
+     * <p>
+     * By default, no scheduler is offered.
+     *
+     * @return scheduler if present
+     */
+    default @NonNull Optional<ScheduledExecutorService> getScheduler() {
+        return Optional.empty();
+    }
+
     /**
      * Starts sending pings.
      */
@@ -0,0 +1,221 @@
+/*
+ * * Copyright (C) 2013-2025 Matt Baxter https://kitteh.org
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS
+ * BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN
+ * ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.kitteh.irc.client.library.feature.sending;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.kitteh.irc.client.library.Client;
+import org.kitteh.irc.client.library.util.Sanity;
+import org.kitteh.irc.client.library.util.ToStringer;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A {@link MessageSendingQueue} using a single set delay, which holds no
+ * thread of its own. Each release is scheduled on the scheduler offered by
+ * the connection, such as its Netty event loop.
+ * <p>
+ * If no scheduler is offered, a shared fallback scheduler thread is used.
+ */
+public class EventLoopDelaySender implements MessageSendingQueue {
+    private static final class FallbackScheduler {
+        private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "KICL Event Loop Delay Sender Fallback");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Gets a delay supplier with a set delay of milliseconds.
+     *
+     * @param delay delay to set in milliseconds
+     * @return supplier
+     */
+    public static Function<Client.WithManagement, EventLoopDelaySender> getSupplier(int delay) {
+        return client -> new EventLoopDelaySender(client, "EventLoopDelay " + delay, delay);
+    }
+
+    private final Client client;
+    private final String name;
+    private final Queue<String> queue = new ConcurrentLinkedQueue<>();
+    private final Map<String, Integer> pending = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+    private volatile long delayNanos;
+    private long last = System.nanoTime();
+    private @Nullable Consumer<String> consumer;
+    private @Nullable ScheduledExecutorService scheduler;
+    private @Nullable ScheduledFuture<?> scheduled;
+    private int generation;
+    private boolean paused = true;
+    private boolean shutdown;
+
+    /**
+     * Constructs the sending queue.
+     *
+     * @param client the client
+     * @param name name of this sending queue
+     * @param delay initial delay in milliseconds
+     */
+    public EventLoopDelaySender(@NonNull Client client, @NonNull String name, int delay) {
+        this.client = Sanity.nullCheck(client, "Client");
+        this.name = Sanity.nullCheck(name, "Name");
+        this.delayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, delay));
+    }
+
+    @Override
+    public void beginSending(@NonNull Consumer<String> consumer) {
+        synchronized (this.lock) {
+            this.begin(consumer, (this.scheduler == null) ? FallbackScheduler.SCHEDULER : this.scheduler);
+        }
+    }
+
+    @Override
+    public void beginSending(@NonNull Consumer<String> consumer, @NonNull ScheduledExecutorService scheduler) {
+        synchronized (this.lock) {
+            this.begin(consumer, Sanity.nullCheck(scheduler, "Scheduler"));
+        }
+    }
+
+    private void begin(@NonNull Consumer<String> consumer, @NonNull ScheduledExecutorService scheduler) {
+        this.consumer = Sanity.nullCheck(consumer, "Consumer");
+        if (this.scheduler != scheduler) {
+            this.cancel();
+            this.scheduler = scheduler;
+        }
+        this.paused = false;
+        this.scheduleNext();
+    }
+
+    @Override
+    public boolean contains(@NonNull String message) {
+        return this.pending.containsKey(Sanity.nullCheck(message, "Message"));
+    }
+
+    @Override
+    public @NonNull Optional<Consumer<String>> getConsumer() {
+        return Optional.ofNullable(this.consumer);
+    }
+
+    @Override
+    public void pause() {
+        synchronized (this.lock) {
+            this.paused = true;
+            this.cancel();
+        }
+    }
+
+    @Override
+    public void queue(@NonNull String message) {
+        this.pending.merge(Sanity.nullCheck(message, "Message"), 1, Integer::sum);
+        this.queue.add(message);
+        synchronized (this.lock) {
+            this.scheduleNext();
+        }
+    }
+
+    @Override
+    public @NonNull Queue<String> shutdown() {
+        synchronized (this.lock) {
+            this.shutdown = true;
+            this.cancel();
+            return new ArrayDeque<>(this.queue);
+        }
+    }
+
+    /**
+     * Gets the client.
+     *
+     * @return the client
+     */
+    protected @NonNull Client getClient() {
+        return this.client;
+    }
+
+    /**
+     * Sets the delay for subsequent messages.
+     *
+     * @param delay the new delay in milliseconds
+     */
+    public void setDelay(int delay) {
+        this.delayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, delay));
+    }
+
+    private void cancel() {
+        if (this.scheduled != null) {
+            this.scheduled.cancel(false);
+            this.scheduled = null;
+            this.generation++;
+        }
+    }
+
+    private void scheduleNext() {
+        if (this.shutdown || this.paused || (this.scheduled != null) || (this.scheduler == null) || this.queue.isEmpty()) {
+            return;
+        }
+        long wait = Math.max(0, this.delayNanos - (System.nanoTime() - this.last));
+        int currentGeneration = this.generation;
+        try {
+            this.scheduled = this.scheduler.schedule(() -> this.release(currentGeneration), wait, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException ignored) {
+            // Event loop is going away, resume upon the next beginSending
+        }
+    }
+
+    private void release(int scheduledGeneration) {
+        synchronized (this.lock) {
+            if (scheduledGeneration != this.generation) {
+                return; // Cancelled while waiting for the lock
+            }
+            this.scheduled = null;
+            if (this.shutdown || this.paused || (this.consumer == null)) {
+                return;
+            }
+            String message = this.queue.poll();
+            if (message != null) {
+                this.pending.computeIfPresent(message, (line, count) -> (count == 1) ? null : (count - 1));
+                this.last = System.nanoTime();
+                this.consumer.accept(message);
+            }
+            this.scheduleNext();
+        }
+    }
+
+    @Override
+    public @NonNull String toString() {
+        return new ToStringer(this).add("name", this.name).add("client", this.client).toString();
+    }
+}
@@ -27,6 +27,7 @@ import org.jspecify.annotations.NonNull;
 
 import java.util.Optional;
 import java.util.Queue;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Consumer;
 
 /**
@@ -41,7 +42,23 @@ public interface MessageSendingQueue {
     void beginSending(@NonNull Consumer<String> consumer);
 
     /**
-     * Gets if the queue currently has within it a particular message.
+     * Starts sending messages to the given consumer, offering a scheduler
+     * tied to the current connection on which sends may be timed.
+     * <p>
+     * By default, the scheduler is ignored.
+     *
+     * @param consumer the consumer to consume
+     * @param scheduler the connection's scheduler
+     * @see EventLoopDelaySender
+     */
+    default void beginSending(@NonNull Consumer<String> consumer, @NonNull ScheduledExecutorService scheduler) {
+        this.beginSending(consumer);
+    }
+
+    /**
+     * Gets if the queue currently has within it a particular message. This
+     * is checked for every line sent avoiding duplication, and so should not
+     * scan the queue.
      *
      * @param message the message to check for
      * @return true if the message is not yet sent
@@ -28,8 +28,13 @@ import org.kitteh.irc.client.library.Client;
 import org.kitteh.irc.client.library.util.QueueProcessingThread;
 import org.kitteh.irc.client.library.util.Sanity;
 
+import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 
 /**
@@ -37,9 +42,11 @@ import java.util.function.Consumer;
  */
 public class QueueProcessingThreadSender extends QueueProcessingThread<String> implements MessageSendingQueue {
     private final Client client;
+    private final Map<String, Integer> pending = new ConcurrentHashMap<>();
     private Consumer<String> consumer = string -> {
     };
-    private final Object sendingLock = new Object();
+    private final Lock sendingLock = new ReentrantLock();
+    private final Condition sendingResumed = this.sendingLock.newCondition();
     private volatile boolean waiting = true;
 
     /**
@@ -49,24 +56,30 @@ public class QueueProcessingThreadSender extends QueueProcessingThread<String> i
      * @param name name of this sending queue
      */
     public QueueProcessingThreadSender(@NonNull Client client, @NonNull String name) {
-        super("KICL " + Sanity.nullCheck(name, "Name") + " Sending Queue (" + Sanity.nullCheck(client, "Client").getName() + ')');
+        super("KICL " + Sanity.nullCheck(name, "Name") + " Sending Queue (" + Sanity.nullCheck(client, "Client").getName() + ')',
+                (client instanceof Client.WithManagement) && ((Client.WithManagement) client).isVirtualThreads());
         this.client = client;
     }
 
     @Override
     protected void processElement(@NonNull String message) {
         Sanity.nullCheck(message, "Message");
-        synchronized (this.sendingLock) {
-            if (this.waiting) {
+        this.pending.computeIfPresent(message, (line, count) -> (count == 1) ? null : (count - 1));
+        this.sendingLock.lock();
+        try {
+            while (this.waiting) {
                 try {
-                    this.sendingLock.wait();
+                    this.sendingResumed.await();
                 } catch (InterruptedException e) {
+                    this.interrupt();
                     return;
                 }
             }
             if (this.checkReady(message)) {
                 this.consumer.accept(message);
             }
+        } finally {
+            this.sendingLock.unlock();
         }
     }
 
@@ -83,7 +96,26 @@ public class QueueProcessingThreadSender extends QueueProcessingThread<String> i
 
     @Override
     protected final void cleanup(@NonNull Queue<String> remainingQueue) {
-        // NOOP - Nothing to do about these missed messages but cry
+        // Nothing to do about these missed messages but cry
+        this.pending.clear();
+    }
+
+    /**
+     * Gets if the queue contains a specified message. Queued messages are
+     * counted as they are queued and taken, so this does not scan the queue.
+     *
+     * @param message the message
+     * @return true if the message is in the queue
+     */
+    @Override
+    public boolean contains(@NonNull String message) {
+        return this.pending.containsKey(Sanity.nullCheck(message, "Message"));
+    }
+
+    @Override
+    public void queue(@NonNull String message) {
+        this.pending.merge(Sanity.nullCheck(message, "Message"), 1, Integer::sum);
+        super.queue(message);
     }
 
     /**
@@ -98,10 +130,13 @@ public class QueueProcessingThreadSender extends QueueProcessingThread<String> i
     @Override
     public void beginSending(@NonNull Consumer<String> consumer) {
         Sanity.nullCheck(consumer, "Consumer");
-        synchronized (this.sendingLock) {
+        this.sendingLock.lock();
+        try {
             this.consumer = consumer;
             this.waiting = false;
-            this.sendingLock.notify();
+            this.sendingResumed.signal();
+        } finally {
+            this.sendingLock.unlock();
         }
     }
 
@@ -112,17 +147,22 @@ public class QueueProcessingThreadSender extends QueueProcessingThread<String> i
 
     @Override
     public void pause() {
-        synchronized (this.sendingLock) {
+        this.sendingLock.lock();
+        try {
             this.waiting = true;
+        } finally {
+            this.sendingLock.unlock();
         }
     }
 
     @Override
     public @NonNull Queue<String> shutdown() {
-        synchronized (this.sendingLock) {
+        this.sendingLock.lock();
+        try {
             this.interrupt();
-            this.sendingLock.notify();
             return this.getQueue();
+        } finally {
+            this.sendingLock.unlock();
         }
     }
 }
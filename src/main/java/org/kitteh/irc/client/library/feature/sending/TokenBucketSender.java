@@ -0,0 +1,213 @@
+/*
+ * * Copyright (C) 2013-2025 Matt Baxter https://kitteh.org
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS
+ * BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN
+ * ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.kitteh.irc.client.library.feature.sending;
+
+import org.jspecify.annotations.NonNull;
+import org.kitteh.irc.client.library.Client;
+import org.kitteh.irc.client.library.util.Sanity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * A {@link QueueProcessingThreadSender} modeling the token bucket flood
+ * control used by most servers. Up to a burst of tokens may be spent at
+ * once, with one token refilled per refill delay. Each line costs its
+ * command's cost plus a fraction of a token for its length, being its
+ * length in bytes divided by the bytes per token. With the default
+ * {@link #DEFAULT_BYTES_PER_TOKEN} of 512, a 256 byte line adds half a
+ * token.
+ */
+public class TokenBucketSender extends QueueProcessingThreadSender {
+    /**
+     * The default burst, in tokens.
+     */
+    public static final double DEFAULT_BURST = 5;
+    /**
+     * The default time to refill a single token, in milliseconds.
+     */
+    public static final int DEFAULT_REFILL_DELAY = 1000;
+    /**
+     * The default number of bytes of a line costing one token.
+     */
+    public static final int DEFAULT_BYTES_PER_TOKEN = 512;
+    /**
+     * The default cost of a command without a cost set.
+     */
+    public static final double DEFAULT_COMMAND_COST = 1;
+
+    private static final Map<String, Double> DEFAULT_COMMAND_COSTS = Map.of(
+            "JOIN", 2.0,
+            "LIST", 3.0,
+            "NAMES", 2.0,
+            "WHO", 3.0,
+            "WHOIS", 2.0,
+            "WHOWAS", 2.0
+    );
+
+    /**
+     * Gets a supplier using the default burst and refill delay.
+     *
+     * @return supplier
+     */
+    public static Function<Client.WithManagement, TokenBucketSender> getSupplier() {
+        return TokenBucketSender.getSupplier(TokenBucketSender.DEFAULT_BURST, TokenBucketSender.DEFAULT_REFILL_DELAY);
+    }
+
+    /**
+     * Gets a supplier with a set burst and refill delay.
+     *
+     * @param burst maximum tokens available at once
+     * @param refillDelay milliseconds to refill a single token
+     * @return supplier
+     */
+    public static Function<Client.WithManagement, TokenBucketSender> getSupplier(double burst, int refillDelay) {
+        return client -> new TokenBucketSender(client, "TokenBucket " + burst + '/' + refillDelay, burst, refillDelay);
+    }
+
+    private final Map<String, Double> commandCosts = new ConcurrentHashMap<>(TokenBucketSender.DEFAULT_COMMAND_COSTS);
+    private volatile double burst;
+    private volatile long refillNanos;
+    private volatile int bytesPerToken = TokenBucketSender.DEFAULT_BYTES_PER_TOKEN;
+    private double tokens;
+    private long last = System.nanoTime();
+
+    /**
+     * Constructs the sending queue.
+     *
+     * @param client the client
+     * @param name name of this sending queue
+     * @param burst maximum tokens available at once
+     * @param refillDelay milliseconds to refill a single token
+     */
+    public TokenBucketSender(@NonNull Client client, @NonNull String name, double burst, int refillDelay) {
+        super(client, name);
+        this.burst = TokenBucketSender.checkBurst(burst);
+        this.refillNanos = TokenBucketSender.toRefillNanos(refillDelay);
+        this.tokens = this.burst;
+    }
+
+    @Override
+    protected boolean checkReady(@NonNull String message) {
+        double cost = this.getCost(message);
+        while (true) {
+            long now = System.nanoTime();
+            double currentBurst = this.burst;
+            long currentRefill = this.refillNanos;
+            this.tokens = Math.min(currentBurst, this.tokens + ((double) (now - this.last) / currentRefill));
+            this.last = now;
+            double needed = Math.min(cost, currentBurst) - this.tokens;
+            if (needed <= 0) {
+                break;
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(Math.max(1, (long) Math.ceil(needed * currentRefill)));
+            } catch (InterruptedException e) {
+                this.interrupt();
+                return false;
+            }
+        }
+        this.tokens -= cost;
+        return true;
+    }
+
+    /**
+     * Gets the cost, in tokens, of sending a message.
+     *
+     * @param message message to be sent
+     * @return cost in tokens
+     */
+    public double getCost(@NonNull String message) {
+        Sanity.nullCheck(message, "Message");
+        return this.commandCosts.getOrDefault(TokenBucketSender.getCommand(message), TokenBucketSender.DEFAULT_COMMAND_COST)
+                + ((double) message.getBytes(StandardCharsets.UTF_8).length / this.bytesPerToken);
+    }
+
+    /**
+     * Sets the cost of a command, in tokens, before counting its length.
+     *
+     * @param command command, such as JOIN
+     * @param cost cost in tokens
+     */
+    public void setCommandCost(@NonNull String command, double cost) {
+        Sanity.truthiness(cost >= 0, "Cost cannot be negative");
+        this.commandCosts.put(Sanity.nullCheck(command, "Command").toUpperCase(Locale.ENGLISH), cost);
+    }
+
+    /**
+     * Sets the maximum number of tokens available at once.
+     *
+     * @param burst maximum tokens
+     */
+    public void setBurst(double burst) {
+        this.burst = TokenBucketSender.checkBurst(burst);
+    }
+
+    /**
+     * Sets the number of bytes of a line costing one token. Each byte
+     * costs that fraction of a token.
+     *
+     * @param bytesPerToken bytes per token
+     */
+    public void setBytesPerToken(int bytesPerToken) {
+        Sanity.truthiness(bytesPerToken > 0, "Bytes per token must be positive");
+        this.bytesPerToken = bytesPerToken;
+    }
+
+    /**
+     * Sets the time to refill a single token.
+     *
+     * @param refillDelay delay in milliseconds
+     */
+    public void setRefillDelay(int refillDelay) {
+        this.refillNanos = TokenBucketSender.toRefillNanos(refillDelay);
+    }
+
+    private static double checkBurst(double burst) {
+        Sanity.truthiness(burst >= 1, "Burst must be at least 1");
+        return burst;
+    }
+
+    private static long toRefillNanos(int refillDelay) {
+        Sanity.truthiness(refillDelay > 0, "Refill delay must be positive");
+        return TimeUnit.MILLISECONDS.toNanos(refillDelay);
+    }
+
+    private static @NonNull String getCommand(@NonNull String message) {
+        int start = 0;
+        while ((start < message.length()) && ((message.charAt(start) == '@') || (message.charAt(start) == ':'))) {
+            int space = message.indexOf(' ', start);
+            if (space < 0) {
+                return "";
+            }
+            start = space + 1;
+        }
+        int end = message.indexOf(' ', start);
+        return message.substring(start, (end < 0) ? message.length() : end).toUpperCase(Locale.ENGLISH);
+    }
+}
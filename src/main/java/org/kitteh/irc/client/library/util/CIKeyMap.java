@@ -29,20 +29,58 @@ import org.kitteh.irc.client.library.Client;
 import org.kitteh.irc.client.library.feature.CaseMapping;
 
 import java.util.AbstractMap;
-import java.util.Collection;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * A thread-safe hash map with case insensitive keys tied to {@link Client}'s
  * {@link CaseMapping}. Note that some methods do not behave like all maps.
+ * <p>
+ * Keys are hashed and compared under the current case mapping without
+ * being lowercased, so lookups do not allocate. Lookups and iteration take
+ * no lock. The key, value and entry views are live, and their iterators are
+ * weakly consistent, like those of a concurrent map.
  */
-public class CIKeyMap<Value> implements Map<String, Value> {
+public class CIKeyMap<Value> extends AbstractMap<String, Value> {
+    private static final class Node<Value> extends AbstractMap.SimpleImmutableEntry<String, Value> {
+        private static final long serialVersionUID = 1L;
+
+        private final int hash;
+        private final @Nullable Node<Value> next;
+
+        private Node(int hash, @NonNull String key, @Nullable Value value, @Nullable Node<Value> next) {
+            super(key, value);
+            this.hash = hash;
+            this.next = next;
+        }
+    }
+
+    private static final class Table<Value> {
+        private final @Nullable CaseMapping caseMapping;
+        private final AtomicReferenceArray<Node<Value>> buckets;
+
+        private Table(@Nullable CaseMapping caseMapping, int capacity) {
+            this.caseMapping = caseMapping;
+            this.buckets = new AtomicReferenceArray<>(capacity);
+        }
+
+        private int index(int hash) {
+            return (hash ^ (hash >>> 16)) & (this.buckets.length() - 1);
+        }
+    }
+
+    private static final int INITIAL_CAPACITY = 16;
+
     private final Client client;
-    private CaseMapping lastCaseMapping;
-    private final Map<String, Pair<String, Value>> map = new ConcurrentHashMap<>();
+    private volatile Table<Value> table = new Table<>(null, CIKeyMap.INITIAL_CAPACITY);
+    private volatile int size;
+    private @Nullable Set<Entry<String, Value>> entrySet;
+    private @Nullable Set<String> keySet;
 
     /**
      * Constructs a map tied to a client.
@@ -60,65 +98,132 @@ public class CIKeyMap<Value> implements Map<String, Value> {
      * @param input input to convert
      * @return lower cased input
      */
-    protected final synchronized @NonNull String toLowerCase(@NonNull String input) {
+    protected final @NonNull String toLowerCase(@NonNull String input) {
+        return this.client.getServerInfo().getCaseMapping().toLowerCase(input);
+    }
+
+    /**
+     * Gets the table, rehashing it first if the case mapping has changed.
+     *
+     * @return current table
+     */
+    private @NonNull Table<Value> getTable() {
+        Table<Value> table = this.table;
         CaseMapping caseMapping = this.client.getServerInfo().getCaseMapping();
-        if (caseMapping != this.lastCaseMapping) {
-            Set<Entry<String, Value>> entrySet = this.entrySet();
-            this.lastCaseMapping = caseMapping;
-            this.map.clear();
-            entrySet.forEach(entry -> this.put(entry.getKey(), entry.getValue()));
+        if (table.caseMapping != caseMapping) {
+            synchronized (this) {
+                table = this.table;
+                if (table.caseMapping != caseMapping) {
+                    table = this.rehash(table, caseMapping, table.buckets.length());
+                }
+            }
+        }
+        return table;
+    }
+
+    private @NonNull Table<Value> rehash(@NonNull Table<Value> old, @NonNull CaseMapping caseMapping, int capacity) {
+        Table<Value> table = new Table<>(caseMapping, capacity);
+        int size = 0;
+        for (int i = 0; i < old.buckets.length(); i++) {
+            for (Node<Value> node = old.buckets.get(i); node != null; node = node.next) {
+                int hash = caseMapping.hashCodeIgnoringCase(node.getKey());
+                int index = table.index(hash);
+                Node<Value> head = table.buckets.get(index);
+                Node<Value> existing = CIKeyMap.find(caseMapping, head, hash, node.getKey());
+                table.buckets.set(index, new Node<>(hash, node.getKey(), node.getValue(), (existing == null) ? head : CIKeyMap.without(head, existing)));
+                if (existing == null) {
+                    size++;
+                }
+            }
+        }
+        this.size = size;
+        this.table = table;
+        return table;
+    }
+
+    private static <Value> @Nullable Node<Value> find(@NonNull CaseMapping caseMapping, @Nullable Node<Value> node, int hash, @NonNull String key) {
+        for (; node != null; node = node.next) {
+            if ((node.hash == hash) && caseMapping.areEqualIgnoringCase(node.getKey(), key)) {
+                return node;
+            }
         }
-        return caseMapping.toLowerCase(input);
+        return null;
+    }
+
+    private static <Value> @Nullable Node<Value> without(@NonNull Node<Value> head, @NonNull Node<Value> target) {
+        if (head == target) {
+            return target.next;
+        }
+        return new Node<>(head.hash, head.getKey(), head.getValue(), CIKeyMap.without(head.next, target));
+    }
+
+    private @Nullable Node<Value> getNode(@Nullable Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        String string = (String) key;
+        Table<Value> table = this.getTable();
+        int hash = table.caseMapping.hashCodeIgnoringCase(string);
+        return CIKeyMap.find(table.caseMapping, table.buckets.get(table.index(hash)), hash, string);
     }
 
     @Override
     public int size() {
-        return this.map.size();
+        this.getTable();
+        return this.size;
     }
 
     @Override
     public boolean isEmpty() {
-        return this.map.isEmpty();
+        return this.size() == 0;
     }
 
     @Override
     public boolean containsKey(@Nullable Object key) {
-        return (key instanceof String) && this.map.containsKey(this.toLowerCase((String) key));
-    }
-
-    @Override
-    public boolean containsValue(@Nullable Object value) {
-        for (Pair<String, Value> pair : this.map.values()) {
-            if ((value == null) ? (pair.getRight() == null) : value.equals(pair.getRight())) {
-                return true;
-            }
-        }
-        return false;
+        return this.getNode(key) != null;
     }
 
     @Override
     public @Nullable Value get(@Nullable Object key) {
-        if (key instanceof String) {
-            Pair<String, Value> pair = this.map.get(this.toLowerCase((String) key));
-            return (pair == null) ? null : pair.getRight();
-        }
-        return null;
+        Node<Value> node = this.getNode(key);
+        return (node == null) ? null : node.getValue();
     }
 
     @Override
-    public @Nullable Value put(@NonNull String key, @Nullable Value value) {
+    public synchronized @Nullable Value put(@NonNull String key, @Nullable Value value) {
         Sanity.nullCheck(key, "Key");
-        Pair<String, Value> pair = this.map.put(this.toLowerCase(key), new Pair<>(key, value));
-        return (pair == null) ? null : pair.getRight();
+        Table<Value> table = this.getTable();
+        int hash = table.caseMapping.hashCodeIgnoringCase(key);
+        int index = table.index(hash);
+        Node<Value> head = table.buckets.get(index);
+        Node<Value> existing = CIKeyMap.find(table.caseMapping, head, hash, key);
+        table.buckets.set(index, new Node<>(hash, key, value, (existing == null) ? head : CIKeyMap.without(head, existing)));
+        if (existing != null) {
+            return existing.getValue();
+        }
+        if (++this.size > ((table.buckets.length() / 4) * 3)) {
+            this.rehash(table, table.caseMapping, table.buckets.length() * 2);
+        }
+        return null;
     }
 
     @Override
-    public @Nullable Value remove(@Nullable Object key) {
-        if (key instanceof String) {
-            Pair<String, Value> pair = this.map.remove(this.toLowerCase((String) key));
-            return (pair == null) ? null : pair.getRight();
+    public synchronized @Nullable Value remove(@Nullable Object key) {
+        if (!(key instanceof String)) {
+            return null;
         }
-        return null;
+        String string = (String) key;
+        Table<Value> table = this.getTable();
+        int hash = table.caseMapping.hashCodeIgnoringCase(string);
+        int index = table.index(hash);
+        Node<Value> head = table.buckets.get(index);
+        Node<Value> existing = CIKeyMap.find(table.caseMapping, head, hash, string);
+        if (existing == null) {
+            return null;
+        }
+        table.buckets.set(index, CIKeyMap.without(head, existing));
+        this.size--;
+        return existing.getValue();
     }
 
     @Override
@@ -128,42 +233,157 @@ public class CIKeyMap<Value> implements Map<String, Value> {
     }
 
     @Override
-    public void clear() {
-        this.map.clear();
+    public synchronized void clear() {
+        this.table = new Table<>(this.table.caseMapping, CIKeyMap.INITIAL_CAPACITY);
+        this.size = 0;
     }
 
     /**
-     * Gets an UNCHANGING representation of the keys.
+     * Gets a live, case insensitive view of the keys.
      *
      * @return set of keys
      */
     @Override
     public @NonNull Set<String> keySet() {
-        return this.map.values().stream().map(Pair::getLeft).collect(Collectors.toSet());
-    }
+        if (this.keySet == null) {
+            this.keySet = new AbstractSet<>() {
+                @Override
+                public @NonNull Iterator<String> iterator() {
+                    Iterator<Entry<String, Value>> iterator = new EntryIterator();
+                    return new Iterator<>() {
+                        @Override
+                        public boolean hasNext() {
+                            return iterator.hasNext();
+                        }
 
-    /**
-     * Gets an UNCHANGING representation of the values.
-     *
-     * @return list of values
-     */
-    @Override
-    public @NonNull Collection<Value> values() {
-        return this.map.values().stream().map(Pair::getRight).collect(Collectors.toList());
+                        @Override
+                        public String next() {
+                            return iterator.next().getKey();
+                        }
+
+                        @Override
+                        public void remove() {
+                            iterator.remove();
+                        }
+                    };
+                }
+
+                @Override
+                public boolean contains(@Nullable Object o) {
+                    return CIKeyMap.this.containsKey(o);
+                }
+
+                @Override
+                public boolean remove(@Nullable Object o) {
+                    synchronized (CIKeyMap.this) {
+                        if (!CIKeyMap.this.containsKey(o)) {
+                            return false;
+                        }
+                        CIKeyMap.this.remove(o);
+                        return true;
+                    }
+                }
+
+                @Override
+                public int size() {
+                    return CIKeyMap.this.size();
+                }
+
+                @Override
+                public void clear() {
+                    CIKeyMap.this.clear();
+                }
+            };
+        }
+        return this.keySet;
     }
 
     /**
-     * Gets an UNCHANGING representation of the entries.
+     * Gets a live view of the entries, which do not support setting values.
      *
      * @return set of entries
      */
     @Override
     public @NonNull Set<Entry<String, Value>> entrySet() {
-        return this.map.values().stream().map(pair -> new AbstractMap.SimpleImmutableEntry<>(pair.getLeft(), pair.getRight())).collect(Collectors.toSet());
+        if (this.entrySet == null) {
+            this.entrySet = new AbstractSet<>() {
+                @Override
+                public @NonNull Iterator<Entry<String, Value>> iterator() {
+                    return new EntryIterator();
+                }
+
+                @Override
+                public boolean contains(@Nullable Object o) {
+                    if (!(o instanceof Entry)) {
+                        return false;
+                    }
+                    Node<Value> node = CIKeyMap.this.getNode(((Entry<?, ?>) o).getKey());
+                    return (node != null) && node.equals(o);
+                }
+
+                @Override
+                public boolean remove(@Nullable Object o) {
+                    return this.contains(o) && (CIKeyMap.this.remove(((Entry<?, ?>) o).getKey()) != null);
+                }
+
+                @Override
+                public int size() {
+                    return CIKeyMap.this.size();
+                }
+
+                @Override
+                public void clear() {
+                    CIKeyMap.this.clear();
+                }
+            };
+        }
+        return this.entrySet;
+    }
+
+    private final class EntryIterator implements Iterator<Entry<String, Value>> {
+        private final Table<Value> table = CIKeyMap.this.getTable();
+        private int index;
+        private @Nullable Node<Value> next;
+        private @Nullable Node<Value> last;
+
+        private EntryIterator() {
+            this.advance(null);
+        }
+
+        private void advance(@Nullable Node<Value> node) {
+            while ((node == null) && (this.index < this.table.buckets.length())) {
+                node = this.table.buckets.get(this.index++);
+            }
+            this.next = node;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.next != null;
+        }
+
+        @Override
+        public @NonNull Entry<String, Value> next() {
+            Node<Value> node = this.next;
+            if (node == null) {
+                throw new NoSuchElementException();
+            }
+            this.advance(node.next);
+            return this.last = node;
+        }
+
+        @Override
+        public void remove() {
+            if (this.last == null) {
+                throw new IllegalStateException();
+            }
+            CIKeyMap.this.remove(this.last.getKey());
+            this.last = null;
+        }
     }
 
     @Override
     public @NonNull String toString() {
-        return new ToStringer(this).add("client", this.client).add("map", this.map.values().stream().collect(Collectors.toMap(Pair::getLeft, Pair::getRight))).toString();
+        return new ToStringer(this).add("client", this.client).add("map", new HashMap<>(this)).toString();
     }
 }
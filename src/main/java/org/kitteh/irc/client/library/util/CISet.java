@@ -28,22 +28,20 @@ import org.jspecify.annotations.Nullable;
 import org.kitteh.irc.client.library.Client;
 import org.kitteh.irc.client.library.feature.CaseMapping;
 
+import java.util.AbstractSet;
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.Iterator;
-import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
 
 /**
  * A thread-safe set with case insensitivity tied to {@link Client}'s {@link
  * CaseMapping}.
+ * <p>
+ * Backed by a {@link CIKeyMap}, so lookups do not allocate and iterators
+ * are weakly consistent.
  */
-public class CISet implements Set<String> {
+public class CISet extends AbstractSet<String> {
     private final Client client;
-    private CaseMapping lastCaseMapping;
-    private final Map<String, String> map = new ConcurrentHashMap<>();
+    private final CIKeyMap<Boolean> map;
 
     /**
      * Constructs a set tied to a client.
@@ -52,6 +50,7 @@ public class CISet implements Set<String> {
      */
     public CISet(@NonNull Client client) {
         this.client = Sanity.nullCheck(client, "Client");
+        this.map = new CIKeyMap<>(client);
     }
 
     /**
@@ -61,15 +60,8 @@ public class CISet implements Set<String> {
      * @param input input to convert
      * @return lower cased input
      */
-    protected final synchronized String toLowerCase(@NonNull String input) {
-        CaseMapping caseMapping = this.client.getServerInfo().getCaseMapping();
-        if (caseMapping != this.lastCaseMapping) {
-            Set<String> set = new HashSet<>(this.map.values());
-            this.lastCaseMapping = caseMapping;
-            this.map.clear();
-            this.addAll(set);
-        }
-        return caseMapping.toLowerCase(input);
+    protected final String toLowerCase(@NonNull String input) {
+        return this.client.getServerInfo().getCaseMapping().toLowerCase(input);
     }
 
     @Override
@@ -84,64 +76,63 @@ public class CISet implements Set<String> {
 
     @Override
     public boolean contains(@Nullable Object o) {
-        return (o instanceof String) && this.map.containsKey(this.toLowerCase((String) o));
+        return this.map.containsKey(o);
     }
 
     @Override
     public @NonNull Iterator<String> iterator() {
-        return this.map.values().iterator();
-    }
-
-    @Override
-    public @NonNull Object@NonNull[] toArray() {
-        return this.map.values().toArray();
-    }
-
-    @Override
-    public @NonNull <T> T@NonNull[] toArray(@NonNull T@NonNull[] a) {
-        return this.map.values().toArray(a);
+        return this.map.keySet().iterator();
     }
 
+    /**
+     * Adds a string, replacing the stored casing of an equal string.
+     *
+     * @param s string to add
+     * @return true if no equal string was present
+     */
     @Override
     public boolean add(@NonNull String s) {
         Sanity.nullCheck(s, "String");
-        this.map.put(this.toLowerCase(s), s);
-        return true;
+        return this.map.put(s, Boolean.TRUE) == null;
     }
 
     @Override
     public boolean remove(@Nullable Object o) {
-        return (o instanceof String) && (this.map.remove(this.toLowerCase((String) o)) != null);
+        return this.map.remove(o) != null;
     }
 
     @Override
     public boolean containsAll(@NonNull Collection<?> c) {
         Sanity.nullCheck(c, "Collection");
-        for (Object o : c) {
-            if (!this.contains(o)) {
-                return false;
-            }
-        }
-        return true;
+        return super.containsAll(c);
     }
 
     @Override
     public boolean addAll(@NonNull Collection<? extends String> c) {
         Sanity.nullCheck(c, "Collection");
-        c.forEach(this::add);
-        return true;
+        return super.addAll(c);
     }
 
     @Override
     public boolean retainAll(@NonNull Collection<?> c) {
         Sanity.nullCheck(c, "Collection");
-        return this.map.keySet().retainAll(c.stream().filter(i -> i instanceof String).map(i -> (String) i).map(this::toLowerCase).collect(Collectors.toSet()));
+        CISet retained = new CISet(this.client);
+        c.forEach(o -> {
+            if (o instanceof String) {
+                retained.add((String) o);
+            }
+        });
+        return this.removeIf(s -> !retained.contains(s));
     }
 
     @Override
     public boolean removeAll(@NonNull Collection<?> c) {
         Sanity.nullCheck(c, "Collection");
-        return this.map.keySet().removeAll(c.stream().filter(i -> i instanceof String).map(i -> (String) i).map(this::toLowerCase).collect(Collectors.toSet()));
+        boolean changed = false;
+        for (Object o : c) {
+            changed |= this.remove(o);
+        }
+        return changed;
     }
 
     @Override
@@ -151,6 +142,6 @@ public class CISet implements Set<String> {
 
     @Override
     public @NonNull String toString() {
-        return new ToStringer(this).add("client", this.client).add("set", this.map.values()).toString();
+        return new ToStringer(this).add("client", this.client).add("set", this.map.keySet()).toString();
     }
 }
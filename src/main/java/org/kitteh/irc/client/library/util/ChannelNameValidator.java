@@ -0,0 +1,125 @@
+/*
+ * * Copyright (C) 2013-2025 Matt Baxter https://kitteh.org
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS
+ * BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN
+ * ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.kitteh.irc.client.library.util;
+
+import org.jspecify.annotations.NonNull;
+
+import java.util.BitSet;
+import java.util.Collection;
+
+/**
+ * An immutable channel name validator, compiled from the channel prefixes
+ * (CHANTYPES) and maximum channel length (CHANNELLEN) a server announces.
+ * <p>
+ * A name is valid if it starts with one of the prefixes, has at least one
+ * more character, fits the length limit and contains no space, comma, BEL,
+ * CR or LF. Checking a name is a single pass over it without allocation.
+ */
+public final class ChannelNameValidator {
+    private static final long FORBIDDEN = (1L << ' ') | (1L << ',') | (1L << 7) | (1L << '\r') | (1L << '\n');
+
+    /**
+     * Creates a validator.
+     *
+     * @param prefixes accepted channel prefixes
+     * @param lengthLimit maximum channel name length, or -1 for no limit
+     * @return validator
+     */
+    public static @NonNull ChannelNameValidator of(@NonNull Collection<Character> prefixes, int lengthLimit) {
+        Sanity.nullCheck(prefixes, "Prefixes");
+        BitSet prefixSet = new BitSet(128);
+        for (Character prefix : prefixes) {
+            prefixSet.set(Sanity.nullCheck(prefix, "Prefix"));
+        }
+        return new ChannelNameValidator(prefixSet, lengthLimit);
+    }
+
+    private final BitSet prefixes;
+    private final int lengthLimit;
+
+    private ChannelNameValidator(@NonNull BitSet prefixes, int lengthLimit) {
+        this.prefixes = prefixes;
+        this.lengthLimit = lengthLimit;
+    }
+
+    /**
+     * Gets the maximum channel name length.
+     *
+     * @return length limit or -1 if unlimited
+     */
+    public int getLengthLimit() {
+        return this.lengthLimit;
+    }
+
+    /**
+     * Gets if a character is an accepted channel prefix.
+     *
+     * @param c character
+     * @return true if the character can start a channel name
+     */
+    public boolean isPrefix(char c) {
+        return this.prefixes.get(c);
+    }
+
+    /**
+     * Gets if a given string is a valid channel name.
+     *
+     * @param name potentially valid name
+     * @return true if valid
+     */
+    public boolean isValid(@NonNull String name) {
+        return this.isValid(name, 0);
+    }
+
+    /**
+     * Gets if the part of a given string starting at an offset is a valid
+     * channel name, such as the channel in a targeted <code>@#channel</code>.
+     *
+     * @param string string containing the potentially valid name
+     * @param offset index at which the name starts
+     * @return true if valid
+     */
+    public boolean isValid(@NonNull String string, int offset) {
+        Sanity.nullCheck(string, "String");
+        int length = string.length() - offset;
+        if ((offset < 0) || (length < 2) || ((this.lengthLimit >= 0) && (length > this.lengthLimit)) || !this.prefixes.get(string.charAt(offset))) {
+            return false;
+        }
+        for (int i = offset + 1; i < string.length(); i++) {
+            char c = string.charAt(i);
+            if ((c < Long.SIZE) && (((FORBIDDEN >>> c) & 1) != 0)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public @NonNull String toString() {
+        return new ToStringer(this)
+                .add("prefixes", this.prefixes)
+                .add("lengthLimit", this.lengthLimit)
+                .toString();
+    }
+}
@@ -41,8 +41,8 @@ public class Listener<Type> {
     private final class ListenerThread extends QueueProcessingThread<Type> {
         private volatile Consumer<Type> consumer;
 
-        private ListenerThread(@NonNull String clientName, @NonNull Consumer<Type> consumer) {
-            super("KICL Listener (" + clientName + ')');
+        private ListenerThread(@NonNull String clientName, boolean virtual, @NonNull Consumer<Type> consumer) {
+            super("KICL Listener (" + clientName + ')', virtual);
             this.consumer = consumer;
         }
 
@@ -68,6 +68,7 @@ public class Listener<Type> {
     }
 
     private final String clientName;
+    private final boolean virtual;
     private @Nullable ListenerThread thread;
 
     /**
@@ -76,7 +77,17 @@ public class Listener<Type> {
      */
     public Listener(@NonNull Client client, @Nullable Consumer<Type> consumer) {
         this.clientName = Sanity.nullCheck(client, "Client").getName();
-        this.thread = (consumer == null) ? null : new ListenerThread(this.clientName, consumer);
+        this.virtual = (client instanceof Client.WithManagement) && ((Client.WithManagement) client).isVirtualThreads();
+        this.thread = (consumer == null) ? null : new ListenerThread(this.clientName, this.virtual, consumer);
+    }
+
+    /**
+     * Gets if a consumer is present, and thus if queued items will be used.
+     *
+     * @return true if a consumer is present
+     */
+    public boolean hasConsumer() {
+        return this.thread != null;
     }
 
     /**
@@ -106,7 +117,7 @@ public class Listener<Type> {
      */
     public void setConsumer(@NonNull Consumer<Type> consumer) {
         if (this.thread == null) {
-            this.thread = new ListenerThread(this.clientName, consumer);
+            this.thread = new ListenerThread(this.clientName, this.virtual, consumer);
         } else {
             this.thread.consumer = consumer;
         }
@@ -25,6 +25,7 @@ package org.kitteh.irc.client.library.util;
 
 import org.jspecify.annotations.NonNull;
 import org.kitteh.irc.client.library.element.User;
+import org.kitteh.irc.client.library.feature.CaseMapping;
 
 /**
  * Represents a mask that can match a {@link User}.
@@ -55,6 +56,68 @@ public class Mask {
         return this.string;
     }
 
+    /**
+     * Gets if this mask matches a user, with <code>*</code> matching any
+     * run of characters and <code>?</code> any single character, compared
+     * under the user's client's {@link CaseMapping}. Extended bans are not
+     * interpreted.
+     *
+     * @param user user
+     * @return true if the user's full name matches
+     */
+    public boolean matches(@NonNull User user) {
+        Sanity.nullCheck(user, "User");
+        return this.matches(user.getClient().getServerInfo().getCaseMapping(), user.getName());
+    }
+
+    /**
+     * Gets if this mask matches a name, such as <code>nick!user@host</code>,
+     * with <code>*</code> matching any run of characters and <code>?</code>
+     * any single character, compared under the given case mapping.
+     *
+     * @param caseMapping case mapping
+     * @param name name to match
+     * @return true if the name matches
+     */
+    public boolean matches(@NonNull CaseMapping caseMapping, @NonNull String name) {
+        Sanity.nullCheck(caseMapping, "Case mapping");
+        Sanity.nullCheck(name, "Name");
+        return Mask.matches(caseMapping.toLowerCase(this.string), caseMapping.toLowerCase(name));
+    }
+
+    /**
+     * Matches a glob pattern against a name, both already lowercased.
+     *
+     * @param pattern pattern
+     * @param name name
+     * @return true if matching
+     */
+    static boolean matches(@NonNull String pattern, @NonNull String name) {
+        int p = 0;
+        int n = 0;
+        int star = -1;
+        int mark = 0;
+        while (n < name.length()) {
+            char c = (p < pattern.length()) ? pattern.charAt(p) : 0;
+            if ((p < pattern.length()) && ((c == '?') || (c == name.charAt(n))) && (c != '*')) {
+                p++;
+                n++;
+            } else if (c == '*') {
+                star = p++;
+                mark = n;
+            } else if (star >= 0) {
+                p = star + 1;
+                n = ++mark;
+            } else {
+                return false;
+            }
+        }
+        while ((p < pattern.length()) && (pattern.charAt(p) == '*')) {
+            p++;
+        }
+        return p == pattern.length();
+    }
+
     @Override
     public int hashCode() {
         return (2 * this.string.hashCode()) + 5;
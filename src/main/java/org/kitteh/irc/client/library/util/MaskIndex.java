@@ -0,0 +1,198 @@
+/*
+ * * Copyright (C) 2013-2025 Matt Baxter https://kitteh.org
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS
+ * BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN
+ * ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.kitteh.irc.client.library.util;
+
+import org.jspecify.annotations.NonNull;
+import org.kitteh.irc.client.library.feature.CaseMapping;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * An immutable index of elements by {@link Mask}, answering which elements
+ * match a given <code>nick!user@host</code> without trying every mask.
+ * <p>
+ * Masks with a literal host, a host of the form <code>*.example.com</code>
+ * or <code>192.168.*</code>, or a literal nickname, are found through hash
+ * lookups on the name being matched. Only the remaining masks are tried one
+ * by one. Matching follows {@link Mask#matches(CaseMapping, String)}.
+ *
+ * @param <T> element type
+ */
+public final class MaskIndex<T> {
+    private static final class Entry<T> {
+        private final String pattern;
+        private final T element;
+        private final int order;
+
+        private Entry(@NonNull String pattern, @NonNull T element, int order) {
+            this.pattern = pattern;
+            this.element = element;
+            this.order = order;
+        }
+    }
+
+    /**
+     * Creates an index.
+     *
+     * @param caseMapping case mapping under which masks are compared
+     * @param elements elements, in the order matches are to be returned
+     * @param mask function getting each element's mask
+     * @param <T> element type
+     * @return index
+     */
+    public static <T> @NonNull MaskIndex<T> of(@NonNull CaseMapping caseMapping, @NonNull Collection<T> elements, @NonNull Function<T, Mask> mask) {
+        return new MaskIndex<>(Sanity.nullCheck(caseMapping, "Case mapping"), Sanity.nullCheck(elements, "Elements"), Sanity.nullCheck(mask, "Mask function"));
+    }
+
+    private final CaseMapping caseMapping;
+    private final Map<String, List<Entry<T>>> hosts = new HashMap<>();
+    private final Map<String, List<Entry<T>>> hostSuffixes = new HashMap<>();
+    private final Map<String, List<Entry<T>>> hostPrefixes = new HashMap<>();
+    private final Map<String, List<Entry<T>>> nicks = new HashMap<>();
+    private final List<Entry<T>> others = new ArrayList<>();
+    private final int size;
+
+    private MaskIndex(@NonNull CaseMapping caseMapping, @NonNull Collection<T> elements, @NonNull Function<T, Mask> mask) {
+        this.caseMapping = caseMapping;
+        int order = 0;
+        for (T element : elements) {
+            String pattern = caseMapping.toLowerCase(mask.apply(element).asString());
+            this.add(new Entry<>(pattern, element, order++));
+        }
+        this.size = order;
+    }
+
+    private void add(@NonNull Entry<T> entry) {
+        String pattern = entry.pattern;
+        int at = pattern.indexOf('@');
+        if ((at >= 0) && (pattern.indexOf('@', at + 1) < 0)) { // Names have exactly one @, so the host must match after it
+            String host = pattern.substring(at + 1);
+            int wildcard = MaskIndex.indexOfWildcard(host, 0);
+            if (wildcard < 0) {
+                MaskIndex.add(this.hosts, host, entry);
+                return;
+            }
+            if ((wildcard == 0) && (host.length() > 2) && (host.charAt(1) == '.') && (MaskIndex.indexOfWildcard(host, 1) < 0)) {
+                MaskIndex.add(this.hostSuffixes, host.substring(1), entry);
+                return;
+            }
+            if ((wildcard == (host.length() - 1)) && (host.charAt(wildcard) == '*') && (wildcard > 0) && (host.charAt(wildcard - 1) == '.')) {
+                MaskIndex.add(this.hostPrefixes, host.substring(0, wildcard), entry);
+                return;
+            }
+        }
+        int bang = pattern.indexOf('!');
+        int wildcard = MaskIndex.indexOfWildcard(pattern, 0);
+        if ((bang > 0) && ((wildcard < 0) || (wildcard > bang))) { // Nicks have no !, so a literal nick ends at the first
+            MaskIndex.add(this.nicks, pattern.substring(0, bang), entry);
+            return;
+        }
+        this.others.add(entry);
+    }
+
+    private static int indexOfWildcard(@NonNull String string, int from) {
+        for (int i = from; i < string.length(); i++) {
+            char c = string.charAt(i);
+            if ((c == '*') || (c == '?')) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static <T> void add(@NonNull Map<String, List<Entry<T>>> map, @NonNull String key, @NonNull Entry<T> entry) {
+        map.computeIfAbsent(key, k -> new ArrayList<>(1)).add(entry);
+    }
+
+    /**
+     * Gets the case mapping under which masks are compared.
+     *
+     * @return case mapping
+     */
+    public @NonNull CaseMapping getCaseMapping() {
+        return this.caseMapping;
+    }
+
+    /**
+     * Gets the elements whose masks match a name.
+     *
+     * @param name name, such as <code>nick!user@host</code>
+     * @return matching elements in their original order
+     */
+    public @NonNull List<T> getMatches(@NonNull String name) {
+        String lowerName = this.caseMapping.toLowerCase(Sanity.nullCheck(name, "Name"));
+        List<Entry<T>> matches = new ArrayList<>();
+        int at = lowerName.indexOf('@');
+        if (at >= 0) {
+            String host = lowerName.substring(at + 1);
+            this.collect(this.hosts.get(host), lowerName, matches);
+            for (int dot = host.indexOf('.'); dot >= 0; dot = host.indexOf('.', dot + 1)) {
+                this.collect(this.hostSuffixes.get(host.substring(dot)), lowerName, matches);
+                this.collect(this.hostPrefixes.get(host.substring(0, dot + 1)), lowerName, matches);
+            }
+        }
+        int bang = lowerName.indexOf('!');
+        if (bang > 0) {
+            this.collect(this.nicks.get(lowerName.substring(0, bang)), lowerName, matches);
+        }
+        this.collect(this.others, lowerName, matches);
+        if (matches.isEmpty()) {
+            return Collections.emptyList();
+        }
+        matches.sort((one, two) -> Integer.compare(one.order, two.order));
+        List<T> elements = new ArrayList<>(matches.size());
+        matches.forEach(entry -> elements.add(entry.element));
+        return Collections.unmodifiableList(elements);
+    }
+
+    private void collect(List<Entry<T>> entries, @NonNull String lowerName, @NonNull List<Entry<T>> matches) {
+        if (entries != null) {
+            for (Entry<T> entry : entries) {
+                if (Mask.matches(entry.pattern, lowerName)) {
+                    matches.add(entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the number of elements indexed.
+     *
+     * @return size
+     */
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public @NonNull String toString() {
+        return new ToStringer(this).add("caseMapping", this.caseMapping).add("size", this.size).add("unindexed", this.others.size()).toString();
+    }
+}
@@ -24,18 +24,25 @@
 package org.kitteh.irc.client.library.util;
 
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
 
 import java.util.ArrayDeque;
 import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 
 /**
  * Self starting processor of queued items on its own thread.
+ * <p>
+ * If constructed to run virtually, this thread object is never itself
+ * started. Instead, its {@link #run()} loop is run on a virtual thread, to
+ * which {@link #interrupt()} and {@link #isInterrupted()} are forwarded.
  *
  * @param <Type> type of items queued
  */
 public abstract class QueueProcessingThread<Type> extends Thread {
-    private final Queue<Type> queue = new ConcurrentLinkedQueue<>();
+    private final BlockingQueue<Type> queue = new LinkedBlockingQueue<>();
+    private final @Nullable Thread virtualThread;
 
     /**
      * Creates a thread and starts itself.
@@ -43,29 +50,65 @@ public abstract class QueueProcessingThread<Type> extends Thread {
      * @param name name of the thread
      */
     protected QueueProcessingThread(@NonNull String name) {
-        this.setName(name);
-        this.start();
+        this(name, false);
+    }
+
+    /**
+     * Creates a thread and starts itself, optionally running on a virtual
+     * thread.
+     *
+     * @param name name of the thread
+     * @param virtual true to run on a virtual thread
+     */
+    protected QueueProcessingThread(@NonNull String name, boolean virtual) {
+        this.setName(Sanity.nullCheck(name, "Name"));
+        if (virtual) {
+            this.virtualThread = Thread.ofVirtual().name(name).unstarted(this);
+            this.virtualThread.start();
+        } else {
+            this.virtualThread = null;
+            this.start();
+        }
     }
 
     @Override
     public void run() {
-        dance:
         while (!this.isInterrupted()) {
-            synchronized (this.queue) {
-                while (this.queue.isEmpty()) {
-                    try {
-                        this.queue.wait();
-                    } catch (InterruptedException e) {
-                        break dance;
-                    }
-                }
+            Type element;
+            try {
+                element = this.queue.take();
+            } catch (InterruptedException e) {
+                break;
             }
-            this.processElement(this.queue.poll());
+            this.processElement(element);
         }
         this.interrupt();
         this.cleanup(this.queue);
     }
 
+    @Override
+    public void interrupt() {
+        if (this.virtualThread == null) {
+            super.interrupt();
+        } else {
+            this.virtualThread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isInterrupted() {
+        return (this.virtualThread == null) ? super.isInterrupted() : this.virtualThread.isInterrupted();
+    }
+
+    /**
+     * Gets if this processor runs on a virtual thread.
+     *
+     * @return true if running on a virtual thread
+     */
+    public boolean isRunningVirtually() {
+        return this.virtualThread != null;
+    }
+
     /**
      * This method is called after the thread has been interrupted.
      *
@@ -107,10 +150,6 @@ public abstract class QueueProcessingThread<Type> extends Thread {
      * @param item item to queue
      */
     public void queue(@NonNull Type item) {
-        Sanity.nullCheck(item, "Item");
-        synchronized (this.queue) {
-            this.queue.add(item);
-            this.queue.notify();
-        }
+        this.queue.add(Sanity.nullCheck(item, "Item"));
     }
 }
@@ -0,0 +1,144 @@
+/*
+ * * Copyright (C) 2013-2025 Matt Baxter https://kitteh.org
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS
+ * BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN
+ * ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.kitteh.irc.client.library.util;
+
+import org.jspecify.annotations.NonNull;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Runs tasks one at a time, in the order submitted, on a possibly shared
+ * executor. Each task happens-before the next, so tasks may treat state
+ * as if it were confined to a single thread, without holding a thread of
+ * their own while idle.
+ * <p>
+ * Queued tasks are run in batches, after which the remainder are handed
+ * back to the executor so that one busy queue does not starve others
+ * sharing the same executor.
+ * <p>
+ * If the underlying executor refuses to run the queue, whether when a task
+ * is submitted or when a batch hands back the remainder, this executor
+ * shuts down and the rejection is passed to its rejection handler.
+ */
+public class SerialExecutor implements Executor {
+    private static final int BATCH_SIZE = 64;
+
+    private final Executor executor;
+    private final Consumer<RejectedExecutionException> rejectionHandler;
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile boolean shutdown;
+
+    /**
+     * Constructs a serial executor which ignores rejection by the
+     * underlying executor, beyond shutting down.
+     *
+     * @param executor executor on which to run tasks
+     */
+    public SerialExecutor(@NonNull Executor executor) {
+        this(executor, rejected -> {
+        });
+    }
+
+    /**
+     * Constructs a serial executor.
+     *
+     * @param executor executor on which to run tasks
+     * @param rejectionHandler handler of rejection by the executor
+     */
+    public SerialExecutor(@NonNull Executor executor, @NonNull Consumer<RejectedExecutionException> rejectionHandler) {
+        this.executor = Sanity.nullCheck(executor, "Executor");
+        this.rejectionHandler = Sanity.nullCheck(rejectionHandler, "Rejection handler");
+    }
+
+    /**
+     * Queues a task, to be run after all previously queued tasks. Tasks
+     * queued after shutdown are discarded.
+     *
+     * @param task task to run
+     */
+    @Override
+    public void execute(@NonNull Runnable task) {
+        Sanity.nullCheck(task, "Task");
+        if (this.shutdown) {
+            return;
+        }
+        this.queue.add(task);
+        this.schedule();
+    }
+
+    /**
+     * Discards all queued tasks and any queued afterward. A task already
+     * running is left to finish.
+     */
+    public void shutdown() {
+        this.shutdown = true;
+        this.queue.clear();
+    }
+
+    /**
+     * Gets if this executor has been shut down.
+     *
+     * @return true if shut down
+     */
+    public boolean isShutdown() {
+        return this.shutdown;
+    }
+
+    private void schedule() {
+        if (!this.queue.isEmpty() && this.scheduled.compareAndSet(false, true)) {
+            try {
+                this.executor.execute(this::run);
+            } catch (RejectedExecutionException e) {
+                this.shutdown();
+                this.scheduled.set(false);
+                this.rejectionHandler.accept(e);
+            }
+        }
+    }
+
+    private void run() {
+        try {
+            Runnable task;
+            for (int i = 0; (i < SerialExecutor.BATCH_SIZE) && !this.shutdown && ((task = this.queue.poll()) != null); i++) {
+                task.run();
+            }
+        } finally {
+            this.scheduled.set(false);
+            if (!this.shutdown) {
+                this.schedule();
+            }
+        }
+    }
+
+    @Override
+    public @NonNull String toString() {
+        return new ToStringer(this).add("executor", this.executor).add("shutdown", this.shutdown).toString();
+    }
+}
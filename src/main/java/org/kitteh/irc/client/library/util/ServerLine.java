@@ -0,0 +1,320 @@
+/*
+ * * Copyright (C) 2013-2025 Matt Baxter https://kitteh.org
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS
+ * BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN
+ * ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.kitteh.irc.client.library.util;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A single line received from the server, split into its tag section,
+ * prefix, command, and parameters.
+ * <p>
+ * The line is held either as the UTF-8 bytes framed off the network or as
+ * an already decoded String. Splitting only records offsets into that
+ * backing data, and each portion only becomes a String the first time it
+ * is requested.
+ */
+public final class ServerLine {
+    /**
+     * Read-only view of the parameters of a line, decoding each parameter
+     * on first access.
+     */
+    public final class Parameters extends AbstractList<String> implements RandomAccess {
+        private Parameters() {
+        }
+
+        @Override
+        public @NonNull String get(int index) {
+            return ServerLine.this.getParameter(index);
+        }
+
+        @Override
+        public int size() {
+            return ServerLine.this.getParameterCount();
+        }
+    }
+
+    private static final int[] NO_SPANS = new int[0];
+
+    /**
+     * Creates a line from its UTF-8 bytes, minus linebreak characters. The
+     * array is used as-is and must not be modified afterward.
+     *
+     * @param bytes line bytes
+     * @return line
+     */
+    public static @NonNull ServerLine of(byte @NonNull [] bytes) {
+        return new ServerLine(Sanity.nullCheck(bytes, "Bytes"), null);
+    }
+
+    /**
+     * Creates a line from a String, minus linebreak characters.
+     *
+     * @param line line
+     * @return line
+     */
+    public static @NonNull ServerLine of(@NonNull String line) {
+        return new ServerLine(null, Sanity.nullCheck(line, "Line"));
+    }
+
+    private final byte @Nullable [] bytes;
+    private @Nullable String message;
+    private final int length;
+
+    private boolean parsed;
+    private int tagStart = -1;
+    private int tagEnd;
+    private int prefixStart = -1;
+    private int prefixEnd;
+    private int[] spans = ServerLine.NO_SPANS;
+    private int spanCount;
+    private String @Nullable [] decoded;
+    private @Nullable Parameters parameters;
+
+    private ServerLine(byte @Nullable [] bytes, @Nullable String message) {
+        this.bytes = bytes;
+        this.message = message;
+        this.length = (bytes != null) ? bytes.length : message.length();
+    }
+
+    /**
+     * Gets if the line is empty.
+     *
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        return this.length == 0;
+    }
+
+    /**
+     * Gets if the line starts with the given ASCII text, without decoding
+     * the line.
+     *
+     * @param prefix ASCII text
+     * @return true if the line starts with the text
+     */
+    public boolean startsWith(@NonNull String prefix) {
+        if (prefix.length() > this.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (this.at(i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the full content of the line, minus linebreak characters.
+     *
+     * @return full line
+     */
+    public @NonNull String getMessage() {
+        if (this.message == null) {
+            this.message = new String(this.bytes, StandardCharsets.UTF_8);
+        }
+        return this.message;
+    }
+
+    /**
+     * Gets the tag section, without the leading {@code @}.
+     *
+     * @return tag section, which may be empty if the server sent only an
+     * {@code @}, or null if the line has no tag section
+     */
+    public @Nullable String getTagSection() {
+        this.parse();
+        return (this.tagStart < 0) ? null : this.slice(this.tagStart, this.tagEnd);
+    }
+
+    /**
+     * Gets the prefix, without the leading colon.
+     *
+     * @return prefix, or an empty String if the line has no prefix
+     */
+    public @NonNull String getPrefix() {
+        this.parse();
+        return (this.prefixStart < 0) ? "" : this.slice(this.prefixStart, this.prefixEnd);
+    }
+
+    /**
+     * Gets the command.
+     *
+     * @return command, or null if the line has no command
+     */
+    public @Nullable String getCommand() {
+        this.parse();
+        return (this.spanCount == 0) ? null : this.getSpan(0);
+    }
+
+    /**
+     * Gets if the command matches the given ASCII text exactly, without
+     * decoding the command.
+     *
+     * @param command command to compare
+     * @return true if the command matches
+     */
+    public boolean isCommand(@NonNull String command) {
+        this.parse();
+        if ((this.spanCount == 0) || ((this.spans[1] - this.spans[0]) != command.length())) {
+            return false;
+        }
+        for (int i = 0; i < command.length(); i++) {
+            if (this.at(this.spans[0] + i) != command.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the number of parameters following the command.
+     *
+     * @return parameter count
+     */
+    public int getParameterCount() {
+        this.parse();
+        return Math.max(0, this.spanCount - 1);
+    }
+
+    /**
+     * Gets a parameter.
+     *
+     * @param index parameter index
+     * @return parameter
+     * @throws IndexOutOfBoundsException if index is out of bounds
+     */
+    public @NonNull String getParameter(int index) {
+        if ((index < 0) || (index >= this.getParameterCount())) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for " + this.getParameterCount() + " parameters");
+        }
+        return this.getSpan(index + 1);
+    }
+
+    /**
+     * Gets a read-only view of the parameters.
+     *
+     * @return parameters
+     */
+    public @NonNull Parameters getParameters() {
+        if (this.parameters == null) {
+            this.parameters = new Parameters();
+        }
+        return this.parameters;
+    }
+
+    @Override
+    public @NonNull String toString() {
+        return new ToStringer(this).add("message", this.getMessage()).toString();
+    }
+
+    private @NonNull String getSpan(int span) {
+        if (this.decoded == null) {
+            this.decoded = new String[this.spanCount];
+        }
+        String value = this.decoded[span];
+        if (value == null) {
+            value = this.decoded[span] = this.slice(this.spans[span * 2], this.spans[(span * 2) + 1]);
+        }
+        return value;
+    }
+
+    private int at(int index) {
+        return (this.bytes != null) ? this.bytes[index] : this.message.charAt(index);
+    }
+
+    private @NonNull String slice(int start, int end) {
+        if (this.bytes != null) {
+            return new String(this.bytes, start, end - start, StandardCharsets.UTF_8);
+        }
+        return this.message.substring(start, end);
+    }
+
+    private int skipSpaces(int position) {
+        while ((position < this.length) && (this.at(position) == ' ')) {
+            position++;
+        }
+        return position;
+    }
+
+    private int nextSpace(int position) {
+        while ((position < this.length) && (this.at(position) != ' ')) {
+            position++;
+        }
+        return position;
+    }
+
+    private void addSpan(int start, int end) {
+        if (this.spans.length == (this.spanCount * 2)) {
+            this.spans = Arrays.copyOf(this.spans, Math.max(16, this.spans.length * 2));
+        }
+        this.spans[this.spanCount * 2] = start;
+        this.spans[(this.spanCount * 2) + 1] = end;
+        this.spanCount++;
+    }
+
+    private void parse() {
+        if (this.parsed) {
+            return;
+        }
+
+        int position = this.skipSpaces(0);
+        int next;
+
+        if ((position < this.length) && (this.at(position) == '@')) {
+            next = this.nextSpace(position);
+            this.tagStart = position + 1;
+            this.tagEnd = next;
+            position = this.skipSpaces(next);
+        }
+
+        if ((position < this.length) && (this.at(position) == ':')) {
+            next = this.nextSpace(position);
+            this.prefixStart = position + 1;
+            this.prefixEnd = next;
+            position = next + 1;
+        }
+
+        while (position < this.length) {
+            if (this.at(position) == ':') {
+                // Trailing parameter, spaces and all
+                this.addSpan(position + 1, this.length);
+                break;
+            }
+            next = this.nextSpace(position);
+            if (position != next) {
+                this.addSpan(position, next);
+            }
+            position = next + 1;
+        }
+        this.parsed = true;
+    }
+}
@@ -28,6 +28,9 @@ import org.kitteh.irc.client.library.Client;
 import org.kitteh.irc.client.library.element.ClientLinked;
 import org.kitteh.irc.client.library.feature.CaseMapping;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * String tools!
  */
@@ -162,4 +165,79 @@ public final class StringUtil {
         Sanity.nullCheck(password, "Password");
         return password.replaceAll(".", "*");
     }
+
+    /**
+     * Gets the length of a string encoded as UTF-8, without encoding it.
+     * Unpaired surrogates count as a single byte, as they are replaced with
+     * '?' when encoded.
+     *
+     * @param string string to measure
+     * @return length in bytes
+     */
+    public static int getUtf8Length(@NonNull CharSequence string) {
+        Sanity.nullCheck(string, "String");
+        int length = string.length();
+        int bytes = length;
+        for (int i = 0; i < length; i++) {
+            char c = string.charAt(i);
+            if (c < 0x80) {
+                continue;
+            }
+            if (c < 0x800) {
+                bytes++;
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && ((i + 1) < length) && Character.isLowSurrogate(string.charAt(i + 1))) {
+                    bytes += 2; // Four bytes for two chars
+                    i++;
+                }
+            } else {
+                bytes += 2;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Comma-joins targets, in order, into as few lists as possible, each
+     * holding at most a given number of targets within a given number of
+     * bytes encoded as UTF-8.
+     *
+     * @param targets targets to join
+     * @param targetLimit maximum targets per list
+     * @param byteLimit maximum length of a list in bytes
+     * @return joined lists of targets
+     * @throws IllegalArgumentException for null targets, a target limit less
+     * than 1, or a target which alone exceeds the byte limit
+     */
+    public static @NonNull List<String> joinTargets(@NonNull Iterable<String> targets, int targetLimit, int byteLimit) {
+        Sanity.nullCheck(targets, "Targets");
+        Sanity.truthiness(targetLimit > 0, "Target limit must be positive");
+        List<String> lists = new ArrayList<>();
+        StringBuilder list = new StringBuilder();
+        int count = 0;
+        int length = 0;
+        for (String target : targets) {
+            int targetLength = StringUtil.getUtf8Length(Sanity.nullCheck(target, "Target"));
+            if (targetLength > byteLimit) {
+                throw new IllegalArgumentException("Target '" + target + "' does not fit within " + byteLimit + " bytes");
+            }
+            if ((count > 0) && ((count == targetLimit) || ((length + 1 + targetLength) > byteLimit))) {
+                lists.add(list.toString());
+                list.setLength(0);
+                count = 0;
+                length = 0;
+            }
+            if (count > 0) {
+                list.append(',');
+                length++;
+            }
+            list.append(target);
+            count++;
+            length += targetLength;
+        }
+        if (count > 0) {
+            lists.add(list.toString());
+        }
+        return lists;
+    }
 }
@@ -26,6 +26,7 @@ import org.kitteh.irc.client.library.util.Cutter;
 import org.kitteh.irc.client.library.util.HostWithPort;
 import org.kitteh.irc.client.library.util.Listener;
 import org.kitteh.irc.client.library.util.Pair;
+import org.kitteh.irc.client.library.util.ServerLine;
 
 import javax.net.ssl.TrustManagerFactory;
 import java.net.InetSocketAddress;
@@ -56,6 +57,11 @@ public class FakeClient implements Client.WithManagement {
 
     }
 
+    @Override
+    public void processLine(@NonNull ServerLine line) {
+
+    }
+
     @Override
     public void sendNickChange(@NonNull String newNick) {
 
@@ -106,6 +112,16 @@ public class FakeClient implements Client.WithManagement {
         return this.secure;
     }
 
+    @Override
+    public boolean isBufferLineParsing() {
+        return false;
+    }
+
+    @Override
+    public boolean isVirtualThreads() {
+        return false;
+    }
+
     public void setSecure(boolean secure) {
         this.secure = secure;
     }
@@ -376,6 +392,16 @@ public class FakeClient implements Client.WithManagement {
 
     }
 
+    @Override
+    public void sendBroadcastMessage(@NonNull Collection<String> targets, @NonNull String message) {
+
+    }
+
+    @Override
+    public void sendBroadcastNotice(@NonNull Collection<String> targets, @NonNull String message) {
+
+    }
+
     @Override
     public void sendCtcpReply(@NonNull String target, @NonNull String message) {
 
@@ -0,0 +1,180 @@
+package org.kitteh.irc.client.library.command;
+
+import org.jspecify.annotations.NonNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kitteh.irc.client.library.Client;
+import org.kitteh.irc.client.library.defaults.feature.SimpleDefaultMessageMap;
+import org.kitteh.irc.client.library.element.Channel;
+import org.kitteh.irc.client.library.element.ISupportParameter;
+import org.kitteh.irc.client.library.element.mode.ChannelMode;
+import org.kitteh.irc.client.library.element.mode.ChannelUserMode;
+import org.kitteh.irc.client.library.element.mode.ModeInfo;
+import org.kitteh.irc.client.library.element.mode.ModeStatus;
+import org.kitteh.irc.client.library.feature.CaseMapping;
+import org.kitteh.irc.client.library.feature.ServerInfo;
+import org.kitteh.irc.client.library.util.Mask;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.TreeSet;
+
+/**
+ * @see ModerationCommand
+ */
+public class ModerationCommandTest {
+    private static final String CHANNEL = "#targetchannel";
+
+    private Client client;
+    private ServerInfo serverInfo;
+    private ChannelMode ban;
+    private ChannelMode moderated;
+    private ChannelUserMode op;
+
+    /**
+     * And then Kitteh said, let there be test!
+     */
+    @BeforeEach
+    public void before() {
+        this.client = Mockito.mock(Client.class);
+        this.serverInfo = Mockito.mock(ServerInfo.class);
+        Mockito.when(this.client.getServerInfo()).thenReturn(this.serverInfo);
+        Mockito.when(this.client.getDefaultMessageMap()).thenReturn(new SimpleDefaultMessageMap(null));
+        Mockito.when(this.serverInfo.isValidChannel(Mockito.any())).thenReturn(true);
+        Mockito.when(this.serverInfo.getCaseMapping()).thenReturn(CaseMapping.RFC1459);
+        Mockito.when(this.serverInfo.getTargetLimit("KICK")).thenReturn(4);
+        ISupportParameter.Modes modes = Mockito.mock(ISupportParameter.Modes.class);
+        Mockito.when(this.serverInfo.getISupportParameter(ISupportParameter.Modes.NAME, ISupportParameter.Modes.class)).thenReturn(Optional.of(modes));
+        Mockito.when(modes.getInteger()).thenReturn(OptionalInt.of(4));
+        this.ban = this.getChannelMode('b', ChannelMode.Type.A_MASK);
+        this.moderated = this.getChannelMode('m', ChannelMode.Type.D_PARAMETER_NEVER);
+        this.op = this.getChannelUserMode('o');
+    }
+
+    @Test
+    public void testPacking() {
+        ModerationCommand sut = new ModerationCommand(this.client, CHANNEL);
+        sut.add(ModeStatus.Action.ADD, this.moderated);
+        for (int i = 0; i < 5; i++) {
+            sut.add(ModeStatus.Action.ADD, this.ban, "*!*@spam" + i);
+        }
+        sut.add(ModeStatus.Action.REMOVE, this.op, "Spammer");
+        for (int i = 0; i < 6; i++) {
+            sut.kick("Spammer" + i);
+        }
+        sut.reason("Flood");
+        sut.execute();
+
+        InOrder inOrder = Mockito.inOrder(this.client);
+        inOrder.verify(this.client).sendRawLine("MODE " + CHANNEL + " +mbbbb *!*@spam0 *!*@spam1 *!*@spam2 *!*@spam3");
+        inOrder.verify(this.client).sendRawLine("MODE " + CHANNEL + " +b-o *!*@spam4 Spammer");
+        inOrder.verify(this.client).sendRawLine("KICK " + CHANNEL + " Spammer0,Spammer1,Spammer2,Spammer3 :Flood");
+        inOrder.verify(this.client).sendRawLine("KICK " + CHANNEL + " Spammer4,Spammer5 :Flood");
+        inOrder.verifyNoMoreInteractions();
+        Assertions.assertFalse(sut.toString().isEmpty());
+    }
+
+    @Test
+    public void testLineLength() {
+        Mockito.when(this.serverInfo.getTargetLimit("KICK")).thenReturn(Integer.MAX_VALUE);
+        ModerationCommand sut = new ModerationCommand(this.client, CHANNEL);
+        String nick = "a".repeat(100);
+        for (int i = 0; i < 5; i++) {
+            sut.kick(nick + i);
+        }
+        sut.execute();
+
+        // Unknown self mask leaves 410 bytes, so three 101 character targets fit per line
+        Mockito.verify(this.client).sendRawLine("KICK " + CHANNEL + ' ' + nick + 0 + ',' + nick + 1 + ',' + nick + 2);
+        Mockito.verify(this.client).sendRawLine("KICK " + CHANNEL + ' ' + nick + 3 + ',' + nick + 4);
+    }
+
+    @Test
+    public void testReasonTooLong() {
+        ModerationCommand sut = new ModerationCommand(this.client, CHANNEL);
+        sut.add(ModeStatus.Action.ADD, this.moderated);
+        sut.kick("Spammer");
+        sut.reason("r".repeat(400));
+
+        Assertions.assertThrows(IllegalArgumentException.class, sut::execute);
+        Mockito.verify(this.client, Mockito.never()).sendRawLine(Mockito.anyString());
+    }
+
+    @Test
+    public void testMergeAndNoOps() {
+        Channel channel = Mockito.mock(Channel.class);
+        Mockito.when(this.client.getChannel(CHANNEL)).thenReturn(Optional.of(channel));
+        Comparator<ChannelUserMode> comparator = Comparator.comparing(ChannelUserMode::getChar);
+        TreeSet<ChannelUserMode> opped = new TreeSet<>(comparator);
+        opped.add(this.op);
+        Mockito.when(channel.getUserModes("Kitteh")).thenReturn(Optional.of(opped));
+        Mockito.when(channel.getUserModes("dog")).thenReturn(Optional.of(new TreeSet<>(comparator)));
+        Mockito.when(channel.getUserModes(Mockito.matches("(?i)cat"))).thenReturn(Optional.of(new TreeSet<>(comparator)));
+        Mockito.when(channel.hasCompleteUserData()).thenReturn(true);
+        ModeInfo existingBan = Mockito.mock(ModeInfo.class);
+        Mockito.when(existingBan.getMask()).thenReturn(Mask.fromString("*!*@Kitteh.org"));
+        Mockito.when(channel.getModeInfoList(this.ban)).thenReturn(Optional.of(List.of(existingBan)));
+
+        ModerationCommand sut = new ModerationCommand(this.client, CHANNEL);
+        sut.add(ModeStatus.Action.ADD, this.op, "Dog");
+        sut.add(ModeStatus.Action.REMOVE, this.op, "dog"); // Replaces the op, and Dog is not opped
+        sut.add(ModeStatus.Action.ADD, this.op, "Kitteh"); // Already opped
+        sut.add(ModeStatus.Action.REMOVE, this.op, "Cat"); // Not opped
+        sut.add(ModeStatus.Action.ADD, this.ban, "*!*@kitteh.org"); // Already banned
+        sut.add(ModeStatus.Action.REMOVE, this.ban, "*!*@cat.org"); // Not banned
+        sut.add(ModeStatus.Action.ADD, this.ban, "*!*@dog.org");
+        sut.kick("Cat");
+        sut.kick("cat");
+        sut.kick("Gone"); // Not in channel
+        sut.execute();
+
+        Mockito.verify(this.client).sendRawLine("MODE " + CHANNEL + " +b *!*@dog.org");
+        Mockito.verify(this.client).sendRawLine("KICK " + CHANNEL + " cat");
+        Mockito.verify(this.client, Mockito.times(2)).sendRawLine(Mockito.anyString());
+    }
+
+    private ChannelMode getChannelMode(char c, ChannelMode.Type type) {
+        Client client = this.client;
+        return new ChannelMode() {
+            @Override
+            public char getChar() {
+                return c;
+            }
+
+            @Override
+            public @NonNull Client getClient() {
+                return client;
+            }
+
+            @Override
+            public @NonNull Type getType() {
+                return type;
+            }
+        };
+    }
+
+    private ChannelUserMode getChannelUserMode(char c) {
+        Client client = this.client;
+        return new ChannelUserMode() {
+            @Override
+            public char getChar() {
+                return c;
+            }
+
+            @Override
+            public @NonNull Client getClient() {
+                return client;
+            }
+
+            @Override
+            public char getNickPrefix() {
+                return '@';
+            }
+        };
+    }
+}
@@ -0,0 +1,71 @@
+package org.kitteh.irc.client.library.defaults;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kitteh.irc.client.library.Client;
+import org.kitteh.irc.client.library.defaults.element.isupport.DefaultISupportTargMax;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import java.util.List;
+
+/**
+ * Tests sending from the default client.
+ */
+public class DefaultClientTest {
+    private DefaultClient client;
+
+    @BeforeEach
+    public void before() {
+        this.client = Mockito.spy((DefaultClient) Client.builder().nick("Kitteh").build());
+        Mockito.doNothing().when(this.client).sendRawLine(Mockito.anyString());
+    }
+
+    @AfterEach
+    public void after() {
+        this.client.shutdown();
+    }
+
+    @Test
+    public void broadcastTargetLimit() {
+        this.client.getServerInfo().addISupportParameter(new DefaultISupportTargMax(this.client, "TARGMAX", "PRIVMSG:3,NOTICE:"));
+        this.client.sendBroadcastMessage(List.of("#kitteh", "#cats", "Dog", "#KITTEH", "#dogs"), "Meow");
+        this.client.sendBroadcastNotice(List.of("#kitteh", "#cats", "Dog", "#dogs"), "Woof");
+
+        InOrder inOrder = Mockito.inOrder(this.client);
+        inOrder.verify(this.client).sendRawLine("PRIVMSG #kitteh,#cats,Dog :Meow");
+        inOrder.verify(this.client).sendRawLine("PRIVMSG #dogs :Meow");
+        inOrder.verify(this.client).sendRawLine("NOTICE #kitteh,#cats,Dog,#dogs :Woof");
+    }
+
+    @Test
+    public void broadcastLineLength() {
+        this.client.getServerInfo().addISupportParameter(new DefaultISupportTargMax(this.client, "TARGMAX", "PRIVMSG:"));
+        String target = "#" + "a".repeat(99);
+        String message = "m".repeat(190);
+        this.client.sendBroadcastMessage(List.of(target + 1, target + 2, target + 3), message);
+
+        // Unknown self mask leaves 505 - 100 - 7 - 190 = 208 for targets, so two 101 character targets fit per line
+        Mockito.verify(this.client).sendRawLine("PRIVMSG " + target + 1 + ',' + target + 2 + " :" + message);
+        Mockito.verify(this.client).sendRawLine("PRIVMSG " + target + 3 + " :" + message);
+    }
+
+    @Test
+    public void broadcastMessageTooLong() {
+        String message = "m".repeat(300);
+
+        // Unknown self mask leaves 505 - 100 - 7 - 300 = 98 for targets, so a 101 character target cannot fit
+        Assertions.assertThrows(IllegalArgumentException.class, () -> this.client.sendBroadcastMessage(List.of("#kitteh", "#" + "a".repeat(100)), message));
+        Mockito.verify(this.client, Mockito.never()).sendRawLine(Mockito.startsWith("PRIVMSG"));
+    }
+
+    @Test
+    public void broadcastWithoutTargMax() {
+        this.client.sendBroadcastMessage(List.of("#kitteh", "#cats"), "Meow");
+
+        Mockito.verify(this.client).sendRawLine("PRIVMSG #kitteh :Meow");
+        Mockito.verify(this.client).sendRawLine("PRIVMSG #cats :Meow");
+    }
+}
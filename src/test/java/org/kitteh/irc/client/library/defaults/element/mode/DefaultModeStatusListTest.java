@@ -0,0 +1,66 @@
+package org.kitteh.irc.client.library.defaults.element.mode;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kitteh.irc.client.library.Client;
+import org.kitteh.irc.client.library.defaults.feature.DefaultServerInfo;
+import org.kitteh.irc.client.library.element.mode.ChannelMode;
+import org.kitteh.irc.client.library.element.mode.ChannelUserMode;
+import org.kitteh.irc.client.library.element.mode.ModeStatus;
+import org.kitteh.irc.client.library.element.mode.ModeStatusList;
+import org.kitteh.irc.client.library.element.mode.UserMode;
+import org.mockito.Mockito;
+
+import java.util.List;
+
+/**
+ * Tests parsing mode changes.
+ */
+public class DefaultModeStatusListTest {
+    private Client client;
+
+    @BeforeEach
+    public void before() {
+        this.client = Mockito.mock(Client.class);
+        DefaultServerInfo serverInfo = new DefaultServerInfo(this.client);
+        Mockito.when(this.client.getServerInfo()).thenReturn(serverInfo);
+    }
+
+    @Test
+    public void testChannelParameters() {
+        ModeStatusList<ChannelMode> list = DefaultModeStatusList.fromChannel(this.client, List.of("#kitteh", "+ov-bk", "Kitteh", "Dog", "*!*@cat", "meow", "-l+t"), 1);
+        List<ModeStatus<ChannelMode>> all = list.getAll();
+        Assertions.assertEquals(6, all.size());
+        Assertions.assertInstanceOf(ChannelUserMode.class, all.get(0).getMode());
+        Assertions.assertEquals("Kitteh", all.get(0).getParameter().get());
+        Assertions.assertEquals("Dog", all.get(1).getParameter().get());
+        Assertions.assertEquals(ModeStatus.Action.REMOVE, all.get(2).getAction());
+        Assertions.assertEquals("*!*@cat", all.get(2).getParameter().get());
+        Assertions.assertEquals("meow", all.get(3).getParameter().get());
+        Assertions.assertFalse(all.get(4).getParameter().isPresent());
+        Assertions.assertEquals(ModeStatus.Action.ADD, all.get(5).getAction());
+        Assertions.assertEquals("+ov-bkl+t Kitteh Dog *!*@cat meow", list.getAsString());
+    }
+
+    @Test
+    public void testChannelString() {
+        ModeStatusList<ChannelMode> list = DefaultModeStatusList.fromChannel(this.client, "+lk 5 meow");
+        Assertions.assertEquals("+lk 5 meow", list.getAsString());
+    }
+
+    @Test
+    public void testUser() {
+        ModeStatusList<UserMode> list = DefaultModeStatusList.fromUser(this.client, List.of("Kitteh", "+iw-s"), 1);
+        Assertions.assertEquals("+iw-s", list.getAsString());
+    }
+
+    @Test
+    public void testInvalid() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> DefaultModeStatusList.fromChannel(this.client, List.of("#kitteh", "+o"), 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> DefaultModeStatusList.fromChannel(this.client, List.of("#kitteh", "+Z"), 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> DefaultModeStatusList.fromChannel(this.client, List.of("#kitteh", "o"), 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> DefaultModeStatusList.fromChannel(this.client, List.of("#kitteh", ""), 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> DefaultModeStatusList.fromUser(this.client, List.of("Kitteh", "+t"), 1));
+    }
+}
@@ -0,0 +1,92 @@
+package org.kitteh.irc.client.library.defaults.feature;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.kitteh.irc.client.library.element.Channel;
+import org.kitteh.irc.client.library.element.User;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tests the ConcurrentActorTracker.
+ */
+public class ConcurrentActorTrackerTest {
+    private ConcurrentActorTracker getTracker() {
+        return TrackerFixture.tracker(TrackerFixture.client(), ConcurrentActorTracker::new);
+    }
+
+    /**
+     * Tests that unchanged actors are read as the same published snapshot.
+     */
+    @Test
+    public void published() {
+        ConcurrentActorTracker tracker = this.getTracker();
+        tracker.trackChannel("#kitteh");
+        tracker.trackChannelUser("#kitteh", TrackerFixture.user("Kitteh"), Collections.emptySet());
+
+        Assertions.assertNull(tracker.getPublishedChannel("#kitteh"));
+        Channel channel = tracker.getTrackedChannel("#kitteh").orElseThrow();
+        Assertions.assertSame(channel, tracker.getPublishedChannel("#KITTEH"));
+        Assertions.assertSame(channel, tracker.getActor("#kitteh"));
+        Assertions.assertEquals(Collections.singleton(channel), tracker.getTrackedChannels());
+        User user = tracker.getTrackedUser("Kitteh").orElseThrow();
+        Assertions.assertSame(user, tracker.getActor("kitteh!user@host"));
+
+        tracker.setChannelTopic("#kitteh", "Meow");
+        Assertions.assertNull(tracker.getPublishedChannel("#kitteh"));
+        Assertions.assertTrue(tracker.isStale(channel));
+        Assertions.assertEquals("Meow", tracker.getTrackedChannel("#kitteh").orElseThrow().getTopic().getValue().orElseThrow());
+    }
+
+    /**
+     * Tests readers on other threads while the tracker is being changed.
+     *
+     * @throws Exception if a reader fails
+     */
+    @Test
+    public void concurrentReads() throws Exception {
+        ConcurrentActorTracker tracker = this.getTracker();
+        tracker.trackChannel("#kitteh");
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService readers = Executors.newFixedThreadPool(2);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            futures.add(readers.submit(() -> {
+                while (running.get()) {
+                    Channel channel = tracker.getTrackedChannel("#kitteh").orElseThrow();
+                    Assertions.assertEquals(channel.getNicknames().size(), channel.getUsers().size());
+                    channel.getUsers().forEach(user -> Assertions.assertTrue(user.getChannels().contains("#kitteh")));
+                    tracker.getTrackedUser("Cat0").ifPresent(User::getChannels);
+                }
+            }));
+        }
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            users.add(TrackerFixture.user("Cat" + i));
+        }
+        try {
+            for (int i = 0; i < 500; i++) {
+                User user = users.get(i % users.size());
+                if (tracker.getTrackedUser(user.getNick()).isPresent()) {
+                    tracker.trackUserPart("#kitteh", user.getNick());
+                } else {
+                    tracker.trackChannelUser("#kitteh", user, Collections.emptySet());
+                }
+            }
+        } finally {
+            running.set(false);
+            readers.shutdown();
+        }
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        Assertions.assertTrue(readers.awaitTermination(10, TimeUnit.SECONDS));
+    }
+}
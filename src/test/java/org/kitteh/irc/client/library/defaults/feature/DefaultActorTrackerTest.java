@@ -0,0 +1,307 @@
+package org.kitteh.irc.client.library.defaults.feature;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.kitteh.irc.client.library.Client;
+import org.kitteh.irc.client.library.defaults.element.mode.DefaultChannelUserMode;
+import org.kitteh.irc.client.library.element.Channel;
+import org.kitteh.irc.client.library.element.User;
+import org.kitteh.irc.client.library.element.mode.ChannelUserMode;
+import org.kitteh.irc.client.library.feature.ActorTracker;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+/**
+ * Tests the DefaultActorTracker.
+ */
+public class DefaultActorTrackerTest {
+    private Client.WithManagement client;
+    private DefaultActorTracker tracker;
+
+    private DefaultActorTracker getTracker() {
+        this.client = TrackerFixture.client();
+        this.tracker = TrackerFixture.tracker(this.client, DefaultActorTracker::new);
+        return this.tracker;
+    }
+
+    private Channel channel() {
+        return this.tracker.getTrackedChannel("#kitteh").orElseThrow();
+    }
+
+    /**
+     * Tests members, their modes, and case insensitive lookups.
+     */
+    @Test
+    public void members() {
+        DefaultActorTracker tracker = this.getTracker();
+        ChannelUserMode op = new DefaultChannelUserMode(this.client, 'o', '@');
+        tracker.trackChannel("#kitteh");
+        tracker.trackChannelUser("#kitteh", TrackerFixture.user("Kitteh"), Collections.singleton(op));
+        tracker.trackChannelUser("#kitteh", TrackerFixture.user("Cat[1]"), Collections.emptySet());
+        tracker.trackChannelNick("#kitteh", "Lurker", Collections.emptySet());
+
+        Channel channel = this.channel();
+        Assertions.assertSame(channel, this.channel());
+        Assertions.assertEquals(Set.of("Kitteh", "Cat[1]", "Lurker"), new HashSet<>(channel.getNicknames()));
+        Assertions.assertEquals(2, channel.getUsers().size());
+        Assertions.assertEquals("Cat[1]", channel.getUser("cat{1}").orElseThrow().getNick());
+        Assertions.assertFalse(channel.getUser("Lurker").isPresent());
+        Assertions.assertEquals(List.of(op), List.copyOf(channel.getUserModes("KITTEH").orElseThrow()));
+        Assertions.assertTrue(channel.getUserModes("Lurker").orElseThrow().isEmpty());
+    }
+
+    /**
+     * Tests that changes produce new snapshots and leave old ones intact.
+     */
+    @Test
+    public void changes() {
+        DefaultActorTracker tracker = this.getTracker();
+        ChannelUserMode voice = new DefaultChannelUserMode(this.client, 'v', '+');
+        tracker.trackChannel("#kitteh");
+        tracker.trackChannelUser("#kitteh", TrackerFixture.user("Kitteh"), Collections.emptySet());
+        tracker.trackChannelUser("#kitteh", TrackerFixture.user("Cat"), Collections.emptySet());
+        Channel before = this.channel();
+
+        tracker.trackUserNickChange("Cat", "Dog");
+        tracker.trackUserPart("#kitteh", "Kitteh");
+        tracker.trackChannelUser("#kitteh", TrackerFixture.user("Bird"), Collections.singleton(voice));
+        Channel after = this.channel();
+
+        Assertions.assertNotSame(before, after);
+        Assertions.assertTrue(tracker.isStale(before));
+        Assertions.assertEquals(Set.of("Kitteh", "Cat"), new HashSet<>(before.getNicknames()));
+        Assertions.assertEquals(Set.of("Dog", "Bird"), new HashSet<>(after.getNicknames()));
+        Assertions.assertEquals("Dog", after.getUser("dog").orElseThrow().getNick());
+        Assertions.assertFalse(after.getUser("Cat").isPresent());
+        Assertions.assertFalse(tracker.getTrackedUser("Kitteh").isPresent());
+        Assertions.assertEquals(List.of(voice), List.copyOf(after.getUserModes("Bird").orElseThrow()));
+
+        tracker.setUserAway("Dog", "Fetching");
+        tracker.setChannelTopic("#kitteh", "Meow");
+        Assertions.assertEquals("Fetching", this.channel().getUser("Dog").orElseThrow().getAwayMessage().orElseThrow());
+    }
+
+    /**
+     * Tests that users know their channels through joins, nick changes,
+     * parts, and quits.
+     */
+    @Test
+    public void memberships() {
+        DefaultActorTracker tracker = this.getTracker();
+        tracker.trackChannel("#kitteh");
+        tracker.trackChannel("#cats");
+        tracker.trackChannel("#dogs");
+        tracker.trackChannelUser("#kitteh", TrackerFixture.user("Kitteh"), Collections.emptySet());
+        tracker.trackChannelUser("#cats", TrackerFixture.user("Kitteh"), Collections.emptySet());
+        tracker.trackChannelUser("#dogs", TrackerFixture.user("Rex"), Collections.emptySet());
+        Assertions.assertEquals(Set.of("#kitteh", "#cats"), tracker.getTrackedUser("kitteh").orElseThrow().getChannels());
+
+        tracker.trackUserNickChange("Kitteh", "Tiger");
+        Assertions.assertEquals(Set.of("#kitteh", "#cats"), tracker.getTrackedUser("Tiger").orElseThrow().getChannels());
+
+        tracker.trackUserPart("#cats", "Tiger");
+        Assertions.assertEquals(Set.of("#kitteh"), tracker.getTrackedUser("Tiger").orElseThrow().getChannels());
+
+        tracker.unTrackChannel("#kitteh");
+        tracker.trackChannelUser("#dogs", TrackerFixture.user("Tiger"), Collections.emptySet());
+        Assertions.assertEquals(Set.of("#dogs"), tracker.getTrackedUser("Tiger").orElseThrow().getChannels());
+
+        tracker.trackUserQuit("Tiger");
+        Assertions.assertFalse(tracker.getTrackedUser("Tiger").isPresent());
+        Assertions.assertEquals(Set.of("Rex"), new HashSet<>(tracker.getTrackedChannel("#dogs").orElseThrow().getNicknames()));
+    }
+
+    /**
+     * Tests building snapshots on another thread while the channel changes.
+     *
+     * @throws Exception if the reader fails
+     */
+    @Test
+    public void snapshotWhileWriting() throws Exception {
+        DefaultActorTracker tracker = this.getTracker();
+        tracker.trackChannel("#kitteh");
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            users.add(TrackerFixture.user("Cat" + i));
+        }
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService reader = Executors.newSingleThreadExecutor();
+        Future<?> future = reader.submit(() -> {
+            while (running.get()) {
+                Channel channel = tracker.getTrackedChannel("#kitteh").orElseThrow();
+                Assertions.assertEquals(channel.getNicknames().size(), channel.getUsers().size());
+            }
+        });
+        try {
+            for (int i = 0; i < 400; i++) {
+                User user = users.get(i % users.size());
+                if ((i / users.size()) % 2 == 0) {
+                    tracker.trackChannelUser("#kitteh", user, Collections.emptySet());
+                } else {
+                    tracker.trackUserPart("#kitteh", user.getNick());
+                }
+            }
+        } finally {
+            running.set(false);
+            reader.shutdown();
+        }
+        future.get(10, TimeUnit.SECONDS);
+        Assertions.assertTrue(tracker.getTrackedChannel("#kitteh").orElseThrow().getNicknames().isEmpty());
+    }
+
+    /**
+     * Tests per-channel tracking levels.
+     */
+    @Test
+    public void trackingLevels() {
+        DefaultActorTracker tracker = this.getTracker();
+        tracker.setChannelTrackingLevel("#announce", ActorTracker.TrackingLevel.NAMES);
+        tracker.setChannelTrackingLevel("#quiet", ActorTracker.TrackingLevel.NONE);
+        tracker.trackChannel("#announce");
+        tracker.trackChannel("#quiet");
+        tracker.trackChannel("#kitteh");
+        tracker.trackChannelUser("#announce", TrackerFixture.user("Kitteh"), Collections.emptySet());
+        tracker.trackChannelNick("#announce", "Cat!cat@kitteh.org", Collections.emptySet());
+        tracker.trackChannelUser("#quiet", TrackerFixture.user("Kitteh"), Collections.emptySet());
+        tracker.trackChannelUser("#kitteh", TrackerFixture.user("Dog"), Collections.emptySet());
+        tracker.trackChannelUser("#announce", TrackerFixture.user("Dog"), Collections.emptySet());
+
+        Assertions.assertEquals(ActorTracker.TrackingLevel.NAMES, tracker.getChannelTrackingLevel("#ANNOUNCE"));
+        Assertions.assertEquals(ActorTracker.TrackingLevel.FULL, tracker.getChannelTrackingLevel("#kitteh"));
+        Channel announce = tracker.getTrackedChannel("#announce").orElseThrow();
+        Assertions.assertEquals(Set.of("Kitteh", "Cat", "Dog"), new HashSet<>(announce.getNicknames()));
+        Assertions.assertTrue(announce.getUsers().isEmpty());
+        Assertions.assertFalse(tracker.getTrackedUser("Kitteh").isPresent());
+        Assertions.assertFalse(tracker.getTrackedUser("Cat").isPresent());
+        Assertions.assertEquals(Set.of("#kitteh", "#announce"), tracker.getTrackedUser("Dog").orElseThrow().getChannels());
+        Assertions.assertTrue(tracker.getTrackedChannel("#quiet").orElseThrow().getNicknames().isEmpty());
+
+        tracker.trackUserNickChange("Kitteh", "Tiger");
+        tracker.trackUserQuit("Cat");
+        Assertions.assertEquals(Set.of("Tiger", "Dog"), new HashSet<>(tracker.getTrackedChannel("#announce").orElseThrow().getNicknames()));
+
+        tracker.setChannelTrackingLevel("#kitteh", ActorTracker.TrackingLevel.NAMES);
+        Assertions.assertFalse(tracker.getTrackedUser("Dog").isPresent());
+        Assertions.assertTrue(tracker.getTrackedChannel("#kitteh").orElseThrow().getUsers().isEmpty());
+        tracker.setChannelTrackingLevel("#kitteh", ActorTracker.TrackingLevel.NONE);
+        Assertions.assertTrue(tracker.getTrackedChannel("#kitteh").orElseThrow().getNicknames().isEmpty());
+    }
+
+    /**
+     * Tests that raising a channel's tracking level queries it again only
+     * when querying channel information.
+     */
+    @Test
+    public void trackingLevelQueries() {
+        DefaultActorTracker tracker = this.getTracker();
+        tracker.trackChannel("#kitteh");
+        tracker.setChannelTrackingLevel("#kitteh", ActorTracker.TrackingLevel.NONE);
+        tracker.setChannelTrackingLevel("#kitteh", ActorTracker.TrackingLevel.FULL);
+        Mockito.verify(this.client, Mockito.never()).sendRawLine(Mockito.anyString());
+
+        tracker.setQueryChannelInformation(true);
+        tracker.setChannelTrackingLevel("#kitteh", ActorTracker.TrackingLevel.NONE);
+        tracker.setChannelTrackingLevel("#kitteh", ActorTracker.TrackingLevel.NAMES);
+        Mockito.verify(this.client).sendRawLine("NAMES #kitteh");
+    }
+
+    /**
+     * Tests the mask and server name parsers against the regular
+     * expressions they replaced.
+     */
+    @Test
+    public void nameParsing() {
+        Pattern nickPattern = Pattern.compile("([^!@]+)!([^!@]+)@([^!@]+)");
+        Pattern serverPattern = Pattern.compile("(?!-)(?:[a-zA-Z\\d\\-]{0,62}[a-zA-Z\\d]\\.){1,126}(?!\\d+)[a-zA-Z\\d]{1,63}");
+        char[] chars = {'a', 'Z', '1', '-', '.', '!', '@', '_'};
+        Random random = new Random(42);
+        for (int i = 0; i < 50000; i++) {
+            StringBuilder builder = new StringBuilder();
+            int length = random.nextInt(12);
+            for (int j = 0; j < length; j++) {
+                builder.append(chars[random.nextInt(chars.length)]);
+            }
+            String name = builder.toString();
+            Assertions.assertEquals(nickPattern.matcher(name).matches(), DefaultActorTracker.getUserMaskSeparators(name) >= 0, name);
+            Assertions.assertEquals(serverPattern.matcher(name).matches(), DefaultActorTracker.isServerName(name), name);
+        }
+        Assertions.assertTrue(DefaultActorTracker.isServerName("irc.kitteh.org"));
+        Assertions.assertFalse(DefaultActorTracker.isServerName("a".repeat(64) + ".org"));
+        Assertions.assertFalse(DefaultActorTracker.isServerName("a.b." + "c.".repeat(125) + "org"));
+
+        DefaultActorTracker tracker = this.getTracker();
+        User user = (User) tracker.getActor("Kitteh!~meow@kitteh.org");
+        Assertions.assertEquals("~meow", user.getUserString());
+        Assertions.assertEquals("kitteh.org", user.getHost());
+        Assertions.assertSame(user, tracker.getActor("Kitteh!~meow@kitteh.org"));
+        Assertions.assertSame(tracker.getActor("irc.kitteh.org"), tracker.getActor("irc.kitteh.org"));
+    }
+
+    /**
+     * Tests that repeated user components are shared between users and that
+     * the mask is still built correctly from the compacted record.
+     */
+    @Test
+    public void compactUsers() {
+        DefaultActorTracker tracker = this.getTracker();
+        tracker.trackChannel("#kitteh");
+        tracker.trackChannelNick("#kitteh", "Kitteh!" + new String("~meow") + "@" + new String("kitteh.org"), Collections.emptySet());
+        tracker.trackChannelNick("#kitteh", "Cat!" + new String("~meow") + "@" + new String("kitteh.org"), Collections.emptySet());
+        User kitteh = tracker.getTrackedUser("Kitteh").orElseThrow();
+        User cat = tracker.getTrackedUser("Cat").orElseThrow();
+        Assertions.assertEquals("Kitteh!~meow@kitteh.org", kitteh.getName());
+        Assertions.assertSame(kitteh.getHost(), cat.getHost());
+        Assertions.assertSame(kitteh.getUserString(), cat.getUserString());
+        Assertions.assertFalse(tracker.isStale(kitteh));
+        tracker.trackUserHostnameChange("Kitteh", "cat.kitteh.org");
+        Assertions.assertTrue(tracker.isStale(kitteh));
+        Assertions.assertEquals("Kitteh!~meow@cat.kitteh.org", tracker.getTrackedUser("Kitteh").orElseThrow().getName());
+    }
+
+    /**
+     * Reports the heap used per tracked user in a large channel, including
+     * the snapshots of the channel and its users. Heap figures depend on the
+     * JVM and its load, so this only prints the result, and runs only with
+     * -Dkitteh.measure=true.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "kitteh.measure", matches = "true")
+    public void measureUsers() {
+        int count = 5000;
+        String[] masks = new String[count];
+        for (int i = 0; i < count; i++) {
+            masks[i] = "User" + i + "!~user" + (i % 10) + "@" + (i % 100) + ".users.kitteh.org";
+        }
+        long before = this.usedMemory();
+        DefaultActorTracker tracker = this.getTracker();
+        tracker.trackChannel("#big");
+        for (String mask : masks) {
+            tracker.trackChannelNick("#big", mask, Collections.emptySet());
+        }
+        Channel channel = tracker.getTrackedChannel("#big").orElseThrow();
+        Mockito.clearInvocations(this.client, this.client.getServerInfo());
+        long bytesPerUser = (this.usedMemory() - before) / count;
+        System.out.println("Bytes per tracked user: " + bytesPerUser + " (" + channel.getUsers().size() + " users)");
+    }
+
+    private long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,190 @@
+package org.kitteh.irc.client.library.defaults.feature;
+
+import net.engio.mbassy.listener.Handler;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.kitteh.irc.client.library.Client;
+import org.kitteh.irc.client.library.FakeClient;
+import org.kitteh.irc.client.library.defaults.element.DefaultActor;
+import org.kitteh.irc.client.library.defaults.element.DefaultServerMessage;
+import org.kitteh.irc.client.library.element.Actor;
+import org.kitteh.irc.client.library.event.client.ClientReceiveCommandEvent;
+import org.kitteh.irc.client.library.event.client.ClientReceiveNumericEvent;
+import org.kitteh.irc.client.library.event.helper.ClientReceiveServerMessageEvent;
+import org.kitteh.irc.client.library.exception.KittehEventException;
+import org.kitteh.irc.client.library.feature.filter.CommandFilter;
+import org.kitteh.irc.client.library.feature.filter.NumericFilter;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tests the IndexedEventManager.
+ */
+public class IndexedEventManagerTest {
+    public static class Listener {
+        private final List<String> calls = new ArrayList<>();
+
+        @Handler(priority = 1)
+        public void any(ClientReceiveServerMessageEvent event) {
+            this.calls.add("any " + event.getCommand());
+        }
+
+        @Handler(priority = 2)
+        @CommandFilter("PRIVMSG")
+        @CommandFilter("NOTICE")
+        public void message(ClientReceiveCommandEvent event) {
+            this.calls.add("message " + event.getCommand());
+        }
+
+        @Handler(priority = 3)
+        @NumericFilter(1)
+        public void welcome(ClientReceiveNumericEvent event) {
+            this.calls.add("welcome");
+        }
+
+        @Handler(rejectSubtypes = true)
+        private void exact(Object event) {
+            this.calls.add("object");
+        }
+    }
+
+    public static class Sublistener extends Listener {
+        @Override
+        public void any(ClientReceiveServerMessageEvent event) {
+            super.any(event);
+        }
+    }
+
+    public static class OrderedListener {
+        public final List<String> calls = new ArrayList<>();
+
+        @Handler(priority = 2)
+        public void first(String event) {
+            this.calls.add("first " + event);
+        }
+
+        @Handler(priority = 1)
+        public void fail(String event) {
+            throw new IllegalStateException(event);
+        }
+
+        @Handler
+        public void last(String event) {
+            this.calls.add("last " + event);
+        }
+    }
+
+    private static final class HiddenListener extends OrderedListener {
+        @Handler(priority = 3)
+        private void hidden(String event) {
+            this.calls.add("hidden " + event);
+        }
+    }
+
+    /**
+     * Tests dispatch by command and numeric, in priority order.
+     */
+    @Test
+    public void dispatch() {
+        FakeClient client = new FakeClient();
+        IndexedEventManager manager = new IndexedEventManager(client);
+        Listener listener = new Sublistener();
+        manager.registerEventListener(listener);
+
+        Actor actor = new DefaultActor(client, "kitteh");
+        manager.callEvent(new ClientReceiveCommandEvent(client, new DefaultServerMessage.StringCommand("privmsg", "", Collections.emptyList()), actor, "privmsg", Collections.emptyList()));
+        manager.callEvent(new ClientReceiveCommandEvent(client, new DefaultServerMessage.StringCommand("JOIN", "", Collections.emptyList()), actor, "JOIN", Collections.emptyList()));
+        manager.callEvent(new ClientReceiveNumericEvent(client, new DefaultServerMessage.NumericCommand(1, "", Collections.emptyList()), actor, "001", 1, Collections.emptyList()));
+        manager.callEvent(new ClientReceiveNumericEvent(client, new DefaultServerMessage.NumericCommand(2, "", Collections.emptyList()), actor, "002", 2, Collections.emptyList()));
+        manager.callEvent(new Object());
+        Assertions.assertEquals(List.of("message privmsg", "any privmsg", "any JOIN", "welcome", "any 001", "any 002", "object"), listener.calls);
+
+        manager.unregisterEventListener(listener);
+        manager.callEvent(new Object());
+        Assertions.assertEquals(7, listener.calls.size());
+        Assertions.assertTrue(manager.getRegisteredEventListeners().isEmpty());
+    }
+
+    /**
+     * Tests a listener class which is not public, with a private handler,
+     * invoked through a generated invoker.
+     */
+    @Test
+    public void nonPublicListener() {
+        HiddenListener listener = new HiddenListener();
+        org.kitteh.irc.client.library.util.Listener<Exception> exceptions = this.dispatchOrdered(listener);
+        Assertions.assertEquals(List.of("hidden meow", "first meow", "last meow"), listener.calls);
+        this.verifyFailure(exceptions);
+    }
+
+    /**
+     * Tests a listener class from another class loader, as loaded by a
+     * plugin system. The generated invoker cannot be defined for it, so its
+     * handlers are invoked through a method handle instead.
+     *
+     * @throws ReflectiveOperationException if the class cannot be loaded
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void otherClassLoaderListener() throws ReflectiveOperationException {
+        Class<?> listenerClass = new IsolatingClassLoader(OrderedListener.class).loadClass(OrderedListener.class.getName());
+        Assertions.assertNotSame(OrderedListener.class, listenerClass);
+        Object listener = listenerClass.getConstructor().newInstance();
+        org.kitteh.irc.client.library.util.Listener<Exception> exceptions = this.dispatchOrdered(listener);
+        Assertions.assertEquals(List.of("first meow", "last meow"), listenerClass.getField("calls").get(listener));
+        this.verifyFailure(exceptions);
+    }
+
+    @SuppressWarnings("unchecked")
+    private org.kitteh.irc.client.library.util.Listener<Exception> dispatchOrdered(Object listener) {
+        Client client = Mockito.mock(Client.class);
+        org.kitteh.irc.client.library.util.Listener<Exception> exceptions = Mockito.mock(org.kitteh.irc.client.library.util.Listener.class);
+        Mockito.when(client.getExceptionListener()).thenReturn(exceptions);
+        IndexedEventManager manager = new IndexedEventManager(client);
+        manager.registerEventListener(listener);
+        manager.callEvent("meow");
+        return exceptions;
+    }
+
+    private void verifyFailure(org.kitteh.irc.client.library.util.Listener<Exception> exceptions) {
+        ArgumentCaptor<Exception> captor = ArgumentCaptor.forClass(Exception.class);
+        Mockito.verify(exceptions).queue(captor.capture());
+        Assertions.assertInstanceOf(KittehEventException.class, captor.getValue());
+        Assertions.assertInstanceOf(IllegalStateException.class, captor.getValue().getCause());
+        Assertions.assertEquals("meow", captor.getValue().getCause().getMessage());
+    }
+
+    private static final class IsolatingClassLoader extends ClassLoader {
+        private final Class<?> isolated;
+
+        private IsolatingClassLoader(Class<?> isolated) {
+            super(isolated.getClassLoader());
+            this.isolated = isolated;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.equals(this.isolated.getName())) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (this.getClassLoadingLock(name)) {
+                Class<?> loaded = this.findLoadedClass(name);
+                if (loaded != null) {
+                    return loaded;
+                }
+                try (InputStream in = this.isolated.getResourceAsStream('/' + name.replace('.', '/') + ".class")) {
+                    byte[] bytes = in.readAllBytes();
+                    return this.defineClass(name, bytes, 0, bytes.length);
+                } catch (IOException e) {
+                    throw new ClassNotFoundException(name, e);
+                }
+            }
+        }
+    }
+}
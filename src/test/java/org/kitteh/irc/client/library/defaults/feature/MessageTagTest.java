@@ -39,4 +39,25 @@ public class MessageTagTest {
         Assertions.assertInstanceOf(MessageTag.Time.class, tags.getFirst(), "Failed to process time tag as MessageTag.Time");
         Assertions.assertEquals(((MessageTag.Time) tags.getFirst()).getTime(), Instant.parse(TIME), "Failed to process time tag");
     }
+
+    /**
+     * Tests value unescaping.
+     */
+    @Test
+    public void escapedValue() {
+        List<MessageTag> tags = new FakeClient().getMessageTagManager().getCapabilityTags("aaa=a\\:b\\sc\\\\d\\re\\nf\\xg");
+        Assertions.assertEquals("a;b c\\d\re\nf\\xg", tags.getFirst().getValue().orElse(null), "Failed to unescape tag value");
+    }
+
+    /**
+     * Tests that repeated tags keep only the final value.
+     */
+    @Test
+    public void duplicateTag() {
+        List<MessageTag> tags = new FakeClient().getMessageTagManager().getCapabilityTags("aaa=bbb;ccc;AAA=ddd");
+        Assertions.assertEquals(2, tags.size(), "Failed to discard duplicate tag");
+        Assertions.assertEquals("AAA", tags.get(0).getName(), "Failed to keep final duplicate tag");
+        Assertions.assertEquals("ddd", tags.get(0).getValue().orElse(null), "Failed to keep final duplicate tag value");
+        Assertions.assertEquals("ccc", tags.get(1).getName(), "Failed to keep tag order");
+    }
 }
@@ -0,0 +1,66 @@
+package org.kitteh.irc.client.library.defaults.feature;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.kitteh.irc.client.library.element.mode.ModeInfo;
+import org.kitteh.irc.client.library.feature.CaseMapping;
+import org.kitteh.irc.client.library.util.Mask;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests the ModeInfoList.
+ */
+public class ModeInfoListTest {
+    private ModeInfo info(String mask) {
+        ModeInfo info = Mockito.mock(ModeInfo.class);
+        Mockito.when(info.getMask()).thenReturn(Mask.fromString(mask));
+        return info;
+    }
+
+    /**
+     * Tests ordering, replacement, removal, and that earlier versions are
+     * left intact.
+     */
+    @Test
+    public void changes() {
+        ModeInfo cat = this.info("cat!*@*");
+        ModeInfo dog = this.info("dog!*@*");
+        ModeInfo bird = this.info("bird!*@*");
+        ModeInfoList before = ModeInfoList.of(List.of(cat, dog, bird));
+        Assertions.assertEquals(List.of(cat, dog, bird), before);
+
+        ModeInfo newDog = this.info("dog!*@*");
+        ModeInfoList after = before.minus(Mask.fromString("cat!*@*")).plus(newDog).plus(cat);
+        Assertions.assertEquals(List.of(newDog, bird, cat), after);
+        Assertions.assertSame(newDog, after.get(Mask.fromString("dog!*@*")));
+        Assertions.assertTrue(after.contains(newDog));
+        Assertions.assertFalse(after.contains(dog));
+        Assertions.assertSame(after, after.minus(Mask.fromString("fish!*@*")));
+        Assertions.assertEquals(List.of(cat, dog, bird), before);
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> after.add(dog));
+        Assertions.assertEquals(List.of(dog), before.getMatching(CaseMapping.ASCII, "DOG!woof@kitteh.org"));
+        Assertions.assertEquals(List.of(newDog), after.getMatching(CaseMapping.ASCII, "Dog!woof@kitteh.org"));
+    }
+
+    /**
+     * Tests a long list keeps its order through many removals.
+     */
+    @Test
+    public void large() {
+        List<ModeInfo> expected = new ArrayList<>();
+        ModeInfoList list = ModeInfoList.empty();
+        for (int i = 0; i < 5000; i++) {
+            ModeInfo info = this.info("user" + i + "!*@*");
+            expected.add(info);
+            list = list.plus(info);
+        }
+        for (int i = 0; i < 5000; i += 3) {
+            list = list.minus(Mask.fromString("user" + i + "!*@*"));
+        }
+        expected.removeIf(info -> (Integer.parseInt(info.getMask().asString().substring(4, info.getMask().asString().indexOf('!'))) % 3) == 0);
+        Assertions.assertEquals(expected, list);
+    }
+}
@@ -0,0 +1,65 @@
+package org.kitteh.irc.client.library.defaults.feature;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Tests the PersistentMap.
+ */
+public class PersistentMapTest {
+    private record Key(int hash, int id) {
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+    /**
+     * Tests random changes against a HashMap, including colliding hashes,
+     * and that earlier versions are left untouched.
+     */
+    @Test
+    public void randomChanges() {
+        Random random = new Random(1337);
+        Map<Key, Integer> expected = new HashMap<>();
+        PersistentMap<Key, Integer> map = PersistentMap.empty();
+        for (int i = 0; i < 20000; i++) {
+            Key key = new Key(random.nextInt(64) * (random.nextBoolean() ? 1 : 0x10000), random.nextInt(400));
+            Map<Key, Integer> expectedBefore = new HashMap<>(expected);
+            PersistentMap<Key, Integer> before = map;
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                map = map.minus(key);
+            } else {
+                expected.put(key, i);
+                map = map.plus(key, i);
+            }
+            Assertions.assertEquals(expected.size(), map.size());
+            Assertions.assertEquals(expected.get(key), map.get(key));
+            if ((i % 1000) == 0) {
+                Assertions.assertEquals(expected, map);
+                Assertions.assertEquals(expectedBefore, before);
+            }
+        }
+        Assertions.assertEquals(expected, map);
+        for (Key key : expected.keySet()) {
+            map = map.minus(key);
+        }
+        Assertions.assertTrue(map.isEmpty());
+        Assertions.assertFalse(map.entrySet().iterator().hasNext());
+    }
+
+    /**
+     * Tests that unchanged maps are returned as-is.
+     */
+    @Test
+    public void unchanged() {
+        PersistentMap<String, String> map = PersistentMap.<String, String>empty().plus("a", "b");
+        Assertions.assertSame(map, map.minus("c"));
+        Assertions.assertSame(map, map.plus("a", map.get("a")));
+    }
+}
@@ -4,8 +4,13 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.kitteh.irc.client.library.Client;
 import org.kitteh.irc.client.library.defaults.element.isupport.DefaultISupportChanModes;
+import org.kitteh.irc.client.library.defaults.element.isupport.DefaultISupportChanTypes;
+import org.kitteh.irc.client.library.defaults.element.isupport.DefaultISupportChannelLen;
+import org.kitteh.irc.client.library.defaults.element.isupport.DefaultISupportNetwork;
+import org.kitteh.irc.client.library.defaults.element.isupport.DefaultISupportPrefix;
 import org.kitteh.irc.client.library.defaults.element.mode.DefaultChannelMode;
 import org.kitteh.irc.client.library.element.mode.ChannelMode;
+import org.kitteh.irc.client.library.element.mode.ChannelUserMode;
 import org.mockito.Mockito;
 
 import java.util.List;
@@ -38,4 +43,41 @@ public class ServerInfoTest {
         Assertions.assertEquals(8, modesRedux.stream().filter(mode -> mode.getType() == ChannelMode.Type.D_PARAMETER_NEVER).count());
         Assertions.assertEquals(ChannelMode.Type.C_PARAMETER_ON_SET, serverInfo.getChannelMode('d').get().getType());
     }
+
+    /**
+     * Tests the compiled views are reused until relevant information changes.
+     */
+    @Test
+    public void testViews() {
+        final Client client = Mockito.mock(Client.class);
+        final DefaultServerInfo serverInfo = new DefaultServerInfo(client);
+        List<ChannelUserMode> userModes = serverInfo.getChannelUserModes();
+        Assertions.assertSame(userModes, serverInfo.getChannelUserModes());
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> userModes.clear());
+        Assertions.assertEquals('o', serverInfo.getChannelUserModeByPrefix('@').get().getChar());
+        Assertions.assertFalse(serverInfo.getChannelUserModeByPrefix('%').isPresent());
+        Assertions.assertFalse(serverInfo.getChannelUserModeByPrefix('\u00e9').isPresent());
+
+        serverInfo.addISupportParameter(new DefaultISupportNetwork(client, DefaultISupportNetwork.NAME, "Kitteh"));
+        Assertions.assertSame(userModes, serverInfo.getChannelUserModes());
+
+        serverInfo.addISupportParameter(new DefaultISupportPrefix(client, DefaultISupportPrefix.NAME, "(qohv)~@%+"));
+        Assertions.assertEquals(4, serverInfo.getChannelUserModes().size());
+        Assertions.assertEquals('h', serverInfo.getChannelUserModeByPrefix('%').get().getChar());
+        Assertions.assertEquals('~', serverInfo.getChannelUserMode('q').get().getNickPrefix());
+        Assertions.assertEquals('h', serverInfo.getTargetedChannelInfo("%#kitteh").get().getChar());
+
+        Assertions.assertTrue(serverInfo.isValidChannel("&kitteh"));
+        serverInfo.addISupportParameter(new DefaultISupportChanTypes(client, DefaultISupportChanTypes.NAME, "#"));
+        Assertions.assertFalse(serverInfo.isValidChannel("&kitteh"));
+        Assertions.assertTrue(serverInfo.isValidChannel("#kitteh"));
+        serverInfo.addISupportParameter(new DefaultISupportChannelLen(client, DefaultISupportChannelLen.NAME, "4"));
+        Assertions.assertFalse(serverInfo.isValidChannel("#kitteh"));
+        Assertions.assertTrue(serverInfo.isValidChannel("#cat"));
+        Assertions.assertFalse(serverInfo.getTargetedChannelInfo("@#kitteh").isPresent());
+        Assertions.assertEquals(4, serverInfo.getChannelNameValidator().getLengthLimit());
+        Assertions.assertEquals('k', serverInfo.getChannelMode('k').get().getChar());
+        Assertions.assertFalse(serverInfo.getChannelMode('Z').isPresent());
+        Assertions.assertEquals('i', serverInfo.getUserMode('i').get().getChar());
+    }
 }
@@ -0,0 +1,62 @@
+package org.kitteh.irc.client.library.defaults.feature;
+
+import org.kitteh.irc.client.library.Client;
+import org.kitteh.irc.client.library.element.User;
+import org.kitteh.irc.client.library.feature.CaseMapping;
+import org.kitteh.irc.client.library.feature.ServerInfo;
+import org.mockito.Mockito;
+
+import java.util.function.Function;
+
+/**
+ * Mock clients and users for testing actor trackers.
+ */
+public final class TrackerFixture {
+    private TrackerFixture() {
+    }
+
+    /**
+     * Creates a mock client named Me, with RFC 1459 case mapping and
+     * channels starting with #.
+     *
+     * @return mock client
+     */
+    public static Client.WithManagement client() {
+        ServerInfo.WithManagement serverInfo = Mockito.mock(ServerInfo.WithManagement.class);
+        Mockito.when(serverInfo.getCaseMapping()).thenReturn(CaseMapping.RFC1459);
+        Mockito.when(serverInfo.isValidChannel(Mockito.anyString())).thenAnswer(invocation -> ((String) invocation.getArgument(0)).startsWith("#"));
+        Client.WithManagement client = Mockito.mock(Client.WithManagement.class);
+        Mockito.when(client.getServerInfo()).thenReturn(serverInfo);
+        Mockito.when(client.getNick()).thenReturn("Me");
+        return client;
+    }
+
+    /**
+     * Creates a tracker for a client, not querying channel information.
+     *
+     * @param client client
+     * @param constructor tracker constructor
+     * @param <T> tracker type
+     * @return tracker
+     */
+    public static <T extends DefaultActorTracker> T tracker(Client.WithManagement client, Function<Client.WithManagement, T> constructor) {
+        T tracker = constructor.apply(client);
+        tracker.setQueryChannelInformation(false);
+        return tracker;
+    }
+
+    /**
+     * Creates a mock user nick!user@host.
+     *
+     * @param nick nickname
+     * @return mock user
+     */
+    public static User user(String nick) {
+        User user = Mockito.mock(User.class);
+        Mockito.when(user.getNick()).thenReturn(nick);
+        Mockito.when(user.getName()).thenReturn(nick + "!user@host");
+        Mockito.when(user.getUserString()).thenReturn("user");
+        Mockito.when(user.getHost()).thenReturn("host");
+        return user;
+    }
+}
@@ -0,0 +1,80 @@
+package org.kitteh.irc.client.library.defaults.listener;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kitteh.irc.client.library.Client;
+import org.kitteh.irc.client.library.defaults.element.DefaultActor;
+import org.kitteh.irc.client.library.defaults.element.DefaultServerMessage;
+import org.kitteh.irc.client.library.defaults.element.mode.DefaultChannelUserMode;
+import org.kitteh.irc.client.library.defaults.feature.DefaultActorTracker;
+import org.kitteh.irc.client.library.defaults.feature.TrackerFixture;
+import org.kitteh.irc.client.library.element.Channel;
+import org.kitteh.irc.client.library.element.mode.ChannelUserMode;
+import org.kitteh.irc.client.library.event.channel.ChannelNamesUpdatedEvent;
+import org.kitteh.irc.client.library.event.client.ClientReceiveNumericEvent;
+import org.kitteh.irc.client.library.feature.EventManager;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Tests the DefaultNamesListener.
+ */
+public class DefaultNamesListenerTest {
+    private Client.WithManagement client;
+    private DefaultActorTracker tracker;
+    private EventManager eventManager;
+    private DefaultNamesListener listener;
+
+    @BeforeEach
+    public void before() {
+        this.client = TrackerFixture.client();
+        this.tracker = TrackerFixture.tracker(this.client, DefaultActorTracker::new);
+        this.eventManager = Mockito.mock(EventManager.class);
+        ChannelUserMode op = new DefaultChannelUserMode(this.client, 'o', '@');
+        Mockito.when(this.client.getActorTracker()).thenReturn(this.tracker);
+        Mockito.when(this.client.getEventManager()).thenReturn(this.eventManager);
+        Mockito.when(this.client.getServerInfo().getChannelUserModeByPrefix('@')).thenReturn(Optional.of(op));
+        this.listener = new DefaultNamesListener(this.client);
+    }
+
+    /**
+     * Tests NAMES for a joined channel.
+     */
+    @Test
+    public void trackedChannel() {
+        this.tracker.trackChannel("#kitteh");
+        Channel channel = this.names("#kitteh");
+        Assertions.assertEquals(Set.of("Kitteh", "Cat"), new HashSet<>(channel.getNicknames()));
+        Assertions.assertFalse(channel.getUserModes("Kitteh").orElseThrow().isEmpty());
+        Assertions.assertTrue(channel.getUserModes("Cat").orElseThrow().isEmpty());
+    }
+
+    /**
+     * Tests NAMES for a channel not joined, which is still listed.
+     */
+    @Test
+    public void untrackedChannel() {
+        Channel channel = this.names("#kitteh");
+        Assertions.assertEquals(Set.of("Kitteh", "Cat"), new HashSet<>(channel.getNicknames()));
+    }
+
+    private Channel names(String channel) {
+        this.listener.names(this.numeric(353, "Me", "=", channel, "@Kitteh Cat"));
+        this.listener.namesComplete(this.numeric(366, "Me", channel, "End of /NAMES list."));
+        ArgumentCaptor<ChannelNamesUpdatedEvent> captor = ArgumentCaptor.forClass(ChannelNamesUpdatedEvent.class);
+        Mockito.verify(this.eventManager).callEvent(captor.capture());
+        Assertions.assertEquals(2, captor.getValue().getSource().size());
+        return captor.getValue().getChannel();
+    }
+
+    private ClientReceiveNumericEvent numeric(int numeric, String... parameters) {
+        return new ClientReceiveNumericEvent(this.client, new DefaultServerMessage.NumericCommand(numeric, "", Collections.emptyList()), new DefaultActor(this.client, "irc.kitteh.org"), String.format("%03d", numeric), numeric, List.of(parameters));
+    }
+}
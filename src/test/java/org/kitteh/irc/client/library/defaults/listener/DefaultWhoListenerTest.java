@@ -0,0 +1,86 @@
+package org.kitteh.irc.client.library.defaults.listener;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kitteh.irc.client.library.Client;
+import org.kitteh.irc.client.library.defaults.element.DefaultActor;
+import org.kitteh.irc.client.library.defaults.element.DefaultServerMessage;
+import org.kitteh.irc.client.library.defaults.element.mode.DefaultChannelUserMode;
+import org.kitteh.irc.client.library.defaults.feature.DefaultActorTracker;
+import org.kitteh.irc.client.library.defaults.feature.TrackerFixture;
+import org.kitteh.irc.client.library.element.Channel;
+import org.kitteh.irc.client.library.element.User;
+import org.kitteh.irc.client.library.element.mode.ChannelUserMode;
+import org.kitteh.irc.client.library.event.channel.ChannelUsersUpdatedEvent;
+import org.kitteh.irc.client.library.event.client.ClientReceiveNumericEvent;
+import org.kitteh.irc.client.library.feature.EventManager;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Tests the DefaultWhoListener.
+ */
+public class DefaultWhoListenerTest {
+    private Client.WithManagement client;
+    private DefaultActorTracker tracker;
+    private EventManager eventManager;
+    private DefaultWhoListener listener;
+
+    @BeforeEach
+    public void before() {
+        this.client = TrackerFixture.client();
+        this.tracker = TrackerFixture.tracker(this.client, DefaultActorTracker::new);
+        this.eventManager = Mockito.mock(EventManager.class);
+        ChannelUserMode op = new DefaultChannelUserMode(this.client, 'o', '@');
+        Mockito.when(this.client.getActorTracker()).thenReturn(this.tracker);
+        Mockito.when(this.client.getEventManager()).thenReturn(this.eventManager);
+        Mockito.when(this.client.getServerInfo().getChannelUserModeByPrefix('@')).thenReturn(Optional.of(op));
+        this.listener = new DefaultWhoListener(this.client);
+    }
+
+    /**
+     * Tests WHO for a joined channel.
+     */
+    @Test
+    public void trackedChannel() {
+        this.tracker.trackChannel("#kitteh");
+        this.verifyWho(this.who("#kitteh"));
+    }
+
+    /**
+     * Tests WHO for a channel not joined, whose users are still listed as
+     * its members.
+     */
+    @Test
+    public void untrackedChannel() {
+        this.verifyWho(this.who("#kitteh"));
+    }
+
+    private void verifyWho(Channel channel) {
+        Assertions.assertEquals(List.of("Cat"), channel.getNicknames());
+        User cat = channel.getUser("Cat").orElseThrow();
+        Assertions.assertEquals("Cat!~cat@kitteh.org", cat.getName());
+        Assertions.assertEquals("Cat Person", cat.getRealName().orElseThrow());
+        Assertions.assertFalse(channel.getUserModes("Cat").orElseThrow().isEmpty());
+        Assertions.assertEquals(Set.of("#kitteh"), this.tracker.getTrackedUser("Cat").orElseThrow().getChannels());
+    }
+
+    private Channel who(String channel) {
+        this.listener.who(this.numeric(352, "Me", channel, "~cat", "kitteh.org", "irc.kitteh.org", "Cat", "H@", "Cat Person"));
+        this.listener.whoComplete(this.numeric(315, "Me", channel, "End of /WHO list."));
+        ArgumentCaptor<ChannelUsersUpdatedEvent> captor = ArgumentCaptor.forClass(ChannelUsersUpdatedEvent.class);
+        Mockito.verify(this.eventManager).callEvent(captor.capture());
+        Assertions.assertEquals(2, captor.getValue().getSource().size());
+        return captor.getValue().getChannel();
+    }
+
+    private ClientReceiveNumericEvent numeric(int numeric, String... parameters) {
+        return new ClientReceiveNumericEvent(this.client, new DefaultServerMessage.NumericCommand(numeric, "", Collections.emptyList()), new DefaultActor(this.client, "irc.kitteh.org"), String.format("%03d", numeric), numeric, List.of(parameters));
+    }
+}
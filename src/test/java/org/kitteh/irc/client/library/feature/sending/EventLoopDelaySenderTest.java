@@ -0,0 +1,78 @@
+package org.kitteh.irc.client.library.feature.sending;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.kitteh.irc.client.library.Client;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the EventLoopDelaySender.
+ */
+public class EventLoopDelaySenderTest {
+    /**
+     * Tests that messages are released in order and paced by the delay.
+     *
+     * @throws InterruptedException if interrupted
+     */
+    @Test
+    public void pacing() throws InterruptedException {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            EventLoopDelaySender sender = new EventLoopDelaySender(Mockito.mock(Client.class), "Test", 50);
+            List<String> sent = new CopyOnWriteArrayList<>();
+            List<Long> times = new CopyOnWriteArrayList<>();
+            CountDownLatch latch = new CountDownLatch(4);
+            sender.queue("one");
+            sender.queue("two");
+            sender.beginSending(message -> {
+                sent.add(message);
+                times.add(System.nanoTime());
+                latch.countDown();
+            }, scheduler);
+            sender.queue("three");
+            sender.queue("four");
+            Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+            Assertions.assertEquals(Arrays.asList("one", "two", "three", "four"), sent);
+            for (int i = 1; i < times.size(); i++) {
+                Assertions.assertTrue((times.get(i) - times.get(i - 1)) >= TimeUnit.MILLISECONDS.toNanos(50));
+            }
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Tests that nothing is released while paused, and that shutdown
+     * returns what remains.
+     *
+     * @throws InterruptedException if interrupted
+     */
+    @Test
+    public void pauseAndShutdown() throws InterruptedException {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            EventLoopDelaySender sender = new EventLoopDelaySender(Mockito.mock(Client.class), "Test", 0);
+            List<String> sent = new CopyOnWriteArrayList<>();
+            sender.beginSending(sent::add, scheduler);
+            sender.pause();
+            sender.queue("one");
+            sender.queue("two");
+            Thread.sleep(50);
+            Assertions.assertTrue(sent.isEmpty());
+            Assertions.assertTrue(sender.contains("two"));
+            Queue<String> remaining = sender.shutdown();
+            Assertions.assertEquals(Arrays.asList("one", "two"), Arrays.asList(remaining.toArray()));
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+}
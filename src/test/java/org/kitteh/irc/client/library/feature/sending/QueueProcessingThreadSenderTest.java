@@ -0,0 +1,36 @@
+package org.kitteh.irc.client.library.feature.sending;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.kitteh.irc.client.library.Client;
+import org.mockito.Mockito;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the QueueProcessingThreadSender.
+ */
+public class QueueProcessingThreadSenderTest {
+    /**
+     * Tests that contains tracks duplicate messages until each is sent.
+     *
+     * @throws InterruptedException if interrupted
+     */
+    @Test
+    public void contains() throws InterruptedException {
+        QueueProcessingThreadSender sender = new QueueProcessingThreadSender(Mockito.mock(Client.class), "Test");
+        try {
+            sender.queue("PRIVMSG #kitteh :meow");
+            sender.queue("PRIVMSG #kitteh :meow");
+            Assertions.assertTrue(sender.contains("PRIVMSG #kitteh :meow"));
+            Assertions.assertFalse(sender.contains("PRIVMSG #kitteh :purr"));
+            CountDownLatch sent = new CountDownLatch(2);
+            sender.beginSending(message -> sent.countDown());
+            Assertions.assertTrue(sent.await(5, TimeUnit.SECONDS));
+            Assertions.assertFalse(sender.contains("PRIVMSG #kitteh :meow"));
+        } finally {
+            sender.shutdown();
+        }
+    }
+}
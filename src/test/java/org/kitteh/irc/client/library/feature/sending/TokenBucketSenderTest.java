@@ -0,0 +1,51 @@
+package org.kitteh.irc.client.library.feature.sending;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.kitteh.irc.client.library.Client;
+import org.mockito.Mockito;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the TokenBucketSender.
+ */
+public class TokenBucketSenderTest {
+    /**
+     * Tests line costs.
+     */
+    @Test
+    public void cost() {
+        TokenBucketSender sender = new TokenBucketSender(Mockito.mock(Client.class), "Test", 5, 1000);
+        try {
+            sender.setBytesPerToken(10);
+            Assertions.assertEquals(1 + 1.0, sender.getCost("PRIVMSG #a"), 0.0001);
+            Assertions.assertEquals(3 + 0.6, sender.getCost("who #a"), 0.0001);
+            Assertions.assertEquals(2 + 1.7, sender.getCost("@+a=b :me JOIN #a"), 0.0001);
+            sender.setCommandCost("privmsg", 0);
+            Assertions.assertEquals(1.0, sender.getCost("PRIVMSG #a"), 0.0001);
+        } finally {
+            sender.shutdown();
+        }
+    }
+
+    /**
+     * Tests that the burst is sent at once and then refilled over time.
+     */
+    @Test
+    public void burst() {
+        TokenBucketSender sender = new TokenBucketSender(Mockito.mock(Client.class), "Test", 3, 100);
+        try {
+            sender.setBytesPerToken(Integer.MAX_VALUE);
+            long start = System.nanoTime();
+            for (int i = 0; i < 3; i++) {
+                Assertions.assertTrue(sender.checkReady("PING " + i));
+            }
+            Assertions.assertTrue((System.nanoTime() - start) < TimeUnit.MILLISECONDS.toNanos(90));
+            Assertions.assertTrue(sender.checkReady("WHO #a"));
+            Assertions.assertTrue((System.nanoTime() - start) >= TimeUnit.MILLISECONDS.toNanos(300));
+        } finally {
+            sender.shutdown();
+        }
+    }
+}
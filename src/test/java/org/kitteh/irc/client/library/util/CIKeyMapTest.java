@@ -6,8 +6,11 @@ import org.kitteh.irc.client.library.Client;
 import org.kitteh.irc.client.library.feature.CaseMapping;
 import org.mockito.Mockito;
 
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Tests the CIKeyMap.
@@ -97,6 +100,45 @@ public class CIKeyMapTest {
         Assertions.assertEquals(1, sut.size());
     }
 
+    /**
+     * Tests growth, live views, and rehashing on a case mapping change.
+     */
+    @Test
+    public void testViewsAndRehash() {
+        Client client = this.getMockClientWithCaseMapping(CaseMapping.ASCII);
+        CIKeyMap<Integer> sut = new CIKeyMap<>(client);
+        Set<String> keys = sut.keySet();
+        Collection<Integer> values = sut.values();
+        for (int i = 0; i < 1000; i++) {
+            sut.put("Cat" + i, i);
+        }
+        Assertions.assertEquals(1000, keys.size());
+        Assertions.assertTrue(keys.contains("CAT999"));
+        Assertions.assertTrue(values.contains(500));
+        Assertions.assertEquals(CaseMapping.ASCII.toLowerCase("Cat[1]").hashCode(), CaseMapping.ASCII.hashCodeIgnoringCase("Cat[1]"));
+        Assertions.assertEquals(CaseMapping.RFC1459.toLowerCase("Cat[1]^").hashCode(), CaseMapping.RFC1459.hashCodeIgnoringCase("Cat[1]^"));
+
+        Iterator<Map.Entry<String, Integer>> iterator = sut.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if ((iterator.next().getValue() % 2) == 0) {
+                iterator.remove();
+            }
+        }
+        Assertions.assertEquals(500, sut.size());
+        Assertions.assertFalse(sut.containsKey("cat0"));
+        Assertions.assertEquals(1, sut.get("cat1"));
+        keys.remove("CAT1");
+        Assertions.assertFalse(sut.containsKey("Cat1"));
+
+        sut.clear();
+        sut.put("[cat]", 1);
+        sut.put("{cat}", 2);
+        Assertions.assertEquals(2, sut.size());
+        Mockito.when(client.getServerInfo()).thenReturn(new StubServerInfo(CaseMapping.RFC1459));
+        Assertions.assertEquals(1, sut.size());
+        Assertions.assertTrue(sut.containsKey("{CAT}"));
+    }
+
     /**
      * Gets a mock client with a certain casemapping.
      *
@@ -71,6 +71,9 @@ public class CISetTest {
         CISet sut = new CISet(client);
         sut.add("[cat]^");
         Assertions.assertTrue(sut.contains("{cat}~"));
+        Assertions.assertFalse(sut.add("{CAT}~"));
+        Assertions.assertEquals("{CAT}~", sut.iterator().next());
+        Assertions.assertEquals(1, sut.size());
     }
 
     /**
@@ -0,0 +1,47 @@
+package org.kitteh.irc.client.library.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+/**
+ * Tests the channel name validator.
+ */
+public class ChannelNameValidatorTest {
+    @Test
+    public void testValid() {
+        ChannelNameValidator validator = ChannelNameValidator.of(List.of('#', '&'), -1);
+        Assertions.assertTrue(validator.isValid("#kitteh"));
+        Assertions.assertTrue(validator.isValid("&kitteh"));
+        Assertions.assertTrue(validator.isValid("##"));
+        Assertions.assertTrue(validator.isValid("#kétteh"));
+        Assertions.assertTrue(validator.isPrefix('#'));
+        Assertions.assertFalse(validator.isPrefix('!'));
+    }
+
+    @Test
+    public void testInvalid() {
+        ChannelNameValidator validator = ChannelNameValidator.of(List.of('#'), -1);
+        Assertions.assertFalse(validator.isValid(""));
+        Assertions.assertFalse(validator.isValid("#"));
+        Assertions.assertFalse(validator.isValid("kitteh"));
+        Assertions.assertFalse(validator.isValid("&kitteh"));
+        Assertions.assertFalse(validator.isValid("#kit teh"));
+        Assertions.assertFalse(validator.isValid("#kit,teh"));
+        Assertions.assertFalse(validator.isValid("#kit\u0007teh"));
+        Assertions.assertFalse(validator.isValid("#kitteh\r\n"));
+    }
+
+    @Test
+    public void testLengthAndOffset() {
+        ChannelNameValidator validator = ChannelNameValidator.of(List.of('#'), 7);
+        Assertions.assertTrue(validator.isValid("#kitteh"));
+        Assertions.assertFalse(validator.isValid("#kittens"));
+        Assertions.assertTrue(validator.isValid("@#kitteh", 1));
+        Assertions.assertFalse(validator.isValid("@#kitteh", 0));
+        Assertions.assertFalse(validator.isValid("@#", 1));
+        Assertions.assertFalse(validator.isValid("#kitteh", 10));
+        Assertions.assertFalse(validator.isValid("#kitteh", -1));
+    }
+}
@@ -0,0 +1,55 @@
+package org.kitteh.irc.client.library.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.kitteh.irc.client.library.feature.CaseMapping;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Tests Mask matching and the MaskIndex.
+ */
+public class MaskIndexTest {
+    /**
+     * Tests glob matching of a single mask.
+     */
+    @Test
+    public void mask() {
+        Assertions.assertTrue(Mask.fromString("*!*@*").matches(CaseMapping.ASCII, "Kitteh!~meow@kitteh.org"));
+        Assertions.assertTrue(Mask.fromString("kitteh!*@*.ORG").matches(CaseMapping.ASCII, "Kitteh!~meow@kitteh.org"));
+        Assertions.assertTrue(Mask.fromString("k?tteh!*meow@*").matches(CaseMapping.ASCII, "Kitteh!~meow@kitteh.org"));
+        Assertions.assertTrue(Mask.fromString("[cat]!*@*").matches(CaseMapping.RFC1459, "{Cat}!cat@kitteh.org"));
+        Assertions.assertFalse(Mask.fromString("[cat]!*@*").matches(CaseMapping.ASCII, "{Cat}!cat@kitteh.org"));
+        Assertions.assertFalse(Mask.fromString("*!*@kitteh.org").matches(CaseMapping.ASCII, "Kitteh!~meow@cat.kitteh.org"));
+        Assertions.assertFalse(Mask.fromString("k?tteh!*@*").matches(CaseMapping.ASCII, "Ktteh!~meow@kitteh.org"));
+    }
+
+    /**
+     * Tests the index finds exactly what trying every mask finds, in order.
+     */
+    @Test
+    public void index() {
+        Random random = new Random(42);
+        String[] nicks = {"Kitteh", "Cat[1]", "cat{1}", "Dog", "*", "K*", "?at*"};
+        String[] users = {"~meow", "*", "~*", "woof"};
+        String[] hosts = {"kitteh.org", "*.kitteh.org", "cat.KITTEH.org", "*.org", "192.168.1.5", "192.168.*", "192.*.5", "*", "*kitteh.org", "irc.*"};
+        List<Mask> masks = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            masks.add(Mask.fromString(nicks[random.nextInt(nicks.length)] + '!' + users[random.nextInt(users.length)] + '@' + hosts[random.nextInt(hosts.length)]));
+        }
+        masks.add(Mask.fromString("*kitteh*"));
+        masks.add(Mask.fromString("dog!woof"));
+        MaskIndex<Mask> index = MaskIndex.of(CaseMapping.RFC1459, masks, Function.identity());
+        Assertions.assertEquals(masks.size(), index.size());
+
+        String[] names = {"Kitteh!~meow@kitteh.org", "CAT{1}!woof@cat.kitteh.org", "Dog!woof@192.168.1.5", "Dog!woof@irc.kitteh.org", "Bird!tweet@example.com", "Dog!woof"};
+        for (String name : names) {
+            List<Mask> expected = masks.stream().filter(mask -> mask.matches(CaseMapping.RFC1459, name)).collect(Collectors.toList());
+            Assertions.assertEquals(expected, index.getMatches(name), name);
+        }
+    }
+}
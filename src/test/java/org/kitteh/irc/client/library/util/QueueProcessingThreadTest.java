@@ -0,0 +1,77 @@
+package org.kitteh.irc.client.library.util;
+
+import org.jspecify.annotations.NonNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the QueueProcessingThread.
+ */
+public class QueueProcessingThreadTest {
+    private static final class Processor extends QueueProcessingThread<Integer> {
+        private final List<Integer> processed = new CopyOnWriteArrayList<>();
+        private final List<Thread> threads = new CopyOnWriteArrayList<>();
+        private final CountDownLatch cleaned = new CountDownLatch(1);
+        private final CountDownLatch done;
+
+        private Processor(boolean virtual, int expected) {
+            super("Test Processor", virtual);
+            this.done = new CountDownLatch(expected);
+        }
+
+        @Override
+        protected void processElement(@NonNull Integer element) {
+            this.processed.add(element);
+            this.threads.add(Thread.currentThread());
+            this.done.countDown();
+        }
+
+        @Override
+        protected void cleanup(@NonNull Queue<Integer> remainingQueue) {
+            this.cleaned.countDown();
+        }
+    }
+
+    /**
+     * Tests processing on a platform thread.
+     *
+     * @throws InterruptedException if interrupted
+     */
+    @Test
+    public void platform() throws InterruptedException {
+        this.test(false);
+    }
+
+    /**
+     * Tests processing on a virtual thread.
+     *
+     * @throws InterruptedException if interrupted
+     */
+    @Test
+    public void virtual() throws InterruptedException {
+        this.test(true);
+    }
+
+    private void test(boolean virtual) throws InterruptedException {
+        Processor processor = new Processor(virtual, 100);
+        Assertions.assertEquals(virtual, processor.isRunningVirtually());
+        for (int i = 0; i < 100; i++) {
+            processor.queue(i);
+        }
+        Assertions.assertTrue(processor.done.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals(i, processor.processed.get(i));
+        }
+        Assertions.assertTrue(processor.threads.stream().allMatch(thread -> thread.isVirtual() == virtual));
+        Assertions.assertFalse(processor.isInterrupted());
+        processor.interrupt();
+        Assertions.assertTrue(processor.cleaned.await(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(processor.isInterrupted());
+    }
+}
@@ -0,0 +1,112 @@
+package org.kitteh.irc.client.library.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the SerialExecutor.
+ */
+public class SerialExecutorTest {
+    /**
+     * Tests that tasks sharing a pool still run in order, one at a time.
+     *
+     * @throws InterruptedException if interrupted
+     */
+    @Test
+    public void ordering() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            int executors = 8;
+            int tasks = 1000;
+            CountDownLatch latch = new CountDownLatch(executors * tasks);
+            List<List<Integer>> results = new ArrayList<>();
+            List<SerialExecutor> serials = new ArrayList<>();
+            for (int i = 0; i < executors; i++) {
+                results.add(new ArrayList<>());
+                serials.add(new SerialExecutor(pool));
+            }
+            for (int task = 0; task < tasks; task++) {
+                for (int i = 0; i < executors; i++) {
+                    List<Integer> result = results.get(i);
+                    int value = task;
+                    serials.get(i).execute(() -> {
+                        result.add(value);
+                        latch.countDown();
+                    });
+                }
+            }
+            Assertions.assertTrue(latch.await(10, TimeUnit.SECONDS));
+            for (List<Integer> result : results) {
+                Assertions.assertEquals(tasks, result.size());
+                for (int task = 0; task < tasks; task++) {
+                    Assertions.assertEquals(task, result.get(task));
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Tests that nothing runs after shutdown.
+     */
+    @Test
+    public void shutdown() {
+        List<Runnable> submitted = new ArrayList<>();
+        SerialExecutor serial = new SerialExecutor(submitted::add);
+        List<String> ran = new ArrayList<>();
+        serial.execute(() -> ran.add("one"));
+        serial.shutdown();
+        serial.execute(() -> ran.add("two"));
+        submitted.forEach(Runnable::run);
+        Assertions.assertTrue(ran.isEmpty());
+        Assertions.assertTrue(serial.isShutdown());
+    }
+
+    /**
+     * Tests that rejection on submission is handed off and shuts down.
+     */
+    @Test
+    public void rejectedOnSubmit() {
+        List<RejectedExecutionException> rejections = new ArrayList<>();
+        SerialExecutor serial = new SerialExecutor(task -> {
+            throw new RejectedExecutionException();
+        }, rejections::add);
+        serial.execute(() -> Assertions.fail("Rejected task ran"));
+        Assertions.assertEquals(1, rejections.size());
+        Assertions.assertTrue(serial.isShutdown());
+    }
+
+    /**
+     * Tests that rejection when a batch hands back the remainder is handed
+     * off on the worker, rather than thrown, and shuts down.
+     */
+    @Test
+    public void rejectedOnWorker() {
+        List<Runnable> submitted = new ArrayList<>();
+        List<RejectedExecutionException> rejections = new ArrayList<>();
+        SerialExecutor serial = new SerialExecutor(task -> {
+            if (!submitted.isEmpty()) {
+                throw new RejectedExecutionException();
+            }
+            submitted.add(task);
+        }, rejections::add);
+        List<Integer> ran = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            int value = i;
+            serial.execute(() -> ran.add(value));
+        }
+        submitted.get(0).run();
+        Assertions.assertEquals(64, ran.size());
+        Assertions.assertEquals(1, rejections.size());
+        Assertions.assertTrue(serial.isShutdown());
+    }
+}
@@ -0,0 +1,64 @@
+package org.kitteh.irc.client.library.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Tests the ServerLine class.
+ */
+public class ServerLineTest {
+    private static final String FULL = "@aaa=bbb;ccc :kitteh!~meow@kitteh.org PRIVMSG #kicl :Hello, wörld  ";
+
+    /**
+     * Tests a line with tags, prefix, and a trailing parameter.
+     */
+    @Test
+    public void fullLine() {
+        for (ServerLine line : new ServerLine[]{ServerLine.of(FULL), ServerLine.of(FULL.getBytes(StandardCharsets.UTF_8))}) {
+            Assertions.assertEquals("aaa=bbb;ccc", line.getTagSection());
+            Assertions.assertEquals("kitteh!~meow@kitteh.org", line.getPrefix());
+            Assertions.assertEquals("PRIVMSG", line.getCommand());
+            Assertions.assertTrue(line.isCommand("PRIVMSG"));
+            Assertions.assertFalse(line.isCommand("PRIVMSGS"));
+            Assertions.assertEquals(List.of("#kicl", "Hello, wörld  "), line.getParameters());
+            Assertions.assertEquals(FULL, line.getMessage());
+        }
+    }
+
+    /**
+     * Tests a line without tags or prefix, and with extra spacing.
+     */
+    @Test
+    public void bareLine() {
+        ServerLine line = ServerLine.of("  MODE  #kicl +o  kitteh");
+        Assertions.assertNull(line.getTagSection());
+        Assertions.assertEquals("", line.getPrefix());
+        Assertions.assertEquals("MODE", line.getCommand());
+        Assertions.assertEquals(List.of("#kicl", "+o", "kitteh"), line.getParameters());
+    }
+
+    /**
+     * Tests an empty trailing parameter and a colon-led final parameter.
+     */
+    @Test
+    public void trailing() {
+        Assertions.assertEquals(List.of("#kicl", ""), ServerLine.of("PRIVMSG #kicl :").getParameters());
+        Assertions.assertEquals(List.of("kitteh"), ServerLine.of("NICK :kitteh").getParameters());
+    }
+
+    /**
+     * Tests lines missing pieces.
+     */
+    @Test
+    public void incomplete() {
+        Assertions.assertTrue(ServerLine.of("").isEmpty());
+        Assertions.assertNull(ServerLine.of(":kitteh.org").getCommand());
+        Assertions.assertEquals("", ServerLine.of("@ PING").getTagSection());
+        Assertions.assertEquals(0, ServerLine.of("PING").getParameterCount());
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> ServerLine.of("PING").getParameter(0));
+        Assertions.assertTrue(ServerLine.of("PING :meow").startsWith("PING "));
+    }
+}
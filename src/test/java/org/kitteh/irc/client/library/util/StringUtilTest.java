@@ -5,6 +5,8 @@ import org.junit.jupiter.api.Test;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 /**
  * Tests the StringUtil class.
@@ -75,6 +77,28 @@ public class StringUtilTest {
         Assertions.assertThrows(IllegalArgumentException.class, () -> StringUtil.makeRainbow("Someday we'll find it, the rainbow test coverage, the coders, the users, and me.", new Format[]{Format.UNDERLINE}));
     }
 
+    /**
+     * Tests UTF-8 length against encoding.
+     */
+    @Test
+    public void utf8Length() {
+        for (String string : new String[]{"", "PRIVMSG #kitteh :meow", "caf\u00e9", "\u732b", "\ud83d\ude3a cat", "lone \ud83d surrogate", "\ude3a\ud83d"}) {
+            Assertions.assertEquals(string.getBytes(StandardCharsets.UTF_8).length, StringUtil.getUtf8Length(string), string);
+        }
+    }
+
+    /**
+     * Tests joining targets by count and byte limits.
+     */
+    @Test
+    public void joinTargets() {
+        Assertions.assertEquals(List.of("#a,#b", "#c"), StringUtil.joinTargets(List.of("#a", "#b", "#c"), 2, 100));
+        Assertions.assertEquals(List.of("#a,#b", "#\u732b"), StringUtil.joinTargets(List.of("#a", "#b", "#\u732b"), 5, 5));
+        Assertions.assertEquals(List.of(), StringUtil.joinTargets(List.of(), 5, 5));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> StringUtil.joinTargets(List.of("#a", "#kitteh"), 5, 5));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> StringUtil.joinTargets(List.of("#a"), 0, 5));
+    }
+
     /**
      * Tests the private constructor.
      *